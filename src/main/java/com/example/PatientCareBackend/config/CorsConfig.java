@@ -26,7 +26,8 @@ public class CorsConfig {
                         .allowedOrigins(origins.toArray(new String[0]))
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS", "HEAD")
                         .allowedHeaders("*")
-                        .exposedHeaders("Authorization", "Content-Disposition")
+                        .exposedHeaders("Authorization", "Content-Disposition", "X-Export-Next-Watermark", "Retry-After",
+                                "X-Next-Cursor")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
@@ -0,0 +1,45 @@
+package com.example.PatientCareBackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Trend detection for DeteriorationMonitor
+@Data
+@Component
+@ConfigurationProperties(prefix = "deterioration")
+public class DeteriorationProperties {
+
+    private boolean enabled = true;
+
+    // Older readings weigh half as much every half-life
+    private double halfLifeHours = 4;
+
+    // A trend needs this much weight of readings spread over at least this long before it can alert
+    private double minReadings = 4;
+    private double minSpanHours = 2;
+
+    // The change across the window must exceed this many standard deviations of the scatter around the trend line
+    private double noiseFactor = 2;
+
+    private double cooldownHours = 6;
+
+    // Readings replayed at startup; patients without readings for this long are dropped
+    private double historyHours = 24;
+
+    // Readings from other instances reach the catch-up after later local ones; up to this much older than a patient's
+    // latest reading they are still merged into the trend, beyond it they are dropped
+    private long reorderWindowSeconds = 300;
+
+    // Change per hour that counts as deterioration; negative for signals that deteriorate by falling
+    private Map<String, Double> slopePerHour = new LinkedHashMap<>(Map.of(
+            "heart-rate", 3.0,
+            "respiratory-rate", 1.5,
+            "systolic-bp", -5.0,
+            "oxygen-saturation", -1.0,
+            "temperature", 0.3,
+            "early-warning-score", 0.5));
+}
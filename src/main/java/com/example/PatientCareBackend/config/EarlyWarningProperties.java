@@ -0,0 +1,34 @@
+package com.example.PatientCareBackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Band tables for EarlyWarningScorer, NEWS2 (SpO2 scale 1) unless configured otherwise
+@Data
+@Component
+@ConfigurationProperties(prefix = "early-warning")
+public class EarlyWarningProperties {
+
+    // Per parameter, "upper bound:score" bands in ascending order ending with "*:score". Bounds are inclusive and
+    // their decimals set the resolution, e.g. 35.0 compares temperatures in tenths. Unlisted parameters score 0.
+    private Map<String, String> bands = new LinkedHashMap<>(Map.of(
+            "respiratory-rate", "8:3,11:1,20:0,24:2,*:3",
+            "oxygen-saturation", "91:3,93:2,95:1,*:0",
+            "supplemental-oxygen", "21:0,*:2",
+            "systolic-bp", "90:3,100:2,110:1,219:0,*:3",
+            "heart-rate", "40:3,50:1,90:0,110:1,130:2,*:3",
+            "consciousness", "0:0,*:3",
+            "temperature", "35.0:3,36.0:1,38.0:0,39.0:1,*:2"));
+
+    // Aggregate scores from which a reading is MEDIUM, HIGH and CRITICAL risk
+    private int mediumScore = 1;
+    private int highScore = 5;
+    private int criticalScore = 7;
+
+    // One parameter scoring this much makes the reading at least HIGH risk
+    private int singleParameterHighScore = 3;
+}
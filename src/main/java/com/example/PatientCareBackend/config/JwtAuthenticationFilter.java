@@ -1,11 +1,17 @@
 package com.example.PatientCareBackend.config;
 
+import com.example.PatientCareBackend.model.User;
+import com.example.PatientCareBackend.service.AuthenticatedUser;
 import com.example.PatientCareBackend.service.JwtService;
+import com.example.PatientCareBackend.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,6 +30,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Build the principal from the signed claims instead of loading the user on every request
+    @Value("${security.jwt.stateless:true}")
+    private boolean statelessAuthentication;
 
     // List of public endpoints that don't require JWT authentication
     private static final List<String> PUBLIC_ENDPOINTS = List.of(
@@ -68,12 +79,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+
+        // The token is parsed and verified once; everything below works from these claims
+        final Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            UserDetails userDetails = statelessAuthentication
+                    ? loadUserFromClaims(claims)
+                    : this.userDetailsService.loadUserByUsername(userEmail);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -86,6 +108,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserFromClaims(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null || tokenRevocationService.isRevoked(userId, claims.getIssuedAt())) {
+            return null;
+        }
+
+        try {
+            return new AuthenticatedUser(
+                    userId,
+                    claims.getSubject(),
+                    null,
+                    User.Role.valueOf(role),
+                    claims.get("email", String.class),
+                    claims.get("firstName", String.class),
+                    claims.get("lastName", String.class),
+                    claims.get("specialty", String.class)
+            );
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private boolean isPublicEndpoint(String requestPath) {
         return PUBLIC_ENDPOINTS.stream().anyMatch(requestPath::startsWith);
     }
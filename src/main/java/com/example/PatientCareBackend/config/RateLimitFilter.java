@@ -0,0 +1,38 @@
+package com.example.PatientCareBackend.config;
+
+import com.example.PatientCareBackend.exception.TooManyRequestsException;
+import com.example.PatientCareBackend.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+// Runs after JwtAuthenticationFilter so quotas are keyed by the authenticated user. Not a @Component: registering it
+// with the servlet container as well would meter requests before the caller is known.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitService rateLimitService;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public RateLimitFilter(RateLimitService rateLimitService, HandlerExceptionResolver handlerExceptionResolver) {
+        this.rateLimitService = rateLimitService;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long retryAfter = rateLimitService.tryConsume(request);
+        if (retryAfter > 0) {
+            // Rendered by GlobalExceptionHandler, including the Retry-After header
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new TooManyRequestsException("Rate limit exceeded, please retry later", retryAfter));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
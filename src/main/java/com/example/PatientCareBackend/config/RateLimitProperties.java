@@ -0,0 +1,28 @@
+package com.example.PatientCareBackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Endpoint groups for RateLimitFilter; a request is metered by the first group with a matching pattern
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Group> groups = new ArrayList<>();
+
+    @Data
+    public static class Group {
+        private String name;
+        private List<String> patterns = new ArrayList<>();
+        // Requests per period for each user or client address; 0 leaves the group unmetered
+        private long capacity;
+        private long periodSeconds = 60;
+    }
+}
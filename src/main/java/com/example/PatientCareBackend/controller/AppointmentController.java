@@ -2,6 +2,7 @@ package com.example.PatientCareBackend.controller;
 
 import com.example.PatientCareBackend.dto.request.AppointmentRequest;
 import com.example.PatientCareBackend.dto.response.AppointmentResponse;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.model.Appointment;
 import com.example.PatientCareBackend.service.AppointmentService;
 import jakarta.validation.Valid;
@@ -21,9 +22,10 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
 
     @GetMapping
-    public ResponseEntity<List<AppointmentResponse>> getAllAppointments() {
-        List<AppointmentResponse> appointments = appointmentService.getAllAppointments();
-        return ResponseEntity.ok(appointments);
+    public ResponseEntity<List<AppointmentResponse>> getAllAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return appointmentService.getAllAppointments(cursor, CursorPage.resolveLimit(limit)).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -4,14 +4,21 @@ import com.example.PatientCareBackend.dto.request.AuthRequest;
 import com.example.PatientCareBackend.dto.request.RegisterRequest;
 import com.example.PatientCareBackend.dto.response.AuthResponse;
 import com.example.PatientCareBackend.dto.response.UserResponse;
+import com.example.PatientCareBackend.exception.AuthenticationException;
 import com.example.PatientCareBackend.model.User;
 import com.example.PatientCareBackend.service.AuthService;
 import com.example.PatientCareBackend.service.JwtService;
+import com.example.PatientCareBackend.service.LoginThrottleService;
+import com.example.PatientCareBackend.service.PasswordHashingExecutor;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -19,17 +26,31 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtService jwtService;
+    private final LoginThrottleService loginThrottleService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
+    // Sign-in and sign-up hash passwords on PasswordHashingExecutor; the request thread returns to Tomcat meanwhile
     @PostMapping("/signin")
-    public ResponseEntity<AuthResponse> authenticate(@Valid @RequestBody AuthRequest authRequest) {
-        AuthResponse response = authService.authenticate(authRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> authenticate(@Valid @RequestBody AuthRequest authRequest,
+                                                                        HttpServletRequest request) {
+        String username = authRequest.getUsernameOrEmail();
+        loginThrottleService.checkAttempt(request.getRemoteAddr(), username);
+        return passwordHashingExecutor.submit(() -> authService.authenticate(authRequest))
+                .whenComplete((response, ex) -> {
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof AuthenticationException) {
+                        loginThrottleService.recordFailure(username);
+                    }
+                })
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        AuthResponse response = authService.register(registerRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest registerRequest,
+                                                                    HttpServletRequest request) {
+        loginThrottleService.checkAttempt(request.getRemoteAddr(), null);
+        return passwordHashingExecutor.submit(() -> authService.register(registerRequest))
+                .thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/me")
@@ -1,101 +1,241 @@
 package com.example.PatientCareBackend.controller;
 
+import com.example.PatientCareBackend.dto.request.ExportJobRequest;
+import com.example.PatientCareBackend.dto.response.ExportJobResponse;
+import com.example.PatientCareBackend.service.ExportBundleService;
+import com.example.PatientCareBackend.service.ExportJobService;
 import com.example.PatientCareBackend.service.ExportService;
+import com.example.PatientCareBackend.util.ContentEncoding;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/export")
 @RequiredArgsConstructor
 public class ExportController {
 
+    private static final String NEXT_WATERMARK_HEADER = "X-Export-Next-Watermark";
+
     private final ExportService exportService;
+    private final ExportJobService exportJobService;
+    private final ExportBundleService exportBundleService;
 
     @GetMapping("/patients")
-    public ResponseEntity<InputStreamResource> exportPatients(
+    public ResponseEntity<StreamingResponseBody> exportPatients(
             @RequestParam(defaultValue = "csv") String format,
-            @RequestParam(required = false) LocalDateTime startDate,
-            @RequestParam(required = false) LocalDateTime endDate) {
-
-        ByteArrayInputStream data = exportService.exportPatients(format);
+            @RequestParam(required = false) List<String> columns,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        exportService.validateFormat(format);
+        exportService.validateColumns(ExportService.ExportType.PATIENTS, columns);
+        StreamingResponseBody body = out -> exportService.exportPatients(format, columns, startDate, endDate, out);
+        return buildExportResponse("patients", format, acceptEncoding, body);
+    }
 
-        String filename = "patients." + format.toLowerCase();
-        String contentType = getContentType(format);
+    @GetMapping("/surgeries")
+    public ResponseEntity<StreamingResponseBody> exportSurgeries(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) List<String> columns,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        exportService.validateFormat(format);
+        exportService.validateColumns(ExportService.ExportType.SURGERIES, columns);
+        StreamingResponseBody body = out -> exportService.exportSurgeries(format, columns, startDate, endDate, out);
+        return buildExportResponse("surgeries", format, acceptEncoding, body);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(data));
+    @GetMapping("/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) List<String> columns,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        exportService.validateFormat(format);
+        exportService.validateColumns(ExportService.ExportType.APPOINTMENTS, columns);
+        StreamingResponseBody body = out -> exportService.exportAppointments(format, columns, startDate, endDate, out);
+        return buildExportResponse("appointments", format, acceptEncoding, body);
     }
 
-    @GetMapping("/surgeries")
-    public ResponseEntity<InputStreamResource> exportSurgeries(
+    @GetMapping("/lab-tests")
+    public ResponseEntity<StreamingResponseBody> exportLabTests(
             @RequestParam(defaultValue = "csv") String format,
-            @RequestParam(required = false) LocalDateTime startDate,
-            @RequestParam(required = false) LocalDateTime endDate) {
+            @RequestParam(required = false) List<String> columns,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        exportService.validateFormat(format);
+        exportService.validateColumns(ExportService.ExportType.LAB_TESTS, columns);
+        StreamingResponseBody body = out -> exportService.exportLabTests(format, columns, startDate, endDate, out);
+        return buildExportResponse("lab_tests", format, acceptEncoding, body);
+    }
 
-        ByteArrayInputStream data = exportService.exportSurgeries(format);
+    @GetMapping("/prescriptions")
+    public ResponseEntity<StreamingResponseBody> exportPrescriptions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) List<String> columns,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        exportService.validateFormat(format);
+        exportService.validateColumns(ExportService.ExportType.PRESCRIPTIONS, columns);
+        StreamingResponseBody body = out -> exportService.exportPrescriptions(format, columns, startDate, endDate, out);
+        return buildExportResponse("prescriptions", format, acceptEncoding, body);
+    }
 
-        String filename = "surgeries." + format.toLowerCase();
-        String contentType = getContentType(format);
+    // All entities in one ZIP; the first streams while the others render concurrently
+    @GetMapping("/bundle")
+    public ResponseEntity<StreamingResponseBody> exportBundle(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
 
+        ExportBundleService.ExportBundle bundle = exportBundleService.startBundle(format, startDate, endDate);
+        StreamingResponseBody body = bundle::writeTo;
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(data));
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export_bundle.zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
     }
 
-    @GetMapping("/appointments")
-    public ResponseEntity<InputStreamResource> exportAppointments(
-            @RequestParam(defaultValue = "csv") String format,
-            @RequestParam(required = false) LocalDateTime startDate,
-            @RequestParam(required = false) LocalDateTime endDate) {
+    // Multi-entity Excel export, one sheet per entity; all entities when none are given
+    @GetMapping("/workbook")
+    public ResponseEntity<StreamingResponseBody> exportWorkbook(
+            @RequestParam(required = false) List<String> entities,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
 
-        ByteArrayInputStream data = exportService.exportAppointments(format);
+        List<ExportService.ExportType> types = entities == null || entities.isEmpty()
+                ? List.of(ExportService.ExportType.values())
+                : entities.stream().map(ExportService.ExportType::fromName).distinct().toList();
 
-        String filename = "appointments." + format.toLowerCase();
-        String contentType = getContentType(format);
+        StreamingResponseBody body = out -> exportService.exportWorkbook(types, startDate, endDate, out);
+        return buildExportResponse("export", "xlsx", null, body);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(data));
+    // Returns rows changed after the given watermark; X-Export-Next-Watermark is the value to pass on the next pull
+    @GetMapping("/{entity}/changes")
+    public ResponseEntity<StreamingResponseBody> exportChanges(
+            @PathVariable String entity,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) List<String> columns,
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        ExportService.ExportType type = ExportService.ExportType.fromName(entity);
+        exportService.validateFormat(format);
+        exportService.validateColumns(type, columns);
+        ExportService.Watermark from = ExportService.Watermark.parse(since);
+        ExportService.Watermark until = exportService.getNextWatermark(type, from);
+
+        StreamingResponseBody body = out -> exportService.exportChanges(type, format, columns, from, until, out);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NEXT_WATERMARK_HEADER, until.toString());
+        return buildExportResponse(type.getFileName() + "_changes", format, acceptEncoding, headers, body);
     }
 
-    @GetMapping("/lab-tests")
-    public ResponseEntity<InputStreamResource> exportLabTests(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream data = exportService.exportLabTests(format);
+    @PostMapping("/jobs")
+    public ResponseEntity<ExportJobResponse> createExportJob(@Valid @RequestBody ExportJobRequest exportJobRequest) {
+        ExportJobResponse job = exportJobService.createJob(exportJobRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/export/jobs/" + job.getId()))
+                .body(job);
+    }
 
-        String filename = "lab_tests." + format.toLowerCase();
-        String contentType = getContentType(format);
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ExportJobResponse> getExportJob(@PathVariable String jobId) {
+        ExportJobResponse job = exportJobService.getJob(jobId);
+        return ResponseEntity.ok(job);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(data));
+    // Spooled files are immutable, so the job id is a strong ETag; Range and If-None-Match are handled by Spring MVC
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadExportJob(
+            @PathVariable String jobId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportJobService.ExportJob job = exportJobService.getCompletedJob(jobId);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFilename())
+                .contentType(MediaType.parseMediaType(getContentType(job.getFormat())));
+        if (job.getCompressedFile() == null) {
+            return response.eTag(job.getId()).body(new FileSystemResource(job.getFile()));
+        }
+
+        // The pre-compressed copy is served as-is; each representation gets its own ETag
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (ContentEncoding.negotiate(acceptEncoding) == ContentEncoding.GZIP) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP.getToken())
+                    .eTag(job.getId() + "-" + ContentEncoding.GZIP.getToken())
+                    .body(new FileSystemResource(job.getCompressedFile()));
+        }
+        return response.eTag(job.getId()).body(new FileSystemResource(job.getFile()));
     }
 
-    @GetMapping("/prescriptions")
-    public ResponseEntity<InputStreamResource> exportPrescriptions(@RequestParam(defaultValue = "csv") String format) {
-        ByteArrayInputStream data = exportService.exportPrescriptions(format);
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<Void> deleteExportJob(@PathVariable String jobId) {
+        exportJobService.deleteJob(jobId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<StreamingResponseBody> buildExportResponse(String name, String format, String acceptEncoding,
+                                                                      StreamingResponseBody body) {
+        return buildExportResponse(name, format, acceptEncoding, new HttpHeaders(), body);
+    }
 
-        String filename = "prescriptions." + format.toLowerCase();
+    // Text formats are compressed inside the streaming pipeline, so nothing is buffered to compute the encoded body
+    private ResponseEntity<StreamingResponseBody> buildExportResponse(String name, String format, String acceptEncoding,
+                                                                      HttpHeaders headers, StreamingResponseBody body) {
+        String filename = name + "." + format.toLowerCase();
         String contentType = getContentType(format);
 
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(headers)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(data));
+                .contentType(MediaType.parseMediaType(contentType));
+        if (!ExportService.isCompressible(format)) {
+            return response.body(body);
+        }
+
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentEncoding encoding = ContentEncoding.negotiate(acceptEncoding);
+        if (encoding.isIdentity()) {
+            return response.body(body);
+        }
+        StreamingResponseBody encodedBody = out -> {
+            try (OutputStream encoded = encoding.wrap(out)) {
+                body.writeTo(encoded);
+            }
+        };
+        return response.header(HttpHeaders.CONTENT_ENCODING, encoding.getToken()).body(encodedBody);
     }
 
     private String getContentType(String format) {
-        return "csv".equalsIgnoreCase(format) ? "text/csv" : "application/json";
+        if ("csv".equalsIgnoreCase(format)) {
+            return "text/csv";
+        } else if ("xlsx".equalsIgnoreCase(format)) {
+            return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+        }
+        return "application/json";
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.controller;
 
 import com.example.PatientCareBackend.dto.request.LabTestRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.LabTestResponse;
 import com.example.PatientCareBackend.model.LabTest;
 import com.example.PatientCareBackend.service.LabTestService;
@@ -27,9 +28,10 @@ public class LabTestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<LabTestResponse>> getAllLabTests() {
-        List<LabTestResponse> labTests = labTestService.getAllLabTests();
-        return ResponseEntity.ok(labTests);
+    public ResponseEntity<List<LabTestResponse>> getAllLabTests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return labTestService.getAllLabTests(cursor, CursorPage.resolveLimit(limit)).toResponse();
     }
 
     @GetMapping("/{id}")
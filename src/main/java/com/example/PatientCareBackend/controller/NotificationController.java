@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.controller;
 
 import com.example.PatientCareBackend.dto.request.NotificationRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.NotificationResponse;
 import com.example.PatientCareBackend.service.NotificationService;
 import jakarta.validation.Valid;
@@ -19,9 +20,10 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @GetMapping
-    public ResponseEntity<List<NotificationResponse>> getAllNotifications() {
-        List<NotificationResponse> notifications = notificationService.getAllNotifications();
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationResponse>> getAllNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return notificationService.getAllNotifications(cursor, CursorPage.resolveLimit(limit)).toResponse();
     }
 
     @GetMapping("/unread")
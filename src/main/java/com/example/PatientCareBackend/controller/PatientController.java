@@ -1,14 +1,20 @@
 package com.example.PatientCareBackend.controller;
 
 import com.example.PatientCareBackend.dto.request.PatientRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
+import com.example.PatientCareBackend.dto.response.DuplicateCandidateResponse;
 import com.example.PatientCareBackend.dto.response.PatientResponse;
+import com.example.PatientCareBackend.dto.response.PatientSummaryResponse;
 import com.example.PatientCareBackend.service.PatientService;
+import com.example.PatientCareBackend.service.PatientSummaryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,11 +23,13 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientSummaryService patientSummaryService;
 
     @GetMapping
-    public ResponseEntity<List<PatientResponse>> getAllPatients() {
-        List<PatientResponse> patients = patientService.getAllPatients();
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<List<PatientResponse>> getAllPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return patientService.getAllPatients(cursor, CursorPage.resolveLimit(limit)).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -30,6 +38,13 @@ public class PatientController {
         return ResponseEntity.ok(patient);
     }
 
+    // Everything the chart needs on open; limit applies to each section
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<PatientSummaryResponse> getPatientSummary(@PathVariable Long id,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(patientSummaryService.getSummary(id, Math.min(Math.max(limit, 1), 50)));
+    }
+
     @GetMapping("/patient-id/{patientId}")
     public ResponseEntity<PatientResponse> getPatientByPatientId(@PathVariable String patientId) {
         PatientResponse patient = patientService.getPatientByPatientId(patientId);
@@ -56,9 +71,19 @@ public class PatientController {
         return ResponseEntity.noContent().build();
     }
 
+    // Front-desk pre-check before registering; the same check runs in POST /api/patients
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<DuplicateCandidateResponse>> findDuplicateCandidates(
+            @RequestParam String firstName,
+            @RequestParam String lastName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth) {
+        return ResponseEntity.ok(patientService.findDuplicateCandidates(firstName, lastName, dateOfBirth));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<PatientResponse>> searchPatients(@RequestParam String query) {
-        List<PatientResponse> patients = patientService.searchPatients(query);
+    public ResponseEntity<List<PatientResponse>> searchPatients(@RequestParam String query,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        List<PatientResponse> patients = patientService.searchPatients(query, Math.min(Math.max(limit, 1), 100));
         return ResponseEntity.ok(patients);
     }
 
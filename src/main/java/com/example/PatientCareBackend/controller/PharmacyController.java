@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.controller;
 
 import com.example.PatientCareBackend.dto.request.PharmacyRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.PharmacyResponse;
 import com.example.PatientCareBackend.model.Pharmacy;
 import com.example.PatientCareBackend.service.PharmacyService;
@@ -26,9 +27,10 @@ public class PharmacyController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PharmacyResponse>> getAllPrescriptions() {
-        List<PharmacyResponse> prescriptions = pharmacyService.getAllPrescriptions();
-        return ResponseEntity.ok(prescriptions);
+    public ResponseEntity<List<PharmacyResponse>> getAllPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return pharmacyService.getAllPrescriptions(cursor, CursorPage.resolveLimit(limit)).toResponse();
     }
 
     @GetMapping("/patient/{patientId}")
@@ -0,0 +1,27 @@
+package com.example.PatientCareBackend.controller;
+
+import com.example.PatientCareBackend.dto.response.RateLimitStatsResponse;
+import com.example.PatientCareBackend.service.RateLimitService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rate-limits")
+@RequiredArgsConstructor
+public class RateLimitController {
+
+    private final RateLimitService rateLimitService;
+
+    // Rejected requests per endpoint group and user (or client address) since startup
+    @GetMapping("/rejections")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RateLimitStatsResponse>> getRejections() {
+        return ResponseEntity.ok(rateLimitService.getRejectionStats());
+    }
+}
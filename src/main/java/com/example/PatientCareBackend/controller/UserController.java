@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.controller;
 
 import com.example.PatientCareBackend.dto.request.UserRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.DoctorResponse;
 import com.example.PatientCareBackend.dto.response.UserResponse;
 import com.example.PatientCareBackend.model.User;
@@ -23,9 +24,10 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return userService.getAllUsers(cursor, CursorPage.resolveLimit(limit)).toResponse();
     }
 
     @GetMapping("/{id}")
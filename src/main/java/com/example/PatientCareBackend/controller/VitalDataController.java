@@ -1,14 +1,18 @@
 package com.example.PatientCareBackend.controller;
 
+import com.example.PatientCareBackend.dto.request.VitalDataBatchRequest;
 import com.example.PatientCareBackend.dto.request.VitalDataRequest;
 import com.example.PatientCareBackend.dto.response.VitalDataResponse;
+import com.example.PatientCareBackend.dto.response.VitalTrendResponse;
 import com.example.PatientCareBackend.service.VitalDataService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +28,14 @@ public class VitalDataController {
         return new ResponseEntity<>(vitalData, HttpStatus.CREATED);
     }
 
+    // Device and tablet sync: up to 1000 readings, stored or rejected together
+    @PostMapping("/batch")
+    public ResponseEntity<List<VitalDataResponse>> recordVitalDataBatch(
+            @Valid @RequestBody VitalDataBatchRequest batchRequest) {
+        List<VitalDataResponse> vitalData = vitalDataService.recordVitalDataBatch(batchRequest.getReadings());
+        return new ResponseEntity<>(vitalData, HttpStatus.CREATED);
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<List<VitalDataResponse>> getPatientVitals(@PathVariable Long patientId) {
         List<VitalDataResponse> vitalData = vitalDataService.getPatientVitals(patientId);
@@ -63,4 +75,14 @@ public class VitalDataController {
         List<VitalDataResponse> vitalData = vitalDataService.getLatestVitals(patientId, limit);
         return ResponseEntity.ok(vitalData);
     }
+
+    // Chart series; the resolution follows the range: every reading, then hourly or daily min/max/avg
+    @GetMapping("/patient/{patientId}/trend")
+    public ResponseEntity<VitalTrendResponse> getVitalTrend(
+            @PathVariable Long patientId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        VitalTrendResponse trend = vitalDataService.getVitalTrend(patientId, from, to != null ? to : LocalDateTime.now());
+        return ResponseEntity.ok(trend);
+    }
 }
\ No newline at end of file
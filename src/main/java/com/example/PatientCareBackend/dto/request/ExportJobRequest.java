@@ -0,0 +1,24 @@
+package com.example.PatientCareBackend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobRequest {
+    @NotBlank
+    private String entity;
+
+    private String format = "csv";
+
+    private List<String> columns;
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+}
@@ -63,4 +63,7 @@ public class PatientRequest {
     private String storageDuration;
     private Boolean futureResearchUseConsent = false;
     private Boolean destructionConsent = false;
+
+    // Skips the duplicate check; needed to register past a 409 when patients.duplicates.block-registration is set
+    private Boolean confirmedNotDuplicate = false;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.PatientCareBackend.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalDataBatchRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid VitalDataRequest> readings;
+}
@@ -1,5 +1,6 @@
 package com.example.PatientCareBackend.dto.request;
 
+import com.example.PatientCareBackend.model.VitalData.Consciousness;
 import com.example.PatientCareBackend.model.VitalData.RiskLevel;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -36,6 +37,7 @@ public class VitalDataRequest {
     private BigDecimal weight;
     private Integer bloodGlucose;
     private Integer painLevel;
+    private Consciousness consciousness;
     private BigDecimal bmi;
 
     @NotNull
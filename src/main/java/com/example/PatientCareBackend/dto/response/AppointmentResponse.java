@@ -10,7 +10,7 @@ import java.time.LocalTime;
 @Data
 public class AppointmentResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private UserResponse doctor;
     private LocalDate appointmentDate;
     private LocalTime appointmentTime;
@@ -0,0 +1,46 @@
+package com.example.PatientCareBackend.dto.response;
+
+import com.example.PatientCareBackend.util.PageCursor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One keyset page. List endpoints keep returning a plain JSON array and put the next cursor in X-Next-Cursor,
+// which is absent on the last page.
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    // rows holds up to limit + 1 entities; the extra one only signals that another page exists
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, PageCursor> cursorOf,
+                                         Function<E, T> mapper) {
+        return ofPage(rows, limit, cursorOf, page -> page.stream().map(mapper).toList());
+    }
+
+    // For mappers that need the whole page at once, e.g. to resolve patient refs in one query
+    public static <E, T> CursorPage<T> ofPage(List<E> rows, int limit, Function<E, PageCursor> cursorOf,
+                                             Function<List<E>, List<T>> pageMapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(pageMapper.apply(page), nextCursor);
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(items);
+    }
+}
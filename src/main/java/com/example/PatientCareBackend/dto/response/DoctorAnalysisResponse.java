@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class DoctorAnalysisResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private UserResponse doctor;
     private String symptoms;
     private String diagnosis;
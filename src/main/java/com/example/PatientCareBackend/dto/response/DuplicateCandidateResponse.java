@@ -0,0 +1,20 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidateResponse {
+    private Long id;
+    private String patientId;
+    private String firstName;
+    private String lastName;
+    private LocalDate dateOfBirth;
+    private String phone;
+    private double score;
+}
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.dto.response;
 
 import com.example.PatientCareBackend.model.DuringOperation.OperationStatus;
+import com.example.PatientCareBackend.model.VitalData.RiskLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,7 +15,7 @@ import java.util.Map;
 public class DuringOperationResponse {
     private Long id;
     private SurgeryResponse surgery;
-    private PatientResponse patient;
+    private PatientRef patient;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private OperationStatus status;
@@ -27,6 +28,8 @@ public class DuringOperationResponse {
     private Double temperature;
     private Integer bloodLoss;
     private Integer urineOutput;
+    private Integer earlyWarningScore;
+    private RiskLevel riskLevel;
 
     // Surgical Details
     private Map<String, Object> surgicalNotes;
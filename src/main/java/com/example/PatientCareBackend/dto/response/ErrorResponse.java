@@ -20,6 +20,7 @@ public class ErrorResponse {
     private String path;
     private String traceId;
     private List<ValidationError> validationErrors;
+    private List<DuplicateCandidateResponse> duplicateCandidates;
 
     public ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
         this.timestamp = timestamp;
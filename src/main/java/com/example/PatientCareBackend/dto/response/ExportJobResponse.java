@@ -0,0 +1,26 @@
+package com.example.PatientCareBackend.dto.response;
+
+import com.example.PatientCareBackend.service.ExportJobService.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+    private String id;
+    private String entity;
+    private String format;
+    private JobStatus status;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long sizeBytes;
+    private String errorMessage;
+    private String downloadUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
@@ -1,5 +1,6 @@
 package com.example.PatientCareBackend.dto.response;
 
+import com.example.PatientCareBackend.model.VitalData.RiskLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ICUResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
 
     // Hemodynamics
     private Integer heartRate;
@@ -50,6 +51,10 @@ public class ICUResponse {
     private Integer abgPaco2;
     private Integer abgHco3;
 
+    // Early warning score of this reading
+    private Integer earlyWarningScore;
+    private RiskLevel riskLevel;
+
     // Metadata
     private String recordedBy;
     private LocalDateTime createdAt;
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class LabTestResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private String testType;
     private String testName;
     private String orderedBy;
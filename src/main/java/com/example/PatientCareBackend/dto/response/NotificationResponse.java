@@ -16,7 +16,7 @@ public class NotificationResponse {
     private String title;
     private String message;
     private UserResponse doctor;
-    private PatientResponse patient;
+    private PatientRef patient;
     private AppointmentResponse appointment;
     private Notification.Priority priority;
     private Boolean read;
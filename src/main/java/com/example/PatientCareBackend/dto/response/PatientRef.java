@@ -0,0 +1,16 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact patient reference embedded in clinical records; the full record is GET /api/patients/{id}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientRef {
+    private Long id;
+    private String patientId;
+    private String firstName;
+    private String lastName;
+}
@@ -1,12 +1,14 @@
 package com.example.PatientCareBackend.dto.response;
 
 import com.example.PatientCareBackend.model.Patient.Gender;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -40,6 +42,10 @@ public class PatientResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Likely duplicates found when the patient was registered; only present on that response
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<DuplicateCandidateResponse> duplicateCandidates;
+
     public PatientResponse(Long id, String patientId, String firstName, String lastName,
                            LocalDate dateOfBirth, Gender gender, String phone, String email,
                            String address, String emergencyContactName, String emergencyContactPhone,
@@ -0,0 +1,24 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Chart-open view: the patient once, then the newest records of each section without their own patient copy
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSummaryResponse {
+    private PatientResponse patient;
+    private List<VitalDataResponse> recentVitals;
+    private List<ICUResponse> icuRecords;
+    private List<LabTestResponse> labTests;
+    private List<PharmacyResponse> prescriptions;
+    private List<SurgeryResponse> surgeries;
+    private List<AppointmentResponse> appointments;
+    private List<PostOperativeResponse> followUps;
+    private LocalDateTime generatedAt;
+}
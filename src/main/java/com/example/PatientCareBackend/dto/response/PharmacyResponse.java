@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class PharmacyResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private UserResponse doctor;
     private String medicationName;
     private String dosage;
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class PostOperativeResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private SurgeryResponse surgery;
     private FollowupType followupType;
     private String symptoms;
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class PreOperativeResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private String procedureName;
 
     // Patient Identity
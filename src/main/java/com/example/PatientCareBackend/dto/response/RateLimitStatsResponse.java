@@ -0,0 +1,17 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitStatsResponse {
+    private String group;
+    private String subject;
+    private long rejectedRequests;
+    private LocalDateTime lastRejectedAt;
+}
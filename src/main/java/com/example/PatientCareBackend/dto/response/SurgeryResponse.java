@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class SurgeryResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private String procedureName;
     private SurgeryUrgency urgency;
     private String recommendedBy;
@@ -1,5 +1,6 @@
 package com.example.PatientCareBackend.dto.response;
 
+import com.example.PatientCareBackend.model.VitalData.Consciousness;
 import com.example.PatientCareBackend.model.VitalData.RiskLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,7 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class VitalDataResponse {
     private Long id;
-    private PatientResponse patient;
+    private PatientRef patient;
     private Integer systolicBp;
     private Integer diastolicBp;
     private Integer heartRate;
@@ -24,7 +25,9 @@ public class VitalDataResponse {
     private BigDecimal weight;
     private Integer bloodGlucose;
     private Integer painLevel;
+    private Consciousness consciousness;
     private BigDecimal bmi;
+    private Integer earlyWarningScore;
     private RiskLevel riskLevel;
     private String notes;
     private String recordedBy;
@@ -0,0 +1,15 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalStats {
+    private long count;
+    private double min;
+    private double max;
+    private double avg;
+}
@@ -0,0 +1,24 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One reading or one bucket; a vital without values in it is null
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalTrendPoint {
+    private LocalDateTime time;
+    private long samples;
+    private VitalStats systolicBp;
+    private VitalStats diastolicBp;
+    private VitalStats heartRate;
+    private VitalStats respiratoryRate;
+    private VitalStats temperature;
+    private VitalStats oxygenSaturation;
+    private VitalStats bloodGlucose;
+    private VitalStats painLevel;
+}
@@ -0,0 +1,20 @@
+package com.example.PatientCareBackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Chart series for one patient; resolution is RAW (one point per reading), HOUR or DAY
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalTrendResponse {
+    private Long patientId;
+    private String resolution;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<VitalTrendPoint> points;
+}
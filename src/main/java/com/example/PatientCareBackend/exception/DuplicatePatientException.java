@@ -0,0 +1,19 @@
+package com.example.PatientCareBackend.exception;
+
+import com.example.PatientCareBackend.dto.response.DuplicateCandidateResponse;
+
+import java.util.List;
+
+public class DuplicatePatientException extends BusinessException {
+
+    private final List<DuplicateCandidateResponse> candidates;
+
+    public DuplicatePatientException(String message, List<DuplicateCandidateResponse> candidates) {
+        super(message);
+        this.candidates = candidates;
+    }
+
+    public List<DuplicateCandidateResponse> getCandidates() {
+        return candidates;
+    }
+}
@@ -7,13 +7,19 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_appointment_date", columnList = "appointment_date, id"),
+        @Index(name = "idx_appointments_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_appointments_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_appointments_patient", columnList = "patient_id, appointment_date, appointment_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -67,6 +73,10 @@ public class Appointment {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public enum AppointmentType {
         CONSULTATION, FOLLOW_UP, EMERGENCY, SURGERY
     }
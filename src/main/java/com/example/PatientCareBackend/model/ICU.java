@@ -12,7 +12,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "icu_monitoring")
+@Table(name = "icu_monitoring", indexes = {
+        @Index(name = "idx_icu_monitoring_patient", columnList = "patient_id, created_at"),
+        @Index(name = "idx_icu_monitoring_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,56 @@
+package com.example.PatientCareBackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// HS256 secrets shared by every instance; rotated keys are inserted here so siblings can verify each other's tokens
+@Entity
+@Table(name = "jwt_signing_keys", indexes = {
+        @Index(name = "idx_jwt_signing_keys_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class JwtSigningKey implements Persistable<String> {
+    @Id
+    @Column(name = "kid", length = 64)
+    private String kid;
+
+    // "v1:" + base64 of the AES-GCM encrypted key material; see JwtKeyRing
+    @ToString.Exclude
+    @Column(nullable = false, length = 128)
+    private String secret;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Always insert rather than merge, so two instances rotating at once cannot overwrite each other's key
+    @Transient
+    private boolean newKey = true;
+
+    public JwtSigningKey(String kid, String secret, LocalDateTime createdAt) {
+        this.kid = kid;
+        this.secret = secret;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return kid;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newKey;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newKey = false;
+    }
+}
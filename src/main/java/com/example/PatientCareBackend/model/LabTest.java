@@ -8,11 +8,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lab_tests")
+@Table(name = "lab_tests", indexes = {
+        @Index(name = "idx_lab_tests_ordered_date", columnList = "ordered_date, id"),
+        @Index(name = "idx_lab_tests_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_lab_tests_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_lab_tests_patient", columnList = "patient_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -73,6 +79,10 @@ public class LabTest {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public enum TestStatus {
         ORDERED, IN_PROGRESS, COMPLETED, CANCELLED
     }
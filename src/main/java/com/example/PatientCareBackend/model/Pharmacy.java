@@ -8,11 +8,16 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_prescriptions_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_prescriptions_patient", columnList = "patient_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,6 +70,10 @@ public class Pharmacy {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public enum PrescriptionStatus {
         PENDING, DISPENSED, COLLECTED
     }
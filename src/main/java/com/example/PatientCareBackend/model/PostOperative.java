@@ -10,7 +10,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post_operative_followup")
+@Table(name = "post_operative_followup", indexes = {
+        @Index(name = "idx_post_operative_followup_patient", columnList = "patient_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
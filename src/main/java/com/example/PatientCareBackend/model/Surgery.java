@@ -8,11 +8,16 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "surgeries")
+@Table(name = "surgeries", indexes = {
+        @Index(name = "idx_surgeries_scheduled_date", columnList = "scheduled_date, id"),
+        @Index(name = "idx_surgeries_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_surgeries_patient", columnList = "patient_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -71,6 +76,10 @@ public class Surgery {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public enum SurgeryUrgency {
         EMERGENCY,
         URGENT,
@@ -17,7 +17,10 @@ import java.util.Collection;
 import java.util.Collections;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_users_tokens_revoked_at", columnList = "tokens_revoked_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -56,6 +59,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Boolean available = true;
 
+    // Tokens issued before this time are rejected; set when the password or role changes
+    @Column(name = "tokens_revoked_at")
+    private LocalDateTime tokensRevokedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
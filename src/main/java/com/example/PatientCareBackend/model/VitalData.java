@@ -12,13 +12,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "vital_data")
+@Table(name = "vital_data", indexes = {
+        @Index(name = "idx_vital_data_patient", columnList = "patient_id, created_at"),
+        @Index(name = "idx_vital_data_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class VitalData {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence instead of IDENTITY: ids are handed out in blocks, so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vital_data_seq")
+    @SequenceGenerator(name = "vital_data_seq", sequenceName = "vital_data_seq", allocationSize = VitalData.ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull
@@ -57,8 +64,16 @@ public class VitalData {
     @Column(name = "pain_level")
     private Integer painLevel;
 
+    // ACVPU; null when not assessed
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Consciousness consciousness;
+
     private BigDecimal bmi;
 
+    @Column(name = "early_warning_score")
+    private Integer earlyWarningScore;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "risk_level", nullable = false)
     private RiskLevel riskLevel;
@@ -78,4 +93,9 @@ public class VitalData {
     public enum RiskLevel {
         LOW, MEDIUM, HIGH, CRITICAL
     }
+
+    // Alert first; every other level scores as altered consciousness
+    public enum Consciousness {
+        ALERT, CONFUSION, VOICE, PAIN, UNRESPONSIVE
+    }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.example.PatientCareBackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Per patient, per hour and per day: count, min, max and sum of every vital, so trends over weeks read one row per
+// bucket instead of every reading. Rows are upserted by VitalRollupService in the transaction that stores the readings.
+// Counts are kept per vital because respiratory rate, blood glucose and pain level are optional.
+@Entity
+@Table(name = "vital_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vital_rollups_bucket", columnNames = {"patient_id", "resolution", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Resolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "systolic_bp_count", nullable = false)
+    private long systolicBpCount;
+
+    @Column(name = "systolic_bp_min")
+    private Double systolicBpMin;
+
+    @Column(name = "systolic_bp_max")
+    private Double systolicBpMax;
+
+    @Column(name = "systolic_bp_sum", nullable = false)
+    private double systolicBpSum;
+
+    @Column(name = "diastolic_bp_count", nullable = false)
+    private long diastolicBpCount;
+
+    @Column(name = "diastolic_bp_min")
+    private Double diastolicBpMin;
+
+    @Column(name = "diastolic_bp_max")
+    private Double diastolicBpMax;
+
+    @Column(name = "diastolic_bp_sum", nullable = false)
+    private double diastolicBpSum;
+
+    @Column(name = "heart_rate_count", nullable = false)
+    private long heartRateCount;
+
+    @Column(name = "heart_rate_min")
+    private Double heartRateMin;
+
+    @Column(name = "heart_rate_max")
+    private Double heartRateMax;
+
+    @Column(name = "heart_rate_sum", nullable = false)
+    private double heartRateSum;
+
+    @Column(name = "respiratory_rate_count", nullable = false)
+    private long respiratoryRateCount;
+
+    @Column(name = "respiratory_rate_min")
+    private Double respiratoryRateMin;
+
+    @Column(name = "respiratory_rate_max")
+    private Double respiratoryRateMax;
+
+    @Column(name = "respiratory_rate_sum", nullable = false)
+    private double respiratoryRateSum;
+
+    @Column(name = "temperature_count", nullable = false)
+    private long temperatureCount;
+
+    @Column(name = "temperature_min")
+    private Double temperatureMin;
+
+    @Column(name = "temperature_max")
+    private Double temperatureMax;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private double temperatureSum;
+
+    @Column(name = "oxygen_saturation_count", nullable = false)
+    private long oxygenSaturationCount;
+
+    @Column(name = "oxygen_saturation_min")
+    private Double oxygenSaturationMin;
+
+    @Column(name = "oxygen_saturation_max")
+    private Double oxygenSaturationMax;
+
+    @Column(name = "oxygen_saturation_sum", nullable = false)
+    private double oxygenSaturationSum;
+
+    @Column(name = "blood_glucose_count", nullable = false)
+    private long bloodGlucoseCount;
+
+    @Column(name = "blood_glucose_min")
+    private Double bloodGlucoseMin;
+
+    @Column(name = "blood_glucose_max")
+    private Double bloodGlucoseMax;
+
+    @Column(name = "blood_glucose_sum", nullable = false)
+    private double bloodGlucoseSum;
+
+    @Column(name = "pain_level_count", nullable = false)
+    private long painLevelCount;
+
+    @Column(name = "pain_level_min")
+    private Double painLevelMin;
+
+    @Column(name = "pain_level_max")
+    private Double painLevelMax;
+
+    @Column(name = "pain_level_sum", nullable = false)
+    private double painLevelSum;
+
+    public enum Resolution {
+        HOUR, DAY;
+
+        public LocalDateTime bucketOf(LocalDateTime time) {
+            return this == HOUR ? time.truncatedTo(ChronoUnit.HOURS) : time.truncatedTo(ChronoUnit.DAYS);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.PatientCareBackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// How far vital_rollups has been rebuilt from vital_data; readings created since then are folded in again at startup
+@Entity
+@Table(name = "vital_rollup_markers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalRollupMarker {
+    public static final String REBUILT_THROUGH = "rebuilt_through";
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(name = "marker", nullable = false)
+    private LocalDateTime marker;
+}
@@ -1,28 +1,103 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "doctor")
+    List<Appointment> findAll();
+
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findByPatientId(Long patientId);
+
+    // Newest N for the patient summary; served by the (patient_id, ...) index
+    @EntityGraph(attributePaths = "doctor")
+    List<Appointment> findByPatientIdOrderByAppointmentDateDescAppointmentTimeDesc(Long patientId, Limit limit);
+
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findByDoctorId(Long doctorId);
+
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findByAppointmentDate(LocalDate appointmentDate);
+
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findByStatus(Appointment.AppointmentStatus status);
 
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDate = :date AND a.doctor.id = :doctorId")
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findByDateAndDoctor(@Param("date") LocalDate date, @Param("doctorId") Long doctorId);
 
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDate BETWEEN :startDate AND :endDate")
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findAppointmentsBetweenDates(@Param("startDate") LocalDate startDate,
                                                    @Param("endDate") LocalDate endDate);
 
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.status = 'SCHEDULED'")
+    @EntityGraph(attributePaths = "doctor")
     List<Appointment> findUpcomingAppointmentsByPatient(@Param("patientId") Long patientId);
-}
\ No newline at end of file
+
+    // Cursor-backed scan for exports; rows are fetched from the driver in chunks instead of all at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Appointment a ORDER BY a.id")
+    @EntityGraph(attributePaths = "doctor")
+    Stream<Appointment> streamAll();
+
+    // Half-open [startDate, endDate) window served by the matching date index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Appointment a WHERE a.appointmentDate >= :startDate AND a.appointmentDate < :endDate ORDER BY a.appointmentDate, a.id")
+    @EntityGraph(attributePaths = "doctor")
+    Stream<Appointment> streamAppointmentsBetween(@Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT MAX(a.updatedAt) FROM Appointment a")
+    Optional<LocalDateTime> findMaxUpdatedAt();
+
+    @Query("SELECT MAX(a.id) FROM Appointment a WHERE a.updatedAt = :updatedAt")
+    Optional<Long> findMaxIdByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Rows changed after one (updatedAt, id) watermark up to and including the next one
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Appointment a WHERE (a.updatedAt, a.id) > (:fromUpdatedAt, :fromId) " +
+            "AND (a.updatedAt, a.id) <= (:toUpdatedAt, :toId) ORDER BY a.updatedAt, a.id")
+    @EntityGraph(attributePaths = "doctor")
+    Stream<Appointment> streamChangedBetween(@Param("fromUpdatedAt") LocalDateTime fromUpdatedAt,
+                                             @Param("fromId") Long fromId,
+                                             @Param("toUpdatedAt") LocalDateTime toUpdatedAt,
+                                             @Param("toId") Long toId);
+
+    // Keyset pages, newest first; the (created_at, id) index makes every page cost the same
+    @EntityGraph(attributePaths = "doctor")
+    @Query("SELECT a FROM Appointment a ORDER BY a.createdAt DESC, a.id DESC")
+    List<Appointment> findFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = "doctor")
+    @Query("SELECT a FROM Appointment a WHERE (a.createdAt, a.id) < (:createdAt, :id) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Appointment> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.Consent;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,7 +10,16 @@ import java.util.Optional;
 
 @Repository
 public interface ConsentRepository extends JpaRepository<Consent, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "surgery")
+    List<Consent> findAll();
+
+    @EntityGraph(attributePaths = "surgery")
     Optional<Consent> findBySurgeryId(Long surgeryId);
+
+    @EntityGraph(attributePaths = "surgery")
     List<Consent> findByConsentDecision(Consent.ConsentDecision consentDecision);
+
     boolean existsBySurgeryIdAndConsentDecision(Long surgeryId, Consent.ConsentDecision consentDecision);
 }
\ No newline at end of file
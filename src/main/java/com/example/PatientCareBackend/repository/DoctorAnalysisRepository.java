@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.DoctorAnalysis;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,8 +9,20 @@ import java.util.List;
 
 @Repository
 public interface DoctorAnalysisRepository extends JpaRepository<DoctorAnalysis, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "doctor")
+    List<DoctorAnalysis> findAll();
+
+    @EntityGraph(attributePaths = "doctor")
     List<DoctorAnalysis> findByPatientId(Long patientId);
+
+    @EntityGraph(attributePaths = "doctor")
     List<DoctorAnalysis> findByDoctorId(Long doctorId);
+
+    @EntityGraph(attributePaths = "doctor")
     List<DoctorAnalysis> findByRecommendSurgeryTrue();
+
+    @EntityGraph(attributePaths = "doctor")
     List<DoctorAnalysis> findByStatus(DoctorAnalysis.AnalysisStatus status);
 }
\ No newline at end of file
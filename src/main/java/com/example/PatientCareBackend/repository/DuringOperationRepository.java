@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.DuringOperation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,13 +12,20 @@ import java.util.Optional;
 
 @Repository
 public interface DuringOperationRepository extends JpaRepository<DuringOperation, Long> {
+    @EntityGraph(attributePaths = "surgery")
     Optional<DuringOperation> findBySurgeryId(Long surgeryId);
+
+    @EntityGraph(attributePaths = "surgery")
     List<DuringOperation> findByPatientId(Long patientId);
+
+    @EntityGraph(attributePaths = "surgery")
     List<DuringOperation> findByStatus(DuringOperation.OperationStatus status);
 
     @Query("SELECT d FROM DuringOperation d WHERE d.status = 'IN_PROGRESS'")
+    @EntityGraph(attributePaths = "surgery")
     List<DuringOperation> findActiveOperations();
 
     @Query("SELECT d FROM DuringOperation d WHERE d.patient.id = :patientId ORDER BY d.startTime DESC")
+    @EntityGraph(attributePaths = "surgery")
     List<DuringOperation> findRecentOperationsByPatient(@Param("patientId") Long patientId);
 }
\ No newline at end of file
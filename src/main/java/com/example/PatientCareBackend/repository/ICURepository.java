@@ -1,19 +1,27 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.ICU;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ICURepository extends JpaRepository<ICU, Long> {
     List<ICU> findByPatientId(Long patientId);
 
+    // Newest N for the patient summary; served by the (patient_id, ...) index
+    List<ICU> findByPatientIdOrderByCreatedAtDesc(Long patientId, Limit limit);
+
     @Query("SELECT i FROM ICU i WHERE i.patient.id = :patientId ORDER BY i.createdAt DESC LIMIT 1")
     Optional<ICU> findLatestByPatientId(@Param("patientId") Long patientId);
 
@@ -26,4 +34,12 @@ public interface ICURepository extends JpaRepository<ICU, Long> {
     List<ICU> findByPatientAndTimeRange(@Param("patientId") Long patientId,
                                         @Param("startTime") LocalDateTime startTime,
                                         @Param("endTime") LocalDateTime endTime);
+
+    // Readings stored since a point in time, oldest first, for the deterioration monitor
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM ICU i WHERE i.createdAt > :since ORDER BY i.createdAt, i.id")
+    Stream<ICU> streamCreatedAfter(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
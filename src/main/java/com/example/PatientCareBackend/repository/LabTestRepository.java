@@ -1,19 +1,35 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.LabTest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LabTestRepository extends JpaRepository<LabTest, Long> {
+
+    @Override
+    List<LabTest> findAll();
+
     List<LabTest> findByPatientId(Long patientId);
+
+    // Newest N for the patient summary; served by the (patient_id, ...) index
+    List<LabTest> findByPatientIdOrderByCreatedAtDesc(Long patientId, Limit limit);
+
     List<LabTest> findByStatus(LabTest.TestStatus status);
+
     List<LabTest> findByPriority(LabTest.Priority priority);
+
     List<LabTest> findByTestType(String testType);
 
     @Query("SELECT lt FROM LabTest lt WHERE lt.orderedBy = :orderedBy")
@@ -25,4 +41,47 @@ public interface LabTestRepository extends JpaRepository<LabTest, Long> {
     @Query("SELECT lt FROM LabTest lt WHERE lt.orderedDate BETWEEN :startDate AND :endDate")
     List<LabTest> findTestsOrderedBetween(@Param("startDate") LocalDateTime startDate,
                                           @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Cursor-backed scan for exports; rows are fetched from the driver in chunks instead of all at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT lt FROM LabTest lt ORDER BY lt.id")
+    Stream<LabTest> streamAll();
+
+    // Half-open [startDate, endDate) window served by the matching date index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT lt FROM LabTest lt WHERE lt.orderedDate >= :startDate AND lt.orderedDate < :endDate ORDER BY lt.orderedDate, lt.id")
+    Stream<LabTest> streamOrderedBetween(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MAX(lt.updatedAt) FROM LabTest lt")
+    Optional<LocalDateTime> findMaxUpdatedAt();
+
+    @Query("SELECT MAX(lt.id) FROM LabTest lt WHERE lt.updatedAt = :updatedAt")
+    Optional<Long> findMaxIdByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Rows changed after one (updatedAt, id) watermark up to and including the next one
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT lt FROM LabTest lt WHERE (lt.updatedAt, lt.id) > (:fromUpdatedAt, :fromId) " +
+            "AND (lt.updatedAt, lt.id) <= (:toUpdatedAt, :toId) ORDER BY lt.updatedAt, lt.id")
+    Stream<LabTest> streamChangedBetween(@Param("fromUpdatedAt") LocalDateTime fromUpdatedAt,
+                                         @Param("fromId") Long fromId,
+                                         @Param("toUpdatedAt") LocalDateTime toUpdatedAt,
+                                         @Param("toId") Long toId);
+
+    // Keyset pages, newest first; the (created_at, id) index makes every page cost the same
+    @Query("SELECT l FROM LabTest l ORDER BY l.createdAt DESC, l.id DESC")
+    List<LabTest> findFirstPage(Limit limit);
+
+    @Query("SELECT l FROM LabTest l WHERE (l.createdAt, l.id) < (:createdAt, :id) " +
+            "ORDER BY l.createdAt DESC, l.id DESC")
+    List<LabTest> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
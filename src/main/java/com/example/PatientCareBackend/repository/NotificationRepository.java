@@ -1,6 +1,8 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.Notification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,18 +13,48 @@ import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
+    List<Notification> findAll();
+
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findByDoctorId(Long doctorId);
+
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findByPatientId(Long patientId);
+
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findByReadFalse();
+
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findByType(Notification.NotificationType type);
+
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findByPriority(Notification.Priority priority);
 
     @Query("SELECT n FROM Notification n WHERE n.scheduledFor <= :now AND n.read = false")
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findDueNotifications(@Param("now") LocalDateTime now);
 
     @Query("SELECT n FROM Notification n WHERE n.doctor.id = :doctorId AND n.read = false")
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findUnreadByDoctor(@Param("doctorId") Long doctorId);
 
     @Query("SELECT n FROM Notification n WHERE n.createdAt >= :since")
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
     List<Notification> findRecentNotifications(@Param("since") LocalDateTime since);
-}
\ No newline at end of file
+
+    // Keyset pages, newest first; the (created_at, id) index makes every page cost the same
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
+    @Query("SELECT n FROM Notification n ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = {"doctor", "appointment", "appointment.doctor"})
+    @Query("SELECT n FROM Notification n WHERE (n.createdAt, n.id) < (:createdAt, :id) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Alerts already raised for a patient, e.g. by another instance, within a cooldown
+    boolean existsByPatientIdAndTitleAndCreatedAtAfter(Long patientId, String title, LocalDateTime since);
+}
@@ -1,13 +1,22 @@
 package com.example.PatientCareBackend.repository;
 
+import com.example.PatientCareBackend.dto.response.PatientRef;
+import com.example.PatientCareBackend.dto.response.PatientResponse;
 import com.example.PatientCareBackend.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
@@ -24,4 +33,95 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 
     @Query("SELECT p FROM Patient p WHERE p.consentAccepted = true")
     List<Patient> findPatientsWithConsent();
-}
\ No newline at end of file
+
+    // Only the columns a PatientRef needs, so the @Lob history fields are never read for embedded references
+    @Query("SELECT new com.example.PatientCareBackend.dto.response.PatientRef(p.id, p.patientId, p.firstName, p.lastName) " +
+            "FROM Patient p WHERE p.id IN :ids")
+    List<PatientRef> findRefsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Cursor-backed scan for exports; rows are fetched from the driver in chunks instead of all at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Patient p ORDER BY p.id")
+    Stream<Patient> streamAll();
+
+    // Half-open [startDate, endDate) window served by the matching date index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Patient p WHERE p.createdAt >= :startDate AND p.createdAt < :endDate ORDER BY p.createdAt, p.id")
+    Stream<Patient> streamCreatedBetween(@Param("startDate") LocalDateTime startDate,
+                                         @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MAX(p.updatedAt) FROM Patient p")
+    Optional<LocalDateTime> findMaxUpdatedAt();
+
+    @Query("SELECT MAX(p.id) FROM Patient p WHERE p.updatedAt = :updatedAt")
+    Optional<Long> findMaxIdByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Rows changed after one (updatedAt, id) watermark up to and including the next one
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Patient p WHERE (p.updatedAt, p.id) > (:fromUpdatedAt, :fromId) " +
+            "AND (p.updatedAt, p.id) <= (:toUpdatedAt, :toId) ORDER BY p.updatedAt, p.id")
+    Stream<Patient> streamChangedBetween(@Param("fromUpdatedAt") LocalDateTime fromUpdatedAt,
+                                         @Param("fromId") Long fromId,
+                                         @Param("toUpdatedAt") LocalDateTime toUpdatedAt,
+                                         @Param("toId") Long toId);
+
+    // The export scans above without the @Lob columns (address, medical history, allergies, medications), for column
+    // selections that need none of them; on PostgreSQL each @Lob value is a separate large-object read
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.PatientCareBackend.dto.response.PatientResponse(p.id, p.patientId, p.firstName, " +
+            "p.lastName, p.dateOfBirth, p.gender, p.phone, p.email, CAST(NULL AS String), p.emergencyContactName, " +
+            "p.emergencyContactPhone, CAST(NULL AS String), CAST(NULL AS String), CAST(NULL AS String), " +
+            "p.consentAccepted, p.consentFormPath, p.researchConsent, p.sampleStorageConsent, p.createdAt, p.updatedAt) " +
+            "FROM Patient p ORDER BY p.id")
+    Stream<PatientResponse> streamAllWithoutLobs();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.PatientCareBackend.dto.response.PatientResponse(p.id, p.patientId, p.firstName, " +
+            "p.lastName, p.dateOfBirth, p.gender, p.phone, p.email, CAST(NULL AS String), p.emergencyContactName, " +
+            "p.emergencyContactPhone, CAST(NULL AS String), CAST(NULL AS String), CAST(NULL AS String), " +
+            "p.consentAccepted, p.consentFormPath, p.researchConsent, p.sampleStorageConsent, p.createdAt, p.updatedAt) " +
+            "FROM Patient p WHERE p.createdAt >= :startDate AND p.createdAt < :endDate ORDER BY p.createdAt, p.id")
+    Stream<PatientResponse> streamCreatedBetweenWithoutLobs(@Param("startDate") LocalDateTime startDate,
+                                                            @Param("endDate") LocalDateTime endDate);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.PatientCareBackend.dto.response.PatientResponse(p.id, p.patientId, p.firstName, " +
+            "p.lastName, p.dateOfBirth, p.gender, p.phone, p.email, CAST(NULL AS String), p.emergencyContactName, " +
+            "p.emergencyContactPhone, CAST(NULL AS String), CAST(NULL AS String), CAST(NULL AS String), " +
+            "p.consentAccepted, p.consentFormPath, p.researchConsent, p.sampleStorageConsent, p.createdAt, p.updatedAt) " +
+            "FROM Patient p WHERE (p.updatedAt, p.id) > (:fromUpdatedAt, :fromId) " +
+            "AND (p.updatedAt, p.id) <= (:toUpdatedAt, :toId) ORDER BY p.updatedAt, p.id")
+    Stream<PatientResponse> streamChangedBetweenWithoutLobs(@Param("fromUpdatedAt") LocalDateTime fromUpdatedAt,
+                                                            @Param("fromId") Long fromId,
+                                                            @Param("toUpdatedAt") LocalDateTime toUpdatedAt,
+                                                            @Param("toId") Long toId);
+
+    // Keyset pages, newest first; the (created_at, id) index makes every page cost the same
+    @Query("SELECT p FROM Patient p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Patient> findFirstPage(Limit limit);
+
+    @Query("SELECT p FROM Patient p WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Patient> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
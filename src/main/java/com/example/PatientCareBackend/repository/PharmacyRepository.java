@@ -1,25 +1,98 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.Pharmacy;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PharmacyRepository extends JpaRepository<Pharmacy, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "doctor")
+    List<Pharmacy> findAll();
+
+    @EntityGraph(attributePaths = "doctor")
     List<Pharmacy> findByPatientId(Long patientId);
+
+    // Newest N for the patient summary; served by the (patient_id, ...) index
+    @EntityGraph(attributePaths = "doctor")
+    List<Pharmacy> findByPatientIdOrderByCreatedAtDesc(Long patientId, Limit limit);
+
+    @EntityGraph(attributePaths = "doctor")
     List<Pharmacy> findByDoctorId(Long doctorId);
+
+    @EntityGraph(attributePaths = "doctor")
     List<Pharmacy> findByStatus(Pharmacy.PrescriptionStatus status);
 
     @Query("SELECT p FROM Pharmacy p WHERE p.status = 'PENDING'")
+    @EntityGraph(attributePaths = "doctor")
     List<Pharmacy> findPendingPrescriptions();
 
     @Query("SELECT p FROM Pharmacy p WHERE p.medicationName LIKE %:medicationName%")
+    @EntityGraph(attributePaths = "doctor")
     List<Pharmacy> findByMedicationNameContaining(@Param("medicationName") String medicationName);
 
     @Query("SELECT p FROM Pharmacy p WHERE p.patient.id = :patientId AND p.status != 'COLLECTED'")
+    @EntityGraph(attributePaths = "doctor")
     List<Pharmacy> findActivePrescriptionsByPatient(@Param("patientId") Long patientId);
-}
\ No newline at end of file
+
+    // Cursor-backed scan for exports; rows are fetched from the driver in chunks instead of all at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Pharmacy p ORDER BY p.id")
+    @EntityGraph(attributePaths = "doctor")
+    Stream<Pharmacy> streamAll();
+
+    // Half-open [startDate, endDate) window served by the matching date index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Pharmacy p WHERE p.createdAt >= :startDate AND p.createdAt < :endDate ORDER BY p.createdAt, p.id")
+    @EntityGraph(attributePaths = "doctor")
+    Stream<Pharmacy> streamCreatedBetween(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MAX(p.updatedAt) FROM Pharmacy p")
+    Optional<LocalDateTime> findMaxUpdatedAt();
+
+    @Query("SELECT MAX(p.id) FROM Pharmacy p WHERE p.updatedAt = :updatedAt")
+    Optional<Long> findMaxIdByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Rows changed after one (updatedAt, id) watermark up to and including the next one
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Pharmacy p WHERE (p.updatedAt, p.id) > (:fromUpdatedAt, :fromId) " +
+            "AND (p.updatedAt, p.id) <= (:toUpdatedAt, :toId) ORDER BY p.updatedAt, p.id")
+    @EntityGraph(attributePaths = "doctor")
+    Stream<Pharmacy> streamChangedBetween(@Param("fromUpdatedAt") LocalDateTime fromUpdatedAt,
+                                          @Param("fromId") Long fromId,
+                                          @Param("toUpdatedAt") LocalDateTime toUpdatedAt,
+                                          @Param("toId") Long toId);
+
+    // Keyset pages, newest first; the (created_at, id) index makes every page cost the same
+    @EntityGraph(attributePaths = "doctor")
+    @Query("SELECT p FROM Pharmacy p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Pharmacy> findFirstPage(Limit limit);
+
+    @EntityGraph(attributePaths = "doctor")
+    @Query("SELECT p FROM Pharmacy p WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Pharmacy> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
@@ -1,6 +1,8 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.PostOperative;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,13 +12,24 @@ import java.util.List;
 
 @Repository
 public interface PostOperativeRepository extends JpaRepository<PostOperative, Long> {
+    @EntityGraph(attributePaths = "surgery")
     List<PostOperative> findByPatientId(Long patientId);
+
+    // Newest N for the patient summary; served by the (patient_id, ...) index
+    @EntityGraph(attributePaths = "surgery")
+    List<PostOperative> findByPatientIdOrderByCreatedAtDesc(Long patientId, Limit limit);
+
+    @EntityGraph(attributePaths = "surgery")
     List<PostOperative> findBySurgeryId(Long surgeryId);
+
+    @EntityGraph(attributePaths = "surgery")
     List<PostOperative> findByFollowupType(PostOperative.FollowupType followupType);
 
     @Query("SELECT p FROM PostOperative p WHERE p.medicationAdherence = false")
+    @EntityGraph(attributePaths = "surgery")
     List<PostOperative> findNonAdherentPatients();
 
     @Query("SELECT p FROM PostOperative p WHERE p.nextVisitDate IS NOT NULL AND p.nextVisitDate < CURRENT_DATE")
+    @EntityGraph(attributePaths = "surgery")
     List<PostOperative> findOverdueFollowups();
 }
\ No newline at end of file
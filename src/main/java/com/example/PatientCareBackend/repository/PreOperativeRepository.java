@@ -9,6 +9,11 @@ import java.util.Optional;
 
 @Repository
 public interface PreOperativeRepository extends JpaRepository<PreOperative, Long> {
+
+    @Override
+    List<PreOperative> findAll();
+
     Optional<PreOperative> findByPatientId(Long patientId);
+
     List<PreOperative> findByProcedureName(String procedureName);
 }
\ No newline at end of file
@@ -2,18 +2,33 @@ package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.Patient;
 import com.example.PatientCareBackend.model.Surgery;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SurgeryRepository extends JpaRepository<Surgery, Long> {
+
+    @Override
+    List<Surgery> findAll();
+
     List<Surgery> findByPatientId(Long patientId);
+
+    // Newest N for the patient summary; served by the (patient_id, ...) index
+    List<Surgery> findByPatientIdOrderByCreatedAtDesc(Long patientId, Limit limit);
+
     List<Surgery> findByStatus(Surgery.SurgeryStatus status);
+
     List<Surgery> findByUrgency(Surgery.SurgeryUrgency urgency);
 
     @Query("SELECT s FROM Surgery s WHERE s.scheduledDate BETWEEN :startDate AND :endDate")
@@ -31,4 +46,39 @@ public interface SurgeryRepository extends JpaRepository<Surgery, Long> {
     boolean existsByPatientAndProcedureNameAndStatus(@Param("patient") Patient patient,
                                                      @Param("procedureName") String procedureName,
                                                      @Param("status") Surgery.SurgeryStatus status);
-}
\ No newline at end of file
+
+    // Cursor-backed scan for exports; rows are fetched from the driver in chunks instead of all at once
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Surgery s ORDER BY s.id")
+    Stream<Surgery> streamAll();
+
+    // Half-open [startDate, endDate) window served by the matching date index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Surgery s WHERE s.scheduledDate >= :startDate AND s.scheduledDate < :endDate ORDER BY s.scheduledDate, s.id")
+    Stream<Surgery> streamScheduledBetween(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT MAX(s.updatedAt) FROM Surgery s")
+    Optional<LocalDateTime> findMaxUpdatedAt();
+
+    @Query("SELECT MAX(s.id) FROM Surgery s WHERE s.updatedAt = :updatedAt")
+    Optional<Long> findMaxIdByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Rows changed after one (updatedAt, id) watermark up to and including the next one
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Surgery s WHERE (s.updatedAt, s.id) > (:fromUpdatedAt, :fromId) " +
+            "AND (s.updatedAt, s.id) <= (:toUpdatedAt, :toId) ORDER BY s.updatedAt, s.id")
+    Stream<Surgery> streamChangedBetween(@Param("fromUpdatedAt") LocalDateTime fromUpdatedAt,
+                                         @Param("fromId") Long fromId,
+                                         @Param("toUpdatedAt") LocalDateTime toUpdatedAt,
+                                         @Param("toId") Long toId);
+}
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.SurgicalDecision;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,8 +9,13 @@ import java.util.List;
 
 @Repository
 public interface SurgicalDecisionRepository extends JpaRepository<SurgicalDecision, Long> {
+    @EntityGraph(attributePaths = "surgery")
     List<SurgicalDecision> findBySurgeryId(Long surgeryId);
+
+    @EntityGraph(attributePaths = "surgery")
     List<SurgicalDecision> findBySurgeonName(String surgeonName);
+
+    @EntityGraph(attributePaths = "surgery")
     List<SurgicalDecision> findByDecisionStatus(SurgicalDecision.DecisionStatus decisionStatus);
 
     long countBySurgeryIdAndDecisionStatus(Long surgeryId, SurgicalDecision.DecisionStatus decisionStatus);
@@ -1,11 +1,13 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +29,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.role = 'DOCTOR' AND u.available = true")
     List<User> findAvailableDoctors();
-}
\ No newline at end of file
+
+    // Doctors who have analysed, seen or prescribed for the patient
+    @Query("SELECT u FROM User u WHERE u.role = 'DOCTOR' AND (" +
+            "EXISTS (SELECT 1 FROM DoctorAnalysis a WHERE a.doctor = u AND a.patient.id = :patientId) OR " +
+            "EXISTS (SELECT 1 FROM Appointment ap WHERE ap.doctor = u AND ap.patient.id = :patientId) OR " +
+            "EXISTS (SELECT 1 FROM Pharmacy rx WHERE rx.doctor = u AND rx.patient.id = :patientId))")
+    List<User> findDoctorsOfPatient(@Param("patientId") Long patientId);
+
+    // (id, tokensRevokedAt) of users whose tokens were revoked after since; older cut-offs predate every live token
+    @Query("SELECT u.id, u.tokensRevokedAt FROM User u WHERE u.tokensRevokedAt > :since")
+    List<Object[]> findTokenRevocationsSince(@Param("since") LocalDateTime since);
+
+    // Keyset pages, newest first; the (created_at, id) index makes every page cost the same
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findFirstPage(Limit limit);
+
+    @Query("SELECT u FROM User u WHERE (u.createdAt, u.id) < (:createdAt, :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+}
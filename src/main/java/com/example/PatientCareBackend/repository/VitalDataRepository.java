@@ -1,17 +1,23 @@
 package com.example.PatientCareBackend.repository;
 
 import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.service.VitalReading;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface VitalDataRepository extends JpaRepository<VitalData, Long> {
     List<VitalData> findByPatientId(Long patientId);
+
     List<VitalData> findByRecordedBy(String recordedBy);
 
     @Query("SELECT v FROM VitalData v WHERE v.riskLevel = 'CRITICAL' OR v.riskLevel = 'HIGH'")
@@ -24,4 +30,23 @@ public interface VitalDataRepository extends JpaRepository<VitalData, Long> {
 
     @Query("SELECT v FROM VitalData v WHERE v.patient.id = :patientId ORDER BY v.createdAt DESC LIMIT :limit")
     List<VitalData> findRecentByPatient(@Param("patientId") Long patientId, @Param("limit") int limit);
+
+    // Readings stored since a point in time, oldest first, for VitalDataFeed; columns only, no entities
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.PatientCareBackend.service.VitalReading(v.id, v.patient.id, v.createdAt, " +
+            "v.systolicBp, v.diastolicBp, v.heartRate, v.respiratoryRate, v.temperature, v.oxygenSaturation, " +
+            "v.height, v.weight, v.bloodGlucose, v.painLevel, v.consciousness, v.bmi, v.earlyWarningScore, " +
+            "v.riskLevel, v.notes, v.recordedBy) " +
+            "FROM VitalData v WHERE v.createdAt > :since ORDER BY v.createdAt, v.id")
+    Stream<VitalReading> streamReadingsCreatedAfter(@Param("since") LocalDateTime since);
+
+    // Half-open [from, to) window, oldest first, for raw-resolution trends
+    @Query("SELECT v FROM VitalData v WHERE v.patient.id = :patientId AND v.createdAt >= :from AND v.createdAt < :to " +
+            "ORDER BY v.createdAt, v.id")
+    List<VitalData> findTrendByPatient(@Param("patientId") Long patientId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
 }
\ No newline at end of file
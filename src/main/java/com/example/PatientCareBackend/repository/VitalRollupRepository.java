@@ -0,0 +1,27 @@
+package com.example.PatientCareBackend.repository;
+
+import com.example.PatientCareBackend.model.VitalRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VitalRollupRepository extends JpaRepository<VitalRollup, Long> {
+
+    // Served by the (patient_id, resolution, bucket_start) unique index
+    @Query("SELECT r FROM VitalRollup r WHERE r.patientId = :patientId AND r.resolution = :resolution " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<VitalRollup> findBuckets(@Param("patientId") Long patientId,
+                                  @Param("resolution") VitalRollup.Resolution resolution,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM VitalRollup r WHERE r.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+}
@@ -2,6 +2,8 @@ package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.AppointmentRequest;
 import com.example.PatientCareBackend.dto.response.AppointmentResponse;
+import com.example.PatientCareBackend.dto.response.CursorPage;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.exception.ValidationException;
 import com.example.PatientCareBackend.model.Appointment;
@@ -10,13 +12,14 @@ import com.example.PatientCareBackend.model.User;
 import com.example.PatientCareBackend.repository.AppointmentRepository;
 import com.example.PatientCareBackend.repository.PatientRepository;
 import com.example.PatientCareBackend.repository.UserRepository;
+import com.example.PatientCareBackend.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,19 +28,24 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<AppointmentResponse> getAllAppointments(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit rows = Limit.of(limit + 1);
+        return CursorPage.ofPage(after == null
+                        ? appointmentRepository.findFirstPage(rows)
+                        : appointmentRepository.findPageAfter(after.sortKey(), after.id(), rows),
+                limit, row -> new PageCursor(row.getCreatedAt(), row.getId()),
+                page -> patientRefResolver.mapAll(page, Appointment::getPatient, this::mapToResponse));
     }
 
     @Transactional(readOnly = true)
     public AppointmentResponse getAppointmentById(Long id) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + id));
-        return mapToResponse(appointment);
+        return mapToResponse(appointment, patientRefResolver.resolve(appointment.getPatient()));
     }
 
     @Transactional
@@ -72,7 +80,7 @@ public class AppointmentService {
         appointment.setArrivalStatus(Appointment.ArrivalStatus.PENDING);
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
-        return mapToResponse(savedAppointment);
+        return mapToResponse(savedAppointment, patientRefResolver.resolve(savedAppointment.getPatient()));
     }
 
     @Transactional
@@ -96,7 +104,7 @@ public class AppointmentService {
         appointment.setPriority(appointmentRequest.getPriority());
 
         Appointment updatedAppointment = appointmentRepository.save(appointment);
-        return mapToResponse(updatedAppointment);
+        return mapToResponse(updatedAppointment, patientRefResolver.resolve(updatedAppointment.getPatient()));
     }
 
     @Transactional
@@ -113,7 +121,7 @@ public class AppointmentService {
 
         appointment.setStatus(status);
         Appointment updatedAppointment = appointmentRepository.save(appointment);
-        return mapToResponse(updatedAppointment);
+        return mapToResponse(updatedAppointment, patientRefResolver.resolve(updatedAppointment.getPatient()));
     }
 
     @Transactional
@@ -123,7 +131,7 @@ public class AppointmentService {
 
         appointment.setArrivalStatus(arrivalStatus);
         Appointment updatedAppointment = appointmentRepository.save(appointment);
-        return mapToResponse(updatedAppointment);
+        return mapToResponse(updatedAppointment, patientRefResolver.resolve(updatedAppointment.getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -132,9 +140,15 @@ public class AppointmentService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return appointmentRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(appointmentRepository.findByPatientId(patientId),
+                Appointment::getPatient, this::mapToResponse);
+    }
+
+    // Newest first, no existence check: callers have already resolved the patient
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> getRecentAppointmentsByPatient(Long patientId, int limit) {
+        return patientRefResolver.mapAll(appointmentRepository.findByPatientIdOrderByAppointmentDateDescAppointmentTimeDesc(patientId, Limit.of(limit)),
+                Appointment::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -143,16 +157,14 @@ public class AppointmentService {
             throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
         }
 
-        return appointmentRepository.findByDoctorId(doctorId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(appointmentRepository.findByDoctorId(doctorId),
+                Appointment::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getAppointmentsByDate(LocalDate date) {
-        return appointmentRepository.findByAppointmentDate(date).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(appointmentRepository.findByAppointmentDate(date),
+                Appointment::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -161,15 +173,14 @@ public class AppointmentService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return appointmentRepository.findUpcomingAppointmentsByPatient(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(appointmentRepository.findUpcomingAppointmentsByPatient(patientId),
+                Appointment::getPatient, this::mapToResponse);
     }
 
-    private AppointmentResponse mapToResponse(Appointment appointment) {
+    private AppointmentResponse mapToResponse(Appointment appointment, PatientRef patient) {
         AppointmentResponse response = new AppointmentResponse();
         response.setId(appointment.getId());
-        response.setPatient(mapToPatientResponse(appointment.getPatient()));
+        response.setPatient(patient);
         response.setDoctor(mapToUserResponse(appointment.getDoctor()));
         response.setAppointmentDate(appointment.getAppointmentDate());
         response.setAppointmentTime(appointment.getAppointmentTime());
@@ -184,31 +195,6 @@ public class AppointmentService {
         return response;
     }
 
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
-
     private com.example.PatientCareBackend.dto.response.UserResponse mapToUserResponse(User user) {
         return new com.example.PatientCareBackend.dto.response.UserResponse(
                 user.getId(),
@@ -126,8 +126,11 @@ public class AuthService {
     }
 
     public void validateAdminAccess() {
-        User currentUser = getCurrentUser();
-        if (currentUser.getRole() != User.Role.ADMIN) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser currentUser)) {
+            throw new ResourceNotFoundException("User not authenticated");
+        }
+        if (!currentUser.hasRole(User.Role.ADMIN)) {
             throw new AuthenticationException("Access denied. Admin privileges required.");
         }
     }
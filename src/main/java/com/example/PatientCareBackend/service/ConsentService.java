@@ -2,6 +2,7 @@ package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.ConsentRequest;
 import com.example.PatientCareBackend.dto.response.ConsentResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Consent;
 import com.example.PatientCareBackend.model.Surgery;
@@ -26,6 +27,8 @@ public class ConsentService {
     private final ConsentRepository consentRepository;
     private final SurgeryRepository surgeryRepository;
 
+    private final PatientRefResolver patientRefResolver;
+
     private final String UPLOAD_DIR = "uploads/consents/";
 
     @Transactional
@@ -54,14 +57,14 @@ public class ConsentService {
             surgeryRepository.save(surgery);
         }
 
-        return mapToResponse(savedConsent);
+        return mapToResponse(savedConsent, patientRefResolver.resolve(savedConsent.getSurgery().getPatient()));
     }
 
     @Transactional(readOnly = true)
     public ConsentResponse getConsentBySurgery(Long surgeryId) {
         Consent consent = consentRepository.findBySurgeryId(surgeryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Consent not found for surgery id: " + surgeryId));
-        return mapToResponse(consent);
+        return mapToResponse(consent, patientRefResolver.resolve(consent.getSurgery().getPatient()));
     }
 
     @Transactional
@@ -82,7 +85,7 @@ public class ConsentService {
             consent.setConsentFilePath(filePath.toString());
             Consent updatedConsent = consentRepository.save(consent);
 
-            return mapToResponse(updatedConsent);
+            return mapToResponse(updatedConsent, patientRefResolver.resolve(updatedConsent.getSurgery().getPatient()));
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload consent file", e);
         }
@@ -90,10 +93,11 @@ public class ConsentService {
 
     @Transactional(readOnly = true)
     public List<ConsentResponse> getStoredConsentForms() {
-        return consentRepository.findAll().stream()
+        List<Consent> storedForms = consentRepository.findAll().stream()
                 .filter(consent -> consent.getConsentFilePath() != null)
-                .map(this::mapToResponse)
                 .collect(Collectors.toList());
+        return patientRefResolver.mapAll(storedForms,
+                consent -> consent.getSurgery().getPatient(), this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -105,15 +109,14 @@ public class ConsentService {
 
     @Transactional(readOnly = true)
     public List<ConsentResponse> getConsentsByDecision(Consent.ConsentDecision decision) {
-        return consentRepository.findByConsentDecision(decision).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(consentRepository.findByConsentDecision(decision),
+                consent -> consent.getSurgery().getPatient(), this::mapToResponse);
     }
 
-    private ConsentResponse mapToResponse(Consent consent) {
+    private ConsentResponse mapToResponse(Consent consent, PatientRef patient) {
         return new ConsentResponse(
                 consent.getId(),
-                mapToSurgeryResponse(consent.getSurgery()),
+                mapToSurgeryResponse(consent.getSurgery(), patient),
                 consent.getPatientName(),
                 consent.getNextOfKin(),
                 consent.getNextOfKinPhone(),
@@ -128,10 +131,10 @@ public class ConsentService {
         );
     }
 
-    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery) {
+    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery, PatientRef patient) {
         return new com.example.PatientCareBackend.dto.response.SurgeryResponse(
                 surgery.getId(),
-                mapToPatientResponse(surgery.getPatient()),
+                patient,
                 surgery.getProcedureName(),
                 surgery.getUrgency(),
                 surgery.getRecommendedBy(),
@@ -146,29 +149,4 @@ public class ConsentService {
                 surgery.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(com.example.PatientCareBackend.model.Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,434 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.DeteriorationProperties;
+import com.example.PatientCareBackend.model.ICU;
+import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.repository.ICURepository;
+import com.example.PatientCareBackend.repository.NotificationRepository;
+import com.example.PatientCareBackend.repository.VitalDataRepository;
+import com.example.PatientCareBackend.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Flags patients whose vitals drift the wrong way over hours even though each reading on its own looks acceptable.
+// Per patient and signal it keeps exponentially weighted sums (weight, time, time², value, time·value, value²), which
+// give the EWMA, variance and least-squares slope in constant memory however many readings arrive. A signal
+// deteriorates when its slope passes the configured rate, over enough readings and time, and stands out from the
+// scatter around the trend line; the patient's doctors (through analyses, appointments or prescriptions, otherwise
+// every available doctor) then get an URGENT alert, at most once per cooldown.
+// Ward vitals and ICU readings feed the same state. It is replayed from recent history once the application is
+// ready and caught up through VitalDataFeed, so readings stored on other instances count too; only readings stored
+// through this instance raise alerts, and alerts already raised elsewhere within the cooldown are not repeated.
+// Readings may arrive out of order (the catch-up delivers other instances' readings after later local ones, and
+// re-reads an overlap): within the reorder window they are merged at their own time and counted once.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeteriorationMonitor {
+
+    static final String ALERT_TITLE = "Sustained deterioration";
+
+    static final int HEART_RATE = 0;
+    static final int RESPIRATORY_RATE = 1;
+    static final int SYSTOLIC_BP = 2;
+    static final int OXYGEN_SATURATION = 3;
+    static final int TEMPERATURE = 4;
+    static final int EARLY_WARNING_SCORE = 5;
+
+    // Configuration keys and alert wording, indexed by the constants above
+    private static final String[] SIGNALS = {"heart-rate", "respiratory-rate", "systolic-bp", "oxygen-saturation",
+            "temperature", "early-warning-score"};
+    private static final String[] LABELS = {"Heart rate", "Respiratory rate", "Systolic BP", "SpO2", "Temperature",
+            "Early warning score"};
+    private static final String[] UNITS = {" bpm", "/min", " mmHg", "%", " °C", ""};
+
+    // Sums per signal: weight, time, time², value, time·value, value²; time in hours relative to the last reading
+    private static final int SUMS = 6;
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private final VitalDataRepository vitalDataRepository;
+    private final ICURepository icuRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final EarlyWarningScorer earlyWarningScorer;
+    private final DeteriorationProperties properties;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, PatientTrend> patients = new ConcurrentHashMap<>();
+    // Live readings stored while the history is being replayed; observed once it is in
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private double[] slopes;
+    private double decayPerHour;
+    private long reorderWindowMillis;
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        slopes = new double[SIGNALS.length];
+        for (int signal = 0; signal < SIGNALS.length; signal++) {
+            Double slope = properties.getSlopePerHour().get(SIGNALS[signal]);
+            // 0 leaves a signal tracked but never alerting
+            slopes[signal] = slope != null ? slope : 0;
+        }
+        decayPerHour = Math.log(2) / properties.getHalfLifeHours();
+        reorderWindowMillis = properties.getReorderWindowSeconds() * 1000;
+    }
+
+    public int size() {
+        return patients.size();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Called by VitalDataFeed once the application is ready
+    void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            LocalDateTime since = LocalDateTime.now().minusSeconds(Math.round(properties.getHistoryHours() * 3600));
+            try (Stream<VitalReading> readings = vitalDataRepository.streamReadingsCreatedAfter(since);
+                 Replay replay = replay(since)) {
+                readings.forEach(replay::accept);
+            }
+        });
+        synchronized (pending) {
+            ready = true;
+            pending.forEach(Runnable::run);
+            pending.clear();
+        }
+        log.info("Deterioration monitor rebuilt for {} patients in {} ms",
+                patients.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Opens a replay of everything stored since the given time; ward readings are handed in by the caller
+    Replay replay(LocalDateTime since) {
+        return new Replay(icuRepository.streamCreatedAfter(since));
+    }
+
+    // Discharged and transferred patients stop sending readings
+    void dropStalePatients() {
+        long staleBefore = System.currentTimeMillis() - Math.round(properties.getHistoryHours() * MILLIS_PER_HOUR);
+        patients.values().removeIf(trend -> trend.isStale(staleBefore));
+    }
+
+    // Applied once the surrounding transaction commits, so rolled-back readings never count
+    public void recordAfterCommit(List<VitalData> vitals) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AfterCommit.run(() -> observeWhenReady(() -> {
+            for (VitalData vitalData : vitals) {
+                VitalReading reading = VitalReading.of(vitalData);
+                alertIfDue(reading.patientId(), observe(reading));
+            }
+        }));
+    }
+
+    public void recordAfterCommit(ICU icu) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AfterCommit.run(() -> observeWhenReady(() -> alertIfDue(icu.getPatient().getId(), observe(icu))));
+    }
+
+    // Observed before the replay, a live reading would be the patient's latest and the whole history would land
+    // outside the reorder window
+    private void observeWhenReady(Runnable observation) {
+        synchronized (pending) {
+            if (!ready) {
+                pending.add(observation);
+                return;
+            }
+        }
+        observation.run();
+    }
+
+    private int observe(VitalReading reading) {
+        return observe(reading.patientId(), reading.id(), toEpochMillis(reading.createdAt()),
+                value(reading.heartRate()), value(reading.respiratoryRate()),
+                value(reading.systolicBp()), value(reading.oxygenSaturation()),
+                value(reading.temperature()), value(reading.earlyWarningScore()));
+    }
+
+    // ICU ids are negated so they never collide with ward reading ids
+    private int observe(ICU icu) {
+        return observe(icu.getPatient().getId(), -icu.getId(), toEpochMillis(icu.getCreatedAt()),
+                value(icu.getHeartRate()), value(icu.getRespiratoryRate()),
+                value(icu.getBloodPressureSystolic()), value(icu.getOxygenSaturation()),
+                value(icu.getTemperature()), EarlyWarningScorer.total(earlyWarningScorer.score(icu)));
+    }
+
+    // Folds one reading into the patient's state and returns a bit per deteriorating signal; NaN marks a missing
+    // value. Readings already counted, or older than the reorder window, are ignored.
+    int observe(long patientId, long readingId, long timeMillis, double heartRate, double respiratoryRate,
+                double systolicBp, double oxygenSaturation, double temperature, double earlyWarningScore) {
+        PatientTrend trend = patients.computeIfAbsent(patientId, id -> new PatientTrend());
+        synchronized (trend) {
+            if (!trend.admit(readingId, timeMillis, reorderWindowMillis)) {
+                return 0;
+            }
+            double age = trend.advanceTo(timeMillis, decayPerHour);
+            double weight = Math.exp(-decayPerHour * age);
+            trend.add(HEART_RATE, heartRate, -age, weight);
+            trend.add(RESPIRATORY_RATE, respiratoryRate, -age, weight);
+            trend.add(SYSTOLIC_BP, systolicBp, -age, weight);
+            trend.add(OXYGEN_SATURATION, oxygenSaturation, -age, weight);
+            trend.add(TEMPERATURE, temperature, -age, weight);
+            trend.add(EARLY_WARNING_SCORE, earlyWarningScore, -age, weight);
+
+            int deteriorating = 0;
+            for (int signal = 0; signal < SIGNALS.length; signal++) {
+                if (trend.isDeteriorating(signal, slopes[signal], properties.getMinReadings(),
+                        properties.getMinSpanHours(), properties.getNoiseFactor())) {
+                    deteriorating |= 1 << signal;
+                }
+            }
+            return deteriorating;
+        }
+    }
+
+    private void alertIfDue(Long patientId, int deteriorating) {
+        if (deteriorating == 0) {
+            return;
+        }
+        PatientTrend trend = patients.get(patientId);
+        if (trend == null) {
+            return;
+        }
+        String message;
+        synchronized (trend) {
+            long now = System.currentTimeMillis();
+            if (now - trend.alertedMillis < properties.getCooldownHours() * MILLIS_PER_HOUR) {
+                return;
+            }
+            trend.alertedMillis = now;
+            message = trend.describe(deteriorating);
+        }
+
+        LocalDateTime cooldownStart = LocalDateTime.now()
+                .minusSeconds(Math.round(properties.getCooldownHours() * 3600));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Runs after the reading's transaction has committed, so it needs a transaction of its own
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (!notificationRepository.existsByPatientIdAndTitleAndCreatedAtAfter(
+                        patientId, ALERT_TITLE, cooldownStart)) {
+                    notificationService.sendPatientAlert(ALERT_TITLE, message, patientId);
+                }
+            });
+            log.info("Deterioration alert for patient {}: {}", patientId, message);
+        } catch (RuntimeException e) {
+            // The reading is stored either way; the next deteriorating reading after the cooldown alerts again
+            log.warn("Could not raise deterioration alert for patient {}: {}", patientId, e.getMessage());
+        }
+    }
+
+    // Ward readings handed in created_at order are merged with the ICU records of the same window, so every patient's
+    // readings are observed oldest first; ICU records after the last ward reading are observed on close
+    final class Replay implements AutoCloseable {
+
+        private final Stream<ICU> icuRecords;
+        private final Iterator<ICU> icuIterator;
+        private ICU icu;
+        private int count;
+
+        private Replay(Stream<ICU> icuRecords) {
+            this.icuRecords = icuRecords;
+            icuIterator = icuRecords.iterator();
+            icu = icuIterator.hasNext() ? icuIterator.next() : null;
+        }
+
+        void accept(VitalReading reading) {
+            observeIcuBefore(reading.createdAt());
+            observe(reading);
+        }
+
+        @Override
+        public void close() {
+            try {
+                observeIcuBefore(null);
+            } finally {
+                icuRecords.close();
+            }
+        }
+
+        private void observeIcuBefore(LocalDateTime time) {
+            while (icu != null && (time == null || icu.getCreatedAt().isBefore(time))) {
+                observe(icu);
+                icu = icuIterator.hasNext() ? icuIterator.next() : null;
+                if (++count % LOAD_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private static double value(Number number) {
+        return number != null ? number.doubleValue() : Double.NaN;
+    }
+
+    // Same clock as the LocalDateTime.now() that stamps created_at
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class PatientTrend {
+
+        private final double[] sums = new double[SIGNALS.length * SUMS];
+        private long lastMillis = Long.MIN_VALUE;
+        private long alertedMillis = Long.MIN_VALUE / 2;
+        // Ids and times of the readings within the reorder window, to count re-read readings once
+        private long[] recentIds = new long[4];
+        private long[] recentMillis = new long[4];
+        private int recent;
+
+        boolean isStale(long staleBefore) {
+            synchronized (this) {
+                return lastMillis < staleBefore;
+            }
+        }
+
+        // False for a reading already counted or too old to merge; otherwise remembers it while it is in the window
+        boolean admit(long readingId, long timeMillis, long reorderWindowMillis) {
+            long windowStart = Math.max(lastMillis, timeMillis) - reorderWindowMillis;
+            if (lastMillis != Long.MIN_VALUE && timeMillis < windowStart) {
+                return false;
+            }
+            int kept = 0;
+            for (int i = 0; i < recent; i++) {
+                if (recentIds[i] == readingId) {
+                    return false;
+                }
+                if (recentMillis[i] >= windowStart) {
+                    recentIds[kept] = recentIds[i];
+                    recentMillis[kept++] = recentMillis[i];
+                }
+            }
+            recent = kept;
+            if (recent == recentIds.length) {
+                recentIds = Arrays.copyOf(recentIds, recent * 2);
+                recentMillis = Arrays.copyOf(recentMillis, recent * 2);
+            }
+            recentIds[recent] = readingId;
+            recentMillis[recent++] = timeMillis;
+            return true;
+        }
+
+        // Moves the time origin to a newer reading and decays everything before it; returns how many hours an older
+        // reading lies before the origin, 0 for a newer one
+        double advanceTo(long timeMillis, double decayPerHour) {
+            if (lastMillis != Long.MIN_VALUE) {
+                if (timeMillis < lastMillis) {
+                    return (lastMillis - timeMillis) / MILLIS_PER_HOUR;
+                }
+                double dt = (timeMillis - lastMillis) / MILLIS_PER_HOUR;
+                double decay = Math.exp(-decayPerHour * dt);
+                for (int base = 0; base < sums.length; base += SUMS) {
+                    double w = sums[base];
+                    double t = sums[base + 1];
+                    double tt = sums[base + 2];
+                    double x = sums[base + 3];
+                    double tx = sums[base + 4];
+                    sums[base] = w * decay;
+                    sums[base + 1] = (t - dt * w) * decay;
+                    sums[base + 2] = (tt - 2 * dt * t + dt * dt * w) * decay;
+                    sums[base + 3] = x * decay;
+                    sums[base + 4] = (tx - dt * x) * decay;
+                    sums[base + 5] *= decay;
+                }
+            }
+            lastMillis = timeMillis;
+            return 0;
+        }
+
+        // A reading at the given time (0 for the newest, negative before it), already decayed to that weight
+        void add(int signal, double value, double time, double weight) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            int base = signal * SUMS;
+            sums[base] += weight;
+            sums[base + 1] += weight * time;
+            sums[base + 2] += weight * time * time;
+            sums[base + 3] += weight * value;
+            sums[base + 4] += weight * time * value;
+            sums[base + 5] += weight * value * value;
+        }
+
+        boolean isDeteriorating(int signal, double threshold, double minReadings, double minSpanHours,
+                                double noiseFactor) {
+            int base = signal * SUMS;
+            double w = sums[base];
+            if (threshold == 0 || w < minReadings) {
+                return false;
+            }
+            double meanT = sums[base + 1] / w;
+            double meanX = sums[base + 3] / w;
+            double varT = sums[base + 2] / w - meanT * meanT;
+            // Readings spread evenly over a window of length L have a time variance of L²/12
+            double span = Math.sqrt(Math.max(12 * varT, 0));
+            if (span < minSpanHours) {
+                return false;
+            }
+            double slope = (sums[base + 4] / w - meanT * meanX) / varT;
+            if (slope / threshold < 1) {
+                return false;
+            }
+            double varX = sums[base + 5] / w - meanX * meanX;
+            double residual = Math.sqrt(Math.max(varX - slope * slope * varT, 0));
+            return Math.abs(slope) * span >= noiseFactor * residual;
+        }
+
+        String describe(int deteriorating) {
+            StringBuilder message = new StringBuilder();
+            for (int signal = 0; signal < SIGNALS.length; signal++) {
+                if ((deteriorating & 1 << signal) == 0) {
+                    continue;
+                }
+                int base = signal * SUMS;
+                double w = sums[base];
+                double meanT = sums[base + 1] / w;
+                double meanX = sums[base + 3] / w;
+                double varT = sums[base + 2] / w - meanT * meanT;
+                double slope = (sums[base + 4] / w - meanT * meanX) / varT;
+                // The fitted line at time 0 is the current trend value
+                double current = meanX - slope * meanT;
+                if (!message.isEmpty()) {
+                    message.append("; ");
+                }
+                message.append(String.format(Locale.ROOT, "%s %s %.1f%s/h over the last %.1f h, now about %.1f%s",
+                        LABELS[signal], slope > 0 ? "rising" : "falling", Math.abs(slope), UNITS[signal],
+                        Math.sqrt(12 * varT), current, UNITS[signal]));
+            }
+            return message.toString();
+        }
+    }
+}
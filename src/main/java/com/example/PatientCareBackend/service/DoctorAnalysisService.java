@@ -2,6 +2,7 @@ package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.DoctorAnalysisRequest;
 import com.example.PatientCareBackend.dto.response.DoctorAnalysisResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.*;
 import com.example.PatientCareBackend.repository.*;
@@ -12,7 +13,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +23,7 @@ public class DoctorAnalysisService {
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
     private final SurgeryRepository surgeryRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional
     public DoctorAnalysisResponse createAnalysis(DoctorAnalysisRequest analysisRequest) {
@@ -72,7 +73,7 @@ public class DoctorAnalysisService {
                     analysisRequest.getRecommendSurgery(), analysisRequest.getSurgeryType());
         }
 
-        return mapToResponse(savedAnalysis);
+        return mapToResponse(savedAnalysis, patientRefResolver.resolve(savedAnalysis.getPatient()));
     }
 
     @Transactional
@@ -170,16 +171,15 @@ public class DoctorAnalysisService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return doctorAnalysisRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(doctorAnalysisRepository.findByPatientId(patientId),
+                DoctorAnalysis::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public DoctorAnalysisResponse getAnalysisById(Long id) {
         DoctorAnalysis analysis = doctorAnalysisRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor analysis not found with id: " + id));
-        return mapToResponse(analysis);
+        return mapToResponse(analysis, patientRefResolver.resolve(analysis.getPatient()));
     }
 
     @Transactional
@@ -222,7 +222,7 @@ public class DoctorAnalysisService {
             createSurgeryFromAnalysis(updatedAnalysis);
         }
 
-        return mapToResponse(updatedAnalysis);
+        return mapToResponse(updatedAnalysis, patientRefResolver.resolve(updatedAnalysis.getPatient()));
     }
 
     @Transactional
@@ -238,31 +238,27 @@ public class DoctorAnalysisService {
             throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
         }
 
-        return doctorAnalysisRepository.findByDoctorId(doctorId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(doctorAnalysisRepository.findByDoctorId(doctorId),
+                DoctorAnalysis::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<DoctorAnalysisResponse> getAnalysesRequiringSurgery() {
         List<DoctorAnalysis> analyses = doctorAnalysisRepository.findByRecommendSurgeryTrue();
         log.info("Found {} analyses requiring surgery", analyses.size());
-        return analyses.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(analyses, DoctorAnalysis::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<DoctorAnalysisResponse> getAllAnalyses() {
-        return doctorAnalysisRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(doctorAnalysisRepository.findAll(),
+                DoctorAnalysis::getPatient, this::mapToResponse);
     }
 
-    private DoctorAnalysisResponse mapToResponse(DoctorAnalysis analysis) {
+    private DoctorAnalysisResponse mapToResponse(DoctorAnalysis analysis, PatientRef patient) {
         return new DoctorAnalysisResponse(
                 analysis.getId(),
-                mapToPatientResponse(analysis.getPatient()),
+                patient,
                 mapToUserResponse(analysis.getDoctor()),
                 analysis.getSymptoms(),
                 analysis.getDiagnosis(),
@@ -277,31 +273,6 @@ public class DoctorAnalysisService {
         );
     }
 
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
-
     private com.example.PatientCareBackend.dto.response.UserResponse mapToUserResponse(User user) {
         return new com.example.PatientCareBackend.dto.response.UserResponse(
                 user.getId(),
@@ -2,6 +2,7 @@ package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.DuringOperationRequest;
 import com.example.PatientCareBackend.dto.response.DuringOperationResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.DuringOperation;
 import com.example.PatientCareBackend.model.Patient;
@@ -17,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +26,8 @@ public class DuringOperationService {
     private final DuringOperationRepository duringOperationRepository;
     private final SurgeryRepository surgeryRepository;
     private final PatientRepository patientRepository;
+    private final PatientRefResolver patientRefResolver;
+    private final EarlyWarningScorer earlyWarningScorer;
 
     @Transactional
     public DuringOperationResponse startOperation(DuringOperationRequest operationRequest) {
@@ -65,7 +67,7 @@ public class DuringOperationService {
         surgery.setActualDate(LocalDateTime.now());
         surgeryRepository.save(surgery);
 
-        return mapToResponse(savedOperation);
+        return mapToResponse(savedOperation, patientRefResolver.resolve(savedOperation.getPatient()));
     }
 
     @Transactional
@@ -102,7 +104,7 @@ public class DuringOperationService {
         operation.setClosureChecklist(JsonUtil.toJson(operationRequest.getClosureChecklist()));
 
         DuringOperation updatedOperation = duringOperationRepository.save(operation);
-        return mapToResponse(updatedOperation);
+        return mapToResponse(updatedOperation, patientRefResolver.resolve(updatedOperation.getPatient()));
     }
 
     @Transactional
@@ -121,7 +123,7 @@ public class DuringOperationService {
         surgery.setCompletedDate(LocalDateTime.now());
         surgeryRepository.save(surgery);
 
-        return mapToResponse(updatedOperation);
+        return mapToResponse(updatedOperation, patientRefResolver.resolve(updatedOperation.getPatient()));
     }
 
     @Transactional
@@ -153,7 +155,7 @@ public class DuringOperationService {
         }
 
         DuringOperation updatedOperation = duringOperationRepository.save(operation);
-        return mapToResponse(updatedOperation);
+        return mapToResponse(updatedOperation, patientRefResolver.resolve(updatedOperation.getPatient()));
     }
 
     @Transactional
@@ -176,7 +178,7 @@ public class DuringOperationService {
         // Convert back to JSON string
         operation.setSurgicalNotes(JsonUtil.toJson(surgicalNotes));
         DuringOperation updatedOperation = duringOperationRepository.save(operation);
-        return mapToResponse(updatedOperation);
+        return mapToResponse(updatedOperation, patientRefResolver.resolve(updatedOperation.getPatient()));
     }
 
     @Transactional
@@ -199,49 +201,47 @@ public class DuringOperationService {
         // Convert back to JSON string
         operation.setComplications(JsonUtil.toJson(complications));
         DuringOperation updatedOperation = duringOperationRepository.save(operation);
-        return mapToResponse(updatedOperation);
+        return mapToResponse(updatedOperation, patientRefResolver.resolve(updatedOperation.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public DuringOperationResponse getOperationById(Long id) {
         DuringOperation operation = duringOperationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("During operation record not found with id: " + id));
-        return mapToResponse(operation);
+        return mapToResponse(operation, patientRefResolver.resolve(operation.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public DuringOperationResponse getOperationBySurgery(Long surgeryId) {
         DuringOperation operation = duringOperationRepository.findBySurgeryId(surgeryId)
                 .orElseThrow(() -> new ResourceNotFoundException("During operation record not found for surgery id: " + surgeryId));
-        return mapToResponse(operation);
+        return mapToResponse(operation, patientRefResolver.resolve(operation.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<DuringOperationResponse> getOperationsByStatus(DuringOperation.OperationStatus status) {
-        return duringOperationRepository.findByStatus(status).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(duringOperationRepository.findByStatus(status),
+                DuringOperation::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<DuringOperationResponse> getActiveOperations() {
-        return duringOperationRepository.findActiveOperations().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(duringOperationRepository.findActiveOperations(),
+                DuringOperation::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<DuringOperationResponse> getRecentOperationsByPatient(Long patientId) {
-        return duringOperationRepository.findRecentOperationsByPatient(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(duringOperationRepository.findRecentOperationsByPatient(patientId),
+                DuringOperation::getPatient, this::mapToResponse);
     }
 
-    private DuringOperationResponse mapToResponse(DuringOperation operation) {
+    private DuringOperationResponse mapToResponse(DuringOperation operation, PatientRef patient) {
         DuringOperationResponse response = new DuringOperationResponse();
         response.setId(operation.getId());
-        response.setSurgery(mapToSurgeryResponse(operation.getSurgery()));
-        response.setPatient(mapToPatientResponse(operation.getPatient()));
+        response.setSurgery(mapToSurgeryResponse(operation.getSurgery(),
+                patientRefResolver.resolve(operation.getSurgery().getPatient(), patient)));
+        response.setPatient(patient);
         response.setStartTime(operation.getStartTime());
         response.setEndTime(operation.getEndTime());
         response.setStatus(operation.getStatus());
@@ -252,6 +252,9 @@ public class DuringOperationService {
         response.setTemperature(operation.getTemperature());
         response.setBloodLoss(operation.getBloodLoss());
         response.setUrineOutput(operation.getUrineOutput());
+        int score = earlyWarningScorer.score(operation);
+        response.setEarlyWarningScore(EarlyWarningScorer.total(score));
+        response.setRiskLevel(earlyWarningScorer.riskLevel(score));
 
         // Convert JSON strings back to Map objects
         response.setSurgicalNotes(JsonUtil.fromJson(operation.getSurgicalNotes()));
@@ -266,10 +269,10 @@ public class DuringOperationService {
         return response;
     }
 
-    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery) {
+    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery, PatientRef patient) {
         return new com.example.PatientCareBackend.dto.response.SurgeryResponse(
                 surgery.getId(),
-                mapToPatientResponse(surgery.getPatient()),
+                patient,
                 surgery.getProcedureName(),
                 surgery.getUrgency(),
                 surgery.getRecommendedBy(),
@@ -284,29 +287,4 @@ public class DuringOperationService {
                 surgery.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.EarlyWarningProperties;
+import com.example.PatientCareBackend.model.DuringOperation;
+import com.example.PatientCareBackend.model.ICU;
+import com.example.PatientCareBackend.model.VitalData;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Early warning score (NEWS2 by default) for ward, ICU and intra-operative readings. Each parameter's band table is
+// compiled at startup into a byte array indexed by the scaled reading itself, so scoring is one clamped array lookup
+// per parameter: no boxing, no allocation, and a missing value scores 0.
+@Service
+public class EarlyWarningScorer {
+
+    public static final int RESPIRATORY_RATE = 0;
+    public static final int OXYGEN_SATURATION = 1;
+    public static final int SUPPLEMENTAL_OXYGEN = 2;
+    public static final int SYSTOLIC_BP = 3;
+    public static final int HEART_RATE = 4;
+    public static final int CONSCIOUSNESS = 5;
+    public static final int TEMPERATURE = 6;
+
+    // Configuration keys, indexed by the constants above
+    private static final List<String> PARAMETERS = List.of("respiratory-rate", "oxygen-saturation",
+            "supplemental-oxygen", "systolic-bp", "heart-rate", "consciousness", "temperature");
+
+    private static final int MAX_TABLE_SIZE = 1 << 16;
+    private static final int GCS_FULLY_ALERT = 15;
+
+    // Every table back to back; offsets[p] is -1 for parameters without bands
+    private final byte[] scores;
+    private final int[] offsets = new int[PARAMETERS.size()];
+    private final int[] lengths = new int[PARAMETERS.size()];
+    private final long[] lowestBounds = new long[PARAMETERS.size()];
+    private final double[] scales = new double[PARAMETERS.size()];
+
+    private final int mediumScore;
+    private final int highScore;
+    private final int criticalScore;
+    private final int singleParameterHighScore;
+
+    public EarlyWarningScorer(EarlyWarningProperties properties) {
+        for (String name : properties.getBands().keySet()) {
+            if (!PARAMETERS.contains(name)) {
+                throw new IllegalStateException("Unknown early-warning.bands parameter '" + name
+                        + "', expected one of " + PARAMETERS);
+            }
+        }
+
+        byte[][] tables = new byte[PARAMETERS.size()][];
+        int total = 0;
+        for (int parameter = 0; parameter < PARAMETERS.size(); parameter++) {
+            String bands = properties.getBands().get(PARAMETERS.get(parameter));
+            if (bands != null && !bands.isBlank()) {
+                tables[parameter] = compile(parameter, PARAMETERS.get(parameter), bands);
+                total += tables[parameter].length;
+            }
+        }
+
+        scores = new byte[total];
+        int offset = 0;
+        for (int parameter = 0; parameter < PARAMETERS.size(); parameter++) {
+            if (tables[parameter] == null) {
+                offsets[parameter] = -1;
+                continue;
+            }
+            System.arraycopy(tables[parameter], 0, scores, offset, tables[parameter].length);
+            offsets[parameter] = offset;
+            lengths[parameter] = tables[parameter].length;
+            offset += tables[parameter].length;
+        }
+
+        mediumScore = properties.getMediumScore();
+        highScore = properties.getHighScore();
+        criticalScore = properties.getCriticalScore();
+        singleParameterHighScore = properties.getSingleParameterHighScore();
+    }
+
+    public int parameterScore(int parameter, double value) {
+        int offset = offsets[parameter];
+        if (offset < 0 || Double.isNaN(value)) {
+            return 0;
+        }
+        // Below the lowest bound lands on the first entry, above the highest on the last
+        long index = Math.round(value * scales[parameter]) - lowestBounds[parameter];
+        return scores[offset + (int) Math.max(0, Math.min(index, lengths[parameter] - 1))];
+    }
+
+    // Aggregate score in the upper bits, highest single-parameter score in the low byte; NaN marks a missing value
+    public int score(double respiratoryRate, double oxygenSaturation, double fio2, double systolicBp,
+                     double heartRate, double consciousness, double temperature) {
+        int total = 0;
+        int highest = 0;
+        int score = parameterScore(RESPIRATORY_RATE, respiratoryRate);
+        total += score;
+        highest = Math.max(highest, score);
+        score = parameterScore(OXYGEN_SATURATION, oxygenSaturation);
+        total += score;
+        highest = Math.max(highest, score);
+        score = parameterScore(SUPPLEMENTAL_OXYGEN, fio2);
+        total += score;
+        highest = Math.max(highest, score);
+        score = parameterScore(SYSTOLIC_BP, systolicBp);
+        total += score;
+        highest = Math.max(highest, score);
+        score = parameterScore(HEART_RATE, heartRate);
+        total += score;
+        highest = Math.max(highest, score);
+        score = parameterScore(CONSCIOUSNESS, consciousness);
+        total += score;
+        highest = Math.max(highest, score);
+        score = parameterScore(TEMPERATURE, temperature);
+        total += score;
+        highest = Math.max(highest, score);
+        return total << 8 | highest;
+    }
+
+    public int score(VitalData vitalData) {
+        return score(value(vitalData.getRespiratoryRate()), value(vitalData.getOxygenSaturation()), Double.NaN,
+                value(vitalData.getSystolicBp()), value(vitalData.getHeartRate()),
+                vitalData.getConsciousness() != null ? vitalData.getConsciousness().ordinal() : Double.NaN,
+                value(vitalData.getTemperature()));
+    }
+
+    // FiO2 stands in for supplemental oxygen and a GCS below 15 for an altered level of consciousness
+    public int score(ICU icu) {
+        double consciousness = icu.getGcsTotal() == null ? Double.NaN : icu.getGcsTotal() >= GCS_FULLY_ALERT ? 0 : 1;
+        return score(value(icu.getRespiratoryRate()), value(icu.getOxygenSaturation()), value(icu.getFio2()),
+                value(icu.getBloodPressureSystolic()), value(icu.getHeartRate()), consciousness,
+                value(icu.getTemperature()));
+    }
+
+    // Intra-operative monitoring records no respiratory rate or consciousness; those parameters score 0
+    public int score(DuringOperation operation) {
+        return score(Double.NaN, value(operation.getOxygenSaturation()), Double.NaN,
+                value(operation.getBloodPressureSystolic()), value(operation.getHeartRate()), Double.NaN,
+                value(operation.getTemperature()));
+    }
+
+    public static int total(int score) {
+        return score >>> 8;
+    }
+
+    public VitalData.RiskLevel riskLevel(int score) {
+        int total = total(score);
+        if (total >= criticalScore) {
+            return VitalData.RiskLevel.CRITICAL;
+        }
+        if (total >= highScore || (score & 0xFF) >= singleParameterHighScore) {
+            return VitalData.RiskLevel.HIGH;
+        }
+        if (total >= mediumScore) {
+            return VitalData.RiskLevel.MEDIUM;
+        }
+        return VitalData.RiskLevel.LOW;
+    }
+
+    private static double value(Number number) {
+        return number != null ? number.doubleValue() : Double.NaN;
+    }
+
+    // "40:3,50:1,*:3" becomes one score per scaled value from the lowest bound to one past the highest
+    private byte[] compile(int parameter, String name, String bands) {
+        String[] entries = bands.split(",");
+        BigDecimal[] bounds = new BigDecimal[entries.length - 1];
+        byte[] bandScores = new byte[entries.length];
+        int decimals = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split(":");
+            boolean last = i == entries.length - 1;
+            if (parts.length != 2 || last != parts[0].trim().equals("*")) {
+                throw new IllegalStateException("early-warning.bands." + name
+                        + " must be 'bound:score' entries ending with '*:score', got '" + bands + "'");
+            }
+            bandScores[i] = Byte.parseByte(parts[1].trim());
+            if (!last) {
+                bounds[i] = new BigDecimal(parts[0].trim());
+                decimals = Math.max(decimals, Math.max(bounds[i].scale(), 0));
+                if (i > 0 && bounds[i].compareTo(bounds[i - 1]) <= 0) {
+                    throw new IllegalStateException("early-warning.bands." + name + " bounds must ascend, got '" + bands + "'");
+                }
+            }
+        }
+        if (bounds.length == 0) {
+            // A single "*:score" band scores every value the same
+            scales[parameter] = 1;
+            return new byte[]{bandScores[0]};
+        }
+
+        long[] scaledBounds = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            scaledBounds[i] = bounds[i].movePointRight(decimals).longValueExact();
+        }
+        long lowest = scaledBounds[0];
+        long size = scaledBounds[bounds.length - 1] - lowest + 2;
+        if (size > MAX_TABLE_SIZE) {
+            throw new IllegalStateException("early-warning.bands." + name + " spans too many values at its resolution");
+        }
+
+        byte[] table = new byte[(int) size];
+        int band = 0;
+        for (int i = 0; i < table.length; i++) {
+            while (band < scaledBounds.length && lowest + i > scaledBounds[band]) {
+                band++;
+            }
+            table[i] = bandScores[band];
+        }
+        scales[parameter] = Math.pow(10, decimals);
+        lowestBounds[parameter] = lowest;
+        return table;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.exception.TooManyRequestsException;
+import com.example.PatientCareBackend.exception.ValidationException;
+import com.example.PatientCareBackend.service.ExportService.ExportType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Every entity export in one ZIP. The first entity streams straight from its database cursor while the others render
+// concurrently on a bounded pool, each in its own read-only transaction on its own connection, into spool files that
+// are copied into the ZIP in order once the response reaches them; a ZIP cannot interleave entries. Each entry is
+// read from its own snapshot.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportBundleService {
+
+    // How long a download that passed the capacity check waits for a slot taken by a concurrent request
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 10;
+
+    private final ExportService exportService;
+
+    // Shared with export jobs, whose startup sweep also removes bundle files left by a crash
+    @Value("${export.jobs.spool-dir:${java.io.tmpdir}/patientcare-exports}")
+    private String spoolDirectory;
+
+    @Value("${export.bundle.max-concurrent:5}")
+    private int maxConcurrent;
+
+    @Value("${export.bundle.pool-size:4}")
+    private int poolSize;
+
+    private Path spoolDir;
+    private Semaphore permits;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolDir = Paths.get(spoolDirectory);
+        Files.createDirectories(spoolDir);
+        permits = new Semaphore(maxConcurrent);
+
+        // The queue is bounded by the permits: at most max-concurrent bundles, each with one render per other entity
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-bundle-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Validates up front, so a bad request or a full server is answered before the ZIP starts. The slot itself is only
+    // taken once the body runs: a body that never runs (client gone, async timeout) then cannot hold it.
+    public ExportBundle startBundle(String format, LocalDateTime startDate, LocalDateTime endDate) {
+        String normalizedFormat = format != null ? format.toLowerCase() : "csv";
+        if (!ExportService.SUPPORTED_FORMATS.contains(normalizedFormat)) {
+            throw new ValidationException("Unsupported export format: " + format);
+        }
+        if (startDate != null && endDate != null && !startDate.isBefore(endDate)) {
+            throw new ValidationException("startDate must be before endDate");
+        }
+        if (permits.availablePermits() == 0) {
+            throw new TooManyRequestsException("Export bundle capacity is exhausted, please retry later");
+        }
+        return new ExportBundle(normalizedFormat, startDate, endDate);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete bundle file {}", path, e);
+        }
+    }
+
+    public class ExportBundle {
+        private final String format;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private final List<Future<Path>> renders = new ArrayList<>();
+        private volatile boolean closed;
+
+        private ExportBundle(String format, LocalDateTime startDate, LocalDateTime endDate) {
+            this.format = format;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            acquire();
+            try {
+                ExportType[] types = ExportType.values();
+                for (int i = 1; i < types.length; i++) {
+                    ExportType type = types[i];
+                    renders.add(executor.submit(() -> render(type)));
+                }
+
+                ZipOutputStream zip = new ZipOutputStream(out);
+                zip.putNextEntry(new ZipEntry(types[0].getFileName() + "." + format));
+                exportService.export(types[0], format, null, startDate, endDate, CloseShieldOutputStream.wrap(zip));
+                zip.closeEntry();
+                for (int i = 1; i < types.length; i++) {
+                    Path file = await(renders.get(i - 1));
+                    try {
+                        zip.putNextEntry(new ZipEntry(types[i].getFileName() + "." + format));
+                        Files.copy(file, zip);
+                        zip.closeEntry();
+                    } finally {
+                        deleteQuietly(file);
+                    }
+                }
+                // finish() rather than close(): the response stream is closed by the servlet container
+                zip.finish();
+            } finally {
+                discard();
+                permits.release();
+            }
+        }
+
+        private void acquire() throws IOException {
+            try {
+                if (!permits.tryAcquire(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new TooManyRequestsException("Export bundle capacity is exhausted, please retry later");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export bundle was interrupted");
+            }
+        }
+
+        private Path render(ExportType type) throws IOException {
+            Path file = Files.createTempFile(spoolDir, "bundle-", "." + format);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                exportService.export(type, format, null, startDate, endDate, out);
+            } catch (RuntimeException | IOException e) {
+                deleteQuietly(file);
+                throw e;
+            }
+            // The download may have been abandoned while this entry was rendering
+            if (closed) {
+                deleteQuietly(file);
+            }
+            return file;
+        }
+
+        private Path await(Future<Path> render) throws IOException {
+            try {
+                return render.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export bundle was interrupted");
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to render export bundle entry", e.getCause());
+            }
+        }
+
+        private void discard() {
+            closed = true;
+            for (Future<Path> render : renders) {
+                // Entries that finished but were never copied still own a spool file
+                if (!render.cancel(true) && !render.isCancelled()) {
+                    try {
+                        deleteQuietly(render.get());
+                    } catch (InterruptedException | ExecutionException ignored) {
+                        // Failed entries already removed their own file
+                    }
+                }
+            }
+        }
+    }
+}
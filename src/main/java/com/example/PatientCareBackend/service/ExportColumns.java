@@ -0,0 +1,197 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.response.*;
+import com.example.PatientCareBackend.exception.ValidationException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Declarative column specs for every export type; headers and values can no longer drift apart
+public final class ExportColumns {
+
+    private static final Map<Class<?>, Table<?>> TABLES = Map.of(
+            PatientResponse.class, new Table<PatientResponse>("Patients", List.of(
+                    column("id", "ID", PatientResponse::getId),
+                    column("patientId", "Patient ID", PatientResponse::getPatientId),
+                    column("firstName", "First Name", PatientResponse::getFirstName),
+                    column("lastName", "Last Name", PatientResponse::getLastName),
+                    column("dateOfBirth", "Date of Birth", PatientResponse::getDateOfBirth),
+                    column("gender", "Gender", PatientResponse::getGender),
+                    column("phone", "Phone", PatientResponse::getPhone),
+                    column("email", "Email", PatientResponse::getEmail),
+                    column("address", "Address", PatientResponse::getAddress),
+                    column("emergencyContactName", "Emergency Contact", PatientResponse::getEmergencyContactName),
+                    column("emergencyContactPhone", "Emergency Phone", PatientResponse::getEmergencyContactPhone),
+                    column("medicalHistory", "Medical History", PatientResponse::getMedicalHistory),
+                    column("allergies", "Allergies", PatientResponse::getAllergies),
+                    column("currentMedications", "Current Medications", PatientResponse::getCurrentMedications),
+                    column("consentAccepted", "Consent Accepted", PatientResponse::getConsentAccepted),
+                    column("consentFormPath", "Consent Form Path", PatientResponse::getConsentFormPath),
+                    column("researchConsent", "Research Consent", PatientResponse::getResearchConsent),
+                    column("sampleStorageConsent", "Sample Storage Consent", PatientResponse::getSampleStorageConsent),
+                    column("createdAt", "Created At", PatientResponse::getCreatedAt)
+            )),
+            SurgeryResponse.class, new Table<SurgeryResponse>("Surgeries", List.of(
+                    column("id", "ID", SurgeryResponse::getId),
+                    column("patientName", "Patient Name", surgery -> patientName(surgery.getPatient())),
+                    column("procedureName", "Procedure Name", SurgeryResponse::getProcedureName),
+                    column("urgency", "Urgency", SurgeryResponse::getUrgency),
+                    column("recommendedBy", "Recommended By", SurgeryResponse::getRecommendedBy),
+                    column("diagnosis", "Diagnosis", SurgeryResponse::getDiagnosis),
+                    column("status", "Status", SurgeryResponse::getStatus),
+                    column("consentDate", "Consent Date", SurgeryResponse::getConsentDate),
+                    column("scheduledDate", "Scheduled Date", SurgeryResponse::getScheduledDate),
+                    column("actualDate", "Actual Date", SurgeryResponse::getActualDate),
+                    column("completedDate", "Completed Date", SurgeryResponse::getCompletedDate),
+                    column("surgeonName", "Surgeon Name", SurgeryResponse::getSurgeonName),
+                    column("durationMinutes", "Duration Minutes", SurgeryResponse::getDurationMinutes),
+                    column("createdAt", "Created At", SurgeryResponse::getCreatedAt)
+            )),
+            AppointmentResponse.class, new Table<AppointmentResponse>("Appointments", List.of(
+                    column("id", "ID", AppointmentResponse::getId),
+                    column("patientName", "Patient Name", appointment -> patientName(appointment.getPatient())),
+                    column("doctorName", "Doctor Name", appointment -> userName(appointment.getDoctor())),
+                    column("appointmentDate", "Appointment Date", AppointmentResponse::getAppointmentDate),
+                    column("appointmentTime", "Appointment Time", AppointmentResponse::getAppointmentTime),
+                    column("type", "Type", AppointmentResponse::getType),
+                    column("status", "Status", AppointmentResponse::getStatus),
+                    column("reason", "Reason", AppointmentResponse::getReason),
+                    column("priority", "Priority", AppointmentResponse::getPriority),
+                    column("arrivalStatus", "Arrival Status", AppointmentResponse::getArrivalStatus),
+                    column("createdAt", "Created At", AppointmentResponse::getCreatedAt)
+            )),
+            LabTestResponse.class, new Table<LabTestResponse>("Lab Tests", List.of(
+                    column("id", "ID", LabTestResponse::getId),
+                    column("patientName", "Patient Name", labTest -> patientName(labTest.getPatient())),
+                    column("testType", "Test Type", LabTestResponse::getTestType),
+                    column("testName", "Test Name", LabTestResponse::getTestName),
+                    column("orderedBy", "Ordered By", LabTestResponse::getOrderedBy),
+                    column("orderedDate", "Ordered Date", LabTestResponse::getOrderedDate),
+                    column("status", "Status", LabTestResponse::getStatus),
+                    column("priority", "Priority", LabTestResponse::getPriority),
+                    column("results", "Results", LabTestResponse::getResults),
+                    column("clinicalNotes", "Clinical Notes", LabTestResponse::getClinicalNotes),
+                    column("reportDate", "Report Date", LabTestResponse::getReportDate),
+                    column("completedDate", "Completed Date", LabTestResponse::getCompletedDate)
+            )),
+            PharmacyResponse.class, new Table<PharmacyResponse>("Prescriptions", List.of(
+                    column("id", "ID", PharmacyResponse::getId),
+                    column("patientName", "Patient Name", pharmacy -> patientName(pharmacy.getPatient())),
+                    column("doctorName", "Doctor Name", pharmacy -> userName(pharmacy.getDoctor())),
+                    column("medicationName", "Medication Name", PharmacyResponse::getMedicationName),
+                    column("dosage", "Dosage", PharmacyResponse::getDosage),
+                    column("frequency", "Frequency", PharmacyResponse::getFrequency),
+                    column("duration", "Duration", PharmacyResponse::getDuration),
+                    column("instructions", "Instructions", PharmacyResponse::getInstructions),
+                    column("status", "Status", PharmacyResponse::getStatus),
+                    column("dispensedAt", "Dispensed At", PharmacyResponse::getDispensedAt),
+                    column("collectedAt", "Collected At", PharmacyResponse::getCollectedAt),
+                    column("createdAt", "Created At", PharmacyResponse::getCreatedAt)
+            ))
+    );
+
+    private ExportColumns() {
+    }
+
+    // No keys selects every column in declaration order; otherwise the requested order is kept
+    @SuppressWarnings("unchecked")
+    public static <T> ColumnSet<T> select(Class<T> type, List<String> keys) {
+        Table<T> table = (Table<T>) TABLES.get(type);
+        if (table == null) {
+            throw new IllegalArgumentException("No export columns registered for " + type.getSimpleName());
+        }
+        if (keys == null || keys.isEmpty()) {
+            return new ColumnSet<>(table.title(), table.columns(), false);
+        }
+
+        Map<String, Column<T>> byKey = new LinkedHashMap<>();
+        table.columns().forEach(column -> byKey.put(column.key(), column));
+
+        Map<String, Column<T>> selected = new LinkedHashMap<>();
+        for (String key : keys) {
+            Column<T> column = byKey.get(key.trim());
+            if (column == null) {
+                throw new ValidationException("Unknown export column '" + key.trim() + "'. Available columns: "
+                        + String.join(", ", byKey.keySet()));
+            }
+            selected.putIfAbsent(column.key(), column);
+        }
+        return new ColumnSet<>(table.title(), List.copyOf(selected.values()), true);
+    }
+
+    private static <T> Column<T> column(String key, String header, Function<T, Object> extractor) {
+        return new Column<>(key, header, extractor);
+    }
+
+    private static String patientName(PatientRef patient) {
+        return patient != null ? patient.getFirstName() + " " + patient.getLastName() : "";
+    }
+
+    private static String userName(UserResponse user) {
+        return user != null ? user.getFirstName() + " " + user.getLastName() : "";
+    }
+
+    public record Column<T>(String key, String header, Function<T, Object> extractor) {
+    }
+
+    private record Table<T>(String title, List<Column<T>> columns) {
+    }
+
+    // Headers and extractors flattened into arrays once per export, so each row is a plain indexed loop
+    public static final class ColumnSet<T> {
+        private final String title;
+        private final String[] keys;
+        private final String[] headers;
+        private final Function<T, Object>[] extractors;
+        private final boolean subset;
+
+        @SuppressWarnings("unchecked")
+        private ColumnSet(String title, List<Column<T>> columns, boolean subset) {
+            this.title = title;
+            this.keys = columns.stream().map(Column::key).toArray(String[]::new);
+            this.headers = columns.stream().map(Column::header).toArray(String[]::new);
+            this.extractors = columns.stream().map(Column::extractor).toArray(Function[]::new);
+            this.subset = subset;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String[] getHeaders() {
+            return headers.clone();
+        }
+
+        public boolean isSubset() {
+            return subset;
+        }
+
+        public boolean includesAny(Set<String> columnKeys) {
+            for (String key : keys) {
+                if (columnKeys.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Object[] extract(T row) {
+            Object[] values = new Object[extractors.length];
+            for (int i = 0; i < extractors.length; i++) {
+                values[i] = extractors[i].apply(row);
+            }
+            return values;
+        }
+
+        public Map<String, Object> extractAsMap(T row) {
+            Map<String, Object> values = new LinkedHashMap<>(keys.length * 2);
+            for (int i = 0; i < extractors.length; i++) {
+                values.put(keys[i], extractors[i].apply(row));
+            }
+            return values;
+        }
+    }
+}
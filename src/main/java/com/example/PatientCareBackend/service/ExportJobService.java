@@ -0,0 +1,280 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.request.ExportJobRequest;
+import com.example.PatientCareBackend.dto.response.ExportJobResponse;
+import com.example.PatientCareBackend.exception.BusinessException;
+import com.example.PatientCareBackend.exception.ResourceNotFoundException;
+import com.example.PatientCareBackend.exception.TooManyRequestsException;
+import com.example.PatientCareBackend.exception.ValidationException;
+import com.example.PatientCareBackend.service.ExportService.ExportType;
+import com.example.PatientCareBackend.util.ContentEncoding;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportJobService {
+
+    private final ExportService exportService;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${export.jobs.spool-dir:${java.io.tmpdir}/patientcare-exports}")
+    private String spoolDirectory;
+
+    @Value("${export.jobs.pool-size:2}")
+    private int poolSize;
+
+    @Value("${export.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${export.jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${export.jobs.precompress:true}")
+    private boolean precompress;
+
+    private Path spoolDir;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolDir = Paths.get(spoolDirectory);
+        Files.createDirectories(spoolDir);
+
+        // Jobs live in memory only, so anything left in the spool directory belongs to a previous run
+        try (Stream<Path> leftovers = Files.list(spoolDir)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ExportJobResponse createJob(ExportJobRequest request) {
+        ExportType type = ExportType.fromName(request.getEntity());
+        String format = request.getFormat() != null ? request.getFormat().toLowerCase() : "csv";
+        if (!ExportService.SUPPORTED_FORMATS.contains(format)) {
+            throw new ValidationException("Unsupported export format: " + request.getFormat());
+        }
+        exportService.validateColumns(type, request.getColumns());
+        if (request.getStartDate() != null && request.getEndDate() != null
+                && !request.getStartDate().isBefore(request.getEndDate())) {
+            throw new ValidationException("startDate must be before endDate");
+        }
+
+        ExportJob job = new ExportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setType(type);
+        job.setFormat(format);
+        job.setColumns(request.getColumns());
+        job.setStartDate(request.getStartDate());
+        job.setEndDate(request.getEndDate());
+        job.setStatus(JobStatus.QUEUED);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setExpiresAt(job.getCreatedAt().plusMinutes(ttlMinutes));
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> runJob(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new TooManyRequestsException("Export queue is full, please retry later");
+        }
+
+        return mapToResponse(job);
+    }
+
+    public ExportJobResponse getJob(String jobId) {
+        return mapToResponse(findJob(jobId));
+    }
+
+    public ExportJob getCompletedJob(String jobId) {
+        ExportJob job = findJob(jobId);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new BusinessException("Export job " + jobId + " is not ready for download (status: " + job.getStatus() + ")");
+        }
+        return job;
+    }
+
+    public void deleteJob(String jobId) {
+        ExportJob job = jobs.remove(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export job not found with id: " + jobId);
+        }
+        job.setStatus(JobStatus.EXPIRED);
+        deleteFiles(job);
+    }
+
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            // Running jobs are left alone; they are re-checked once the worker finishes
+            if (job.getStatus() == JobStatus.RUNNING || job.getExpiresAt().isAfter(now)) {
+                return false;
+            }
+            job.setStatus(JobStatus.EXPIRED);
+            deleteFiles(job);
+            log.info("Expired export job {}", job.getId());
+            return true;
+        });
+    }
+
+    private void runJob(ExportJob job) {
+        if (job.getStatus() != JobStatus.QUEUED) {
+            return;
+        }
+        job.setStatus(JobStatus.RUNNING);
+
+        Path partFile = spoolDir.resolve(job.getId() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                exportService.export(job.getType(), job.getFormat(), job.getColumns(), job.getStartDate(), job.getEndDate(), out);
+            }
+
+            Path file = spoolDir.resolve(job.getId() + "." + job.getFormat());
+            Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setFile(file);
+            job.setSizeBytes(Files.size(file));
+            if (precompress && ExportService.isCompressible(job.getFormat())) {
+                job.setCompressedFile(compress(file));
+            }
+            job.setCompletedAt(LocalDateTime.now());
+            job.setExpiresAt(job.getCompletedAt().plusMinutes(ttlMinutes));
+            job.setStatus(JobStatus.COMPLETED);
+            log.info("Export job {} completed: {} bytes", job.getId(), job.getSizeBytes());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.getId(), e);
+            deleteQuietly(partFile);
+            job.setErrorMessage(e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(JobStatus.FAILED);
+        }
+
+        // The job may have been deleted while it was running
+        if (!jobs.containsKey(job.getId())) {
+            deleteFiles(job);
+        }
+    }
+
+    // Compressed once here so repeat downloads serve the gzip bytes without re-encoding
+    private Path compress(Path file) throws IOException {
+        Path compressedFile = file.resolveSibling(file.getFileName() + ContentEncoding.GZIP.getFileSuffix());
+        try (OutputStream out = Files.newOutputStream(compressedFile);
+             OutputStream encoded = ContentEncoding.GZIP.wrap(out)) {
+            Files.copy(file, encoded);
+        } catch (IOException e) {
+            deleteQuietly(compressedFile);
+            throw e;
+        }
+        return compressedFile;
+    }
+
+    private ExportJob findJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private void deleteFiles(ExportJob job) {
+        if (job.getFile() != null) {
+            deleteQuietly(job.getFile());
+        }
+        if (job.getCompressedFile() != null) {
+            deleteQuietly(job.getCompressedFile());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}", path, e);
+        }
+    }
+
+    private ExportJobResponse mapToResponse(ExportJob job) {
+        return new ExportJobResponse(
+                job.getId(),
+                job.getType().getFileName(),
+                job.getFormat(),
+                job.getStatus(),
+                job.getStartDate(),
+                job.getEndDate(),
+                job.getSizeBytes(),
+                job.getErrorMessage(),
+                job.getStatus() == JobStatus.COMPLETED ? "/api/export/jobs/" + job.getId() + "/download" : null,
+                job.getCreatedAt(),
+                job.getCompletedAt(),
+                job.getExpiresAt()
+        );
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED, EXPIRED
+    }
+
+    @Data
+    public static class ExportJob {
+        private String id;
+        private ExportType type;
+        private String format;
+        private List<String> columns;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        private volatile JobStatus status;
+        private volatile Path file;
+        private volatile Path compressedFile;
+        private volatile Long sizeBytes;
+        private volatile String errorMessage;
+        private LocalDateTime createdAt;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+
+        public String getFilename() {
+            return type.getFileName() + "." + format;
+        }
+    }
+}
@@ -1,291 +1,445 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.response.*;
+import com.example.PatientCareBackend.exception.ValidationException;
+import com.example.PatientCareBackend.model.Appointment;
+import com.example.PatientCareBackend.model.LabTest;
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.model.Pharmacy;
+import com.example.PatientCareBackend.model.Surgery;
 import com.example.PatientCareBackend.repository.*;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.opencsv.CSVWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ExportService {
 
+    // Rows written between flushes; the persistence context is cleared at the same point so heap stays flat
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    // Rows SXSSF keeps in memory per sheet before flushing older ones to disk
+    private static final int XLSX_ROW_WINDOW = 100;
+
+    public static final Set<String> SUPPORTED_FORMATS = Set.of("csv", "json", "xlsx");
+
+    // XLSX is already a ZIP container, so only the text formats are worth compressing
+    private static final Set<String> COMPRESSIBLE_FORMATS = Set.of("csv", "json");
+
+    // Patient columns backed by @Lob fields; exports that select none of them skip reading those fields
+    private static final Set<String> PATIENT_LOB_COLUMNS = Set.of("address", "medicalHistory", "allergies", "currentMedications");
+
+    // Open ends of a date window; kept within what every supported database can store
+    private static final LocalDateTime RANGE_MIN = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_MAX = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final PatientRepository patientRepository;
     private final SurgeryRepository surgeryRepository;
     private final AppointmentRepository appointmentRepository;
     private final LabTestRepository labTestRepository;
     private final PharmacyRepository pharmacyRepository;
     private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PatientRefResolver patientRefResolver;
 
-    @Transactional(readOnly = true)
-    public ByteArrayInputStream exportPatients(String format) {
-        List<PatientResponse> patients = getPatientsForExport(null, null);
+    // updated_at is stamped before commit, so a transaction still in flight can commit a row older than max(updated_at)
+    @Value("${export.incremental.commit-lag-seconds:30}")
+    private long commitLagSeconds;
 
-        if ("csv".equalsIgnoreCase(format)) {
-            return exportToCSV(patients, PatientResponse.class);
-        } else {
-            return exportToJSON(patients);
-        }
+    public static boolean isCompressible(String format) {
+        return format != null && COMPRESSIBLE_FORMATS.contains(format.toLowerCase());
     }
 
     @Transactional(readOnly = true)
-    public ByteArrayInputStream exportSurgeries(String format) {
-        List<SurgeryResponse> surgeries = getSurgeriesForExport(null, null);
-
-        if ("csv".equalsIgnoreCase(format)) {
-            return exportToCSV(surgeries, SurgeryResponse.class);
-        } else {
-            return exportToJSON(surgeries);
+    public void exportPatients(String format, List<String> columns, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        ExportColumns.ColumnSet<PatientResponse> columnSet = ExportColumns.select(PatientResponse.class, columns);
+        try (Stream<PatientResponse> patients = streamPatients(startDate, endDate, columnSet.includesAny(PATIENT_LOB_COLUMNS))) {
+            writeExport(patients, columnSet, format, out);
         }
     }
 
     @Transactional(readOnly = true)
-    public ByteArrayInputStream exportAppointments(String format) {
-        List<AppointmentResponse> appointments = getAppointmentsForExport(null, null);
+    public void exportSurgeries(String format, List<String> columns, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        try (Stream<SurgeryResponse> surgeries = streamSurgeries(startDate, endDate)) {
+            writeExport(surgeries, ExportColumns.select(SurgeryResponse.class, columns), format, out);
+        }
+    }
 
-        if ("csv".equalsIgnoreCase(format)) {
-            return exportToCSV(appointments, AppointmentResponse.class);
-        } else {
-            return exportToJSON(appointments);
+    @Transactional(readOnly = true)
+    public void exportAppointments(String format, List<String> columns, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        try (Stream<AppointmentResponse> appointments = streamAppointments(startDate, endDate)) {
+            writeExport(appointments, ExportColumns.select(AppointmentResponse.class, columns), format, out);
         }
     }
 
     @Transactional(readOnly = true)
-    public ByteArrayInputStream exportLabTests(String format) {
-        List<LabTestResponse> labTests = labTestRepository.findAll().stream()
-                .map(this::mapToLabTestResponse)
-                .collect(Collectors.toList());
+    public void exportLabTests(String format, List<String> columns, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        try (Stream<LabTestResponse> labTests = streamLabTests(startDate, endDate)) {
+            writeExport(labTests, ExportColumns.select(LabTestResponse.class, columns), format, out);
+        }
+    }
 
-        if ("csv".equalsIgnoreCase(format)) {
-            return exportToCSV(labTests, LabTestResponse.class);
-        } else {
-            return exportToJSON(labTests);
+    @Transactional(readOnly = true)
+    public void exportPrescriptions(String format, List<String> columns, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        try (Stream<PharmacyResponse> prescriptions = streamPrescriptions(startDate, endDate)) {
+            writeExport(prescriptions, ExportColumns.select(PharmacyResponse.class, columns), format, out);
         }
     }
 
+    // One XLSX workbook with a sheet per entity, all read in the same transaction
     @Transactional(readOnly = true)
-    public ByteArrayInputStream exportPrescriptions(String format) {
-        List<PharmacyResponse> prescriptions = pharmacyRepository.findAll().stream()
-                .map(this::mapToPharmacyResponse)
-                .collect(Collectors.toList());
+    public void exportWorkbook(List<ExportType> types, LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        writeWorkbook(workbook -> {
+            for (ExportType type : types) {
+                switch (type) {
+                    case PATIENTS -> {
+                        try (Stream<PatientResponse> rows = streamPatients(startDate, endDate, true)) {
+                            writeSheet(workbook, rows, ExportColumns.select(PatientResponse.class, null));
+                        }
+                    }
+                    case SURGERIES -> {
+                        try (Stream<SurgeryResponse> rows = streamSurgeries(startDate, endDate)) {
+                            writeSheet(workbook, rows, ExportColumns.select(SurgeryResponse.class, null));
+                        }
+                    }
+                    case APPOINTMENTS -> {
+                        try (Stream<AppointmentResponse> rows = streamAppointments(startDate, endDate)) {
+                            writeSheet(workbook, rows, ExportColumns.select(AppointmentResponse.class, null));
+                        }
+                    }
+                    case LAB_TESTS -> {
+                        try (Stream<LabTestResponse> rows = streamLabTests(startDate, endDate)) {
+                            writeSheet(workbook, rows, ExportColumns.select(LabTestResponse.class, null));
+                        }
+                    }
+                    case PRESCRIPTIONS -> {
+                        try (Stream<PharmacyResponse> rows = streamPrescriptions(startDate, endDate)) {
+                            writeSheet(workbook, rows, ExportColumns.select(PharmacyResponse.class, null));
+                        }
+                    }
+                }
+            }
+        }, out);
+    }
 
-        if ("csv".equalsIgnoreCase(format)) {
-            return exportToCSV(prescriptions, PharmacyResponse.class);
-        } else {
-            return exportToJSON(prescriptions);
+    // Lets callers reject a bad ?columns= before the response is committed
+    public void validateColumns(ExportType type, List<String> columns) {
+        ExportColumns.select(type.getResponseClass(), columns);
+    }
+
+    // Checked before the response starts, so an unknown format is a 400 rather than JSON under another extension
+    public void validateFormat(String format) {
+        if (format == null || !SUPPORTED_FORMATS.contains(format.toLowerCase())) {
+            throw new ValidationException("Unsupported export format: " + format);
         }
     }
 
     @Transactional(readOnly = true)
-    public List<PatientResponse> getPatientsForExport(LocalDateTime startDate, LocalDateTime endDate) {
-        return patientRepository.findAll().stream()
-                .map(this::mapToPatientResponse)
-                .collect(Collectors.toList());
+    public void export(ExportType type, String format, List<String> columns,
+                       LocalDateTime startDate, LocalDateTime endDate, OutputStream out) {
+        switch (type) {
+            case PATIENTS -> exportPatients(format, columns, startDate, endDate, out);
+            case SURGERIES -> exportSurgeries(format, columns, startDate, endDate, out);
+            case APPOINTMENTS -> exportAppointments(format, columns, startDate, endDate, out);
+            case LAB_TESTS -> exportLabTests(format, columns, startDate, endDate, out);
+            case PRESCRIPTIONS -> exportPrescriptions(format, columns, startDate, endDate, out);
+        }
     }
 
+    // The next watermark is fixed before streaming so it can be returned up front; rows changed later go to the next pull.
+    // It stays commitLagSeconds behind the clock, so rows committed late with an earlier updated_at are still ahead of it.
     @Transactional(readOnly = true)
-    public List<SurgeryResponse> getSurgeriesForExport(LocalDateTime startDate, LocalDateTime endDate) {
-        List<SurgeryResponse> surgeries;
-
-        if (startDate != null && endDate != null) {
-            surgeries = surgeryRepository.findSurgeriesBetweenDates(startDate, endDate).stream()
-                    .map(this::mapToSurgeryResponse)
-                    .collect(Collectors.toList());
-        } else {
-            surgeries = surgeryRepository.findAll().stream()
-                    .map(this::mapToSurgeryResponse)
-                    .collect(Collectors.toList());
+    public Watermark getNextWatermark(ExportType type, Watermark since) {
+        Optional<LocalDateTime> maxUpdatedAt = switch (type) {
+            case PATIENTS -> patientRepository.findMaxUpdatedAt();
+            case SURGERIES -> surgeryRepository.findMaxUpdatedAt();
+            case APPOINTMENTS -> appointmentRepository.findMaxUpdatedAt();
+            case LAB_TESTS -> labTestRepository.findMaxUpdatedAt();
+            case PRESCRIPTIONS -> pharmacyRepository.findMaxUpdatedAt();
+        };
+        if (maxUpdatedAt.isEmpty()) {
+            return since;
         }
 
-        return surgeries;
+        LocalDateTime updatedAt = maxUpdatedAt.get();
+        Optional<Long> maxId = switch (type) {
+            case PATIENTS -> patientRepository.findMaxIdByUpdatedAt(updatedAt);
+            case SURGERIES -> surgeryRepository.findMaxIdByUpdatedAt(updatedAt);
+            case APPOINTMENTS -> appointmentRepository.findMaxIdByUpdatedAt(updatedAt);
+            case LAB_TESTS -> labTestRepository.findMaxIdByUpdatedAt(updatedAt);
+            case PRESCRIPTIONS -> pharmacyRepository.findMaxIdByUpdatedAt(updatedAt);
+        };
+        Watermark next = new Watermark(updatedAt, maxId.orElse(0L))
+                .capAt(LocalDateTime.now().minusSeconds(commitLagSeconds));
+        return next.compareTo(since) > 0 ? next : since;
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAppointmentsForExport(LocalDateTime startDate, LocalDateTime endDate) {
-        List<AppointmentResponse> appointments;
-
-        if (startDate != null && endDate != null) {
-            appointments = appointmentRepository.findAppointmentsBetweenDates(
-                            startDate.toLocalDate(), endDate.toLocalDate()).stream()
-                    .map(this::mapToAppointmentResponse)
-                    .collect(Collectors.toList());
-        } else {
-            appointments = appointmentRepository.findAll().stream()
-                    .map(this::mapToAppointmentResponse)
-                    .collect(Collectors.toList());
+    public void exportChanges(ExportType type, String format, List<String> columns,
+                              Watermark since, Watermark until, OutputStream out) {
+        LocalDateTime fromUpdatedAt = since.updatedAt();
+        Long fromId = since.id();
+        LocalDateTime toUpdatedAt = until.updatedAt();
+        Long toId = until.id();
+
+        switch (type) {
+            case PATIENTS -> {
+                ExportColumns.ColumnSet<PatientResponse> columnSet = ExportColumns.select(PatientResponse.class, columns);
+                try (Stream<PatientResponse> rows = columnSet.includesAny(PATIENT_LOB_COLUMNS)
+                        ? patientRepository.streamChangedBetween(fromUpdatedAt, fromId, toUpdatedAt, toId).map(this::mapToPatientResponse)
+                        : patientRepository.streamChangedBetweenWithoutLobs(fromUpdatedAt, fromId, toUpdatedAt, toId)) {
+                    writeExport(rows, columnSet, format, out);
+                }
+            }
+            case SURGERIES -> {
+                try (Stream<Surgery> rows = surgeryRepository.streamChangedBetween(fromUpdatedAt, fromId, toUpdatedAt, toId)) {
+                    writeExport(patientRefResolver.mapStream(rows, Surgery::getPatient, this::mapToSurgeryResponse),
+                            ExportColumns.select(SurgeryResponse.class, columns), format, out);
+                }
+            }
+            case APPOINTMENTS -> {
+                try (Stream<Appointment> rows = appointmentRepository.streamChangedBetween(fromUpdatedAt, fromId, toUpdatedAt, toId)) {
+                    writeExport(patientRefResolver.mapStream(rows, Appointment::getPatient, this::mapToAppointmentResponse),
+                            ExportColumns.select(AppointmentResponse.class, columns), format, out);
+                }
+            }
+            case LAB_TESTS -> {
+                try (Stream<LabTest> rows = labTestRepository.streamChangedBetween(fromUpdatedAt, fromId, toUpdatedAt, toId)) {
+                    writeExport(patientRefResolver.mapStream(rows, LabTest::getPatient, this::mapToLabTestResponse),
+                            ExportColumns.select(LabTestResponse.class, columns), format, out);
+                }
+            }
+            case PRESCRIPTIONS -> {
+                try (Stream<Pharmacy> rows = pharmacyRepository.streamChangedBetween(fromUpdatedAt, fromId, toUpdatedAt, toId)) {
+                    writeExport(patientRefResolver.mapStream(rows, Pharmacy::getPatient, this::mapToPharmacyResponse),
+                            ExportColumns.select(PharmacyResponse.class, columns), format, out);
+                }
+            }
         }
+    }
+
+    private Stream<PatientResponse> streamPatients(LocalDateTime startDate, LocalDateTime endDate, boolean withLobs) {
+        if (!withLobs) {
+            return isUnbounded(startDate, endDate)
+                    ? patientRepository.streamAllWithoutLobs()
+                    : patientRepository.streamCreatedBetweenWithoutLobs(lowerBound(startDate), upperBound(endDate));
+        }
+        Stream<Patient> patients = isUnbounded(startDate, endDate)
+                ? patientRepository.streamAll()
+                : patientRepository.streamCreatedBetween(lowerBound(startDate), upperBound(endDate));
+        return patients.map(this::mapToPatientResponse);
+    }
+
+    private Stream<SurgeryResponse> streamSurgeries(LocalDateTime startDate, LocalDateTime endDate) {
+        Stream<Surgery> surgeries = isUnbounded(startDate, endDate)
+                ? surgeryRepository.streamAll()
+                : surgeryRepository.streamScheduledBetween(lowerBound(startDate), upperBound(endDate));
+        return patientRefResolver.mapStream(surgeries, Surgery::getPatient, this::mapToSurgeryResponse);
+    }
+
+    private Stream<AppointmentResponse> streamAppointments(LocalDateTime startDate, LocalDateTime endDate) {
+        Stream<Appointment> appointments = isUnbounded(startDate, endDate)
+                ? appointmentRepository.streamAll()
+                : appointmentRepository.streamAppointmentsBetween(
+                        lowerBound(startDate).toLocalDate(), toExclusiveDate(upperBound(endDate)));
+        return patientRefResolver.mapStream(appointments, Appointment::getPatient, this::mapToAppointmentResponse);
+    }
+
+    private Stream<LabTestResponse> streamLabTests(LocalDateTime startDate, LocalDateTime endDate) {
+        Stream<LabTest> labTests = isUnbounded(startDate, endDate)
+                ? labTestRepository.streamAll()
+                : labTestRepository.streamOrderedBetween(lowerBound(startDate), upperBound(endDate));
+        return patientRefResolver.mapStream(labTests, LabTest::getPatient, this::mapToLabTestResponse);
+    }
 
-        return appointments;
+    private Stream<PharmacyResponse> streamPrescriptions(LocalDateTime startDate, LocalDateTime endDate) {
+        Stream<Pharmacy> prescriptions = isUnbounded(startDate, endDate)
+                ? pharmacyRepository.streamAll()
+                : pharmacyRepository.streamCreatedBetween(lowerBound(startDate), upperBound(endDate));
+        return patientRefResolver.mapStream(prescriptions, Pharmacy::getPatient, this::mapToPharmacyResponse);
     }
 
-    private <T> ByteArrayInputStream exportToCSV(List<T> data, Class<T> clazz) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream();
-             CSVWriter writer = new CSVWriter(new OutputStreamWriter(out))) {
+    private boolean isUnbounded(LocalDateTime startDate, LocalDateTime endDate) {
+        return startDate == null && endDate == null;
+    }
+
+    private LocalDateTime lowerBound(LocalDateTime startDate) {
+        return startDate != null ? startDate : RANGE_MIN;
+    }
+
+    private LocalDateTime upperBound(LocalDateTime endDate) {
+        return endDate != null ? endDate : RANGE_MAX;
+    }
+
+    // Appointments are keyed by day, so a partial end day is still included
+    private LocalDate toExclusiveDate(LocalDateTime endDate) {
+        LocalDate date = endDate.toLocalDate();
+        return endDate.toLocalTime().equals(LocalTime.MIDNIGHT) ? date : date.plusDays(1);
+    }
 
-            if (!data.isEmpty()) {
-                // Write header
-                String[] header = getCSVHeaders(clazz);
-                writer.writeNext(header);
+    private <T> void writeExport(Stream<T> rows, ExportColumns.ColumnSet<T> columns, String format, OutputStream out) {
+        if ("csv".equalsIgnoreCase(format)) {
+            writeCSV(rows, columns, out);
+        } else if ("xlsx".equalsIgnoreCase(format)) {
+            writeWorkbook(workbook -> writeSheet(workbook, rows, columns), out);
+        } else if ("json".equalsIgnoreCase(format)) {
+            writeJSON(rows, columns, out);
+        } else {
+            throw new ValidationException("Unsupported export format: " + format);
+        }
+    }
 
-                // Write data
-                for (T item : data) {
-                    String[] row = convertToCSVRow(item);
-                    writer.writeNext(row);
+    // Rows go straight from the database cursor to the response; nothing is buffered beyond one flush batch
+    private <T> void writeCSV(Stream<T> rows, ExportColumns.ColumnSet<T> columns, OutputStream out) {
+        try {
+            CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.writeNext(columns.getHeaders());
+
+            Iterator<T> iterator = rows.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                writer.writeNext(toCSVRow(columns.extract(iterator.next())));
+                if (++count % FLUSH_BATCH_SIZE == 0) {
+                    writer.flush();
+                    entityManager.clear();
                 }
             }
 
             writer.flush();
-            return new ByteArrayInputStream(out.toByteArray());
         } catch (IOException e) {
             throw new RuntimeException("Failed to export data to CSV", e);
         }
     }
 
-    private <T> ByteArrayInputStream exportToJSON(List<T> data) {
-        try {
-            String json = objectMapper.writeValueAsString(data);
-            return new ByteArrayInputStream(json.getBytes());
+    // Without ?columns= the full response DTO is written, so the JSON shape is unchanged for existing clients
+    private <T> void writeJSON(Stream<T> rows, ExportColumns.ColumnSet<T> columns, OutputStream out) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .writeValuesAsArray(generator);
+
+            Iterator<T> iterator = rows.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.write(columns.isSubset() ? columns.extractAsMap(row) : row);
+                if (++count % FLUSH_BATCH_SIZE == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+
+            writer.close();
         } catch (IOException e) {
             throw new RuntimeException("Failed to export data to JSON", e);
         }
     }
 
-    private String[] getCSVHeaders(Class<?> clazz) {
-        if (clazz == PatientResponse.class) {
-            return new String[]{
-                    "ID", "Patient ID", "First Name", "Last Name", "Date of Birth", "Gender",
-                    "Phone", "Email", "Address", "Emergency Contact", "Emergency Phone",
-                    "Medical History", "Allergies", "Current Medications", "Consent Accepted",
-                    "Consent Form Path", "Research Consent", "Sample Storage Consent", "Created At"
-            };
-        } else if (clazz == SurgeryResponse.class) {
-            return new String[]{
-                    "ID", "Patient Name", "Procedure Name", "Urgency", "Recommended By",
-                    "Diagnosis", "Status", "Consent Date", "Scheduled Date", "Actual Date",
-                    "Completed Date", "Surgeon Name", "Duration Minutes", "Created At"
-            };
-        } else if (clazz == AppointmentResponse.class) {
-            return new String[]{
-                    "ID", "Patient Name", "Doctor Name", "Appointment Date", "Appointment Time",
-                    "Type", "Status", "Reason", "Priority", "Arrival Status", "Created At"
-            };
-        } else if (clazz == LabTestResponse.class) {
-            return new String[]{
-                    "ID", "Patient Name", "Test Type", "Test Name", "Ordered By", "Ordered Date",
-                    "Status", "Priority", "Results", "Clinical Notes", "Report Date", "Completed Date"
-            };
-        } else if (clazz == PharmacyResponse.class) {
-            return new String[]{
-                    "ID", "Patient Name", "Doctor Name", "Medication Name", "Dosage", "Frequency",
-                    "Duration", "Instructions", "Status", "Dispensed At", "Collected At", "Created At"
-            };
+    // SXSSF keeps only the last XLSX_ROW_WINDOW rows in memory and spills the rest to compressed temp files
+    private void writeWorkbook(Consumer<SXSSFWorkbook> sheets, OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            sheets.accept(workbook);
+            // The response stream belongs to the caller, so the workbook must not close it
+            workbook.write(CloseShieldOutputStream.wrap(out));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to export data to XLSX", e);
+        } finally {
+            workbook.dispose();
         }
+    }
 
-        return new String[0];
-    }
-
-    private String[] convertToCSVRow(Object item) {
-        if (item instanceof PatientResponse) {
-            PatientResponse patient = (PatientResponse) item;
-            return new String[]{
-                    patient.getId().toString(),
-                    patient.getPatientId(),
-                    patient.getFirstName(),
-                    patient.getLastName(),
-                    patient.getDateOfBirth() != null ? patient.getDateOfBirth().toString() : "",
-                    patient.getGender() != null ? patient.getGender().toString() : "",
-                    patient.getPhone(),
-                    patient.getEmail(),
-                    patient.getAddress(),
-                    patient.getEmergencyContactName(),
-                    patient.getEmergencyContactPhone(),
-                    patient.getMedicalHistory(),
-                    patient.getAllergies(),
-                    patient.getCurrentMedications(),
-                    patient.getConsentAccepted() != null ? patient.getConsentAccepted().toString() : "",
-                    patient.getConsentFormPath(),
-                    patient.getResearchConsent() != null ? patient.getResearchConsent().toString() : "",
-                    patient.getSampleStorageConsent() != null ? patient.getSampleStorageConsent().toString() : "",
-                    patient.getCreatedAt() != null ? patient.getCreatedAt().toString() : ""
-            };
-        } else if (item instanceof SurgeryResponse) {
-            SurgeryResponse surgery = (SurgeryResponse) item;
-            return new String[]{
-                    surgery.getId().toString(),
-                    surgery.getPatient() != null ? surgery.getPatient().getFirstName() + " " + surgery.getPatient().getLastName() : "",
-                    surgery.getProcedureName(),
-                    surgery.getUrgency() != null ? surgery.getUrgency().toString() : "",
-                    surgery.getRecommendedBy(),
-                    surgery.getDiagnosis(),
-                    surgery.getStatus() != null ? surgery.getStatus().toString() : "",
-                    surgery.getConsentDate() != null ? surgery.getConsentDate().toString() : "",
-                    surgery.getScheduledDate() != null ? surgery.getScheduledDate().toString() : "",
-                    surgery.getActualDate() != null ? surgery.getActualDate().toString() : "",
-                    surgery.getCompletedDate() != null ? surgery.getCompletedDate().toString() : "",
-                    surgery.getSurgeonName(),
-                    surgery.getDurationMinutes() != null ? surgery.getDurationMinutes().toString() : "",
-                    surgery.getCreatedAt() != null ? surgery.getCreatedAt().toString() : ""
-            };
-        } else if (item instanceof AppointmentResponse) {
-            AppointmentResponse appointment = (AppointmentResponse) item;
-            return new String[]{
-                    appointment.getId().toString(),
-                    appointment.getPatient() != null ? appointment.getPatient().getFirstName() + " " + appointment.getPatient().getLastName() : "",
-                    appointment.getDoctor() != null ? appointment.getDoctor().getFirstName() + " " + appointment.getDoctor().getLastName() : "",
-                    appointment.getAppointmentDate() != null ? appointment.getAppointmentDate().toString() : "",
-                    appointment.getAppointmentTime() != null ? appointment.getAppointmentTime().toString() : "",
-                    appointment.getType() != null ? appointment.getType().toString() : "",
-                    appointment.getStatus() != null ? appointment.getStatus().toString() : "",
-                    appointment.getReason(),
-                    appointment.getPriority() != null ? appointment.getPriority().toString() : "",
-                    appointment.getArrivalStatus() != null ? appointment.getArrivalStatus().toString() : "",
-                    appointment.getCreatedAt() != null ? appointment.getCreatedAt().toString() : ""
-            };
-        } else if (item instanceof LabTestResponse) {
-            LabTestResponse labTest = (LabTestResponse) item;
-            return new String[]{
-                    labTest.getId().toString(),
-                    labTest.getPatient() != null ? labTest.getPatient().getFirstName() + " " + labTest.getPatient().getLastName() : "",
-                    labTest.getTestType() != null ? labTest.getTestType().toString() : "",
-                    labTest.getTestName(),
-                    labTest.getOrderedBy(),
-                    labTest.getOrderedDate() != null ? labTest.getOrderedDate().toString() : "",
-                    labTest.getStatus() != null ? labTest.getStatus().toString() : "",
-                    labTest.getPriority() != null ? labTest.getPriority().toString() : "",
-                    labTest.getResults(),
-                    labTest.getClinicalNotes(),
-                    labTest.getReportDate() != null ? labTest.getReportDate().toString() : "",
-                    labTest.getCompletedDate() != null ? labTest.getCompletedDate().toString() : ""
-            };
-        } else if (item instanceof PharmacyResponse) {
-            PharmacyResponse pharmacy = (PharmacyResponse) item;
-            return new String[]{
-                    pharmacy.getId().toString(),
-                    pharmacy.getPatient() != null ? pharmacy.getPatient().getFirstName() + " " + pharmacy.getPatient().getLastName() : "",
-                    pharmacy.getDoctor() != null ? pharmacy.getDoctor().getFirstName() + " " + pharmacy.getDoctor().getLastName() : "",
-                    pharmacy.getMedicationName(),
-                    pharmacy.getDosage(),
-                    pharmacy.getFrequency(),
-                    pharmacy.getDuration(),
-                    pharmacy.getInstructions(),
-                    pharmacy.getStatus() != null ? pharmacy.getStatus().toString() : "",
-                    pharmacy.getDispensedAt() != null ? pharmacy.getDispensedAt().toString() : "",
-                    pharmacy.getCollectedAt() != null ? pharmacy.getCollectedAt().toString() : "",
-                    pharmacy.getCreatedAt() != null ? pharmacy.getCreatedAt().toString() : ""
-            };
+    private <T> void writeSheet(SXSSFWorkbook workbook, Stream<T> rows, ExportColumns.ColumnSet<T> columns) {
+        SXSSFSheet sheet = workbook.createSheet(columns.getTitle());
+        sheet.createFreezePane(0, 1);
+
+        CreationHelper creationHelper = workbook.getCreationHelper();
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(creationHelper.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        CellStyle timeStyle = workbook.createCellStyle();
+        timeStyle.setDataFormat(creationHelper.createDataFormat().getFormat("hh:mm"));
+
+        String[] headers = columns.getHeaders();
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            headerRow.createCell(i).setCellValue(headers[i]);
         }
 
-        return new String[0];
+        Iterator<T> iterator = rows.iterator();
+        int rowIndex = 1;
+        while (iterator.hasNext()) {
+            Object[] values = columns.extract(iterator.next());
+            Row row = sheet.createRow(rowIndex);
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+
+                Cell cell = row.createCell(i);
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else if (value instanceof Boolean bool) {
+                    cell.setCellValue(bool);
+                } else if (value instanceof LocalDateTime dateTime) {
+                    cell.setCellValue(dateTime);
+                    cell.setCellStyle(dateTimeStyle);
+                } else if (value instanceof LocalDate date) {
+                    cell.setCellValue(date);
+                    cell.setCellStyle(dateStyle);
+                } else if (value instanceof LocalTime time) {
+                    // Excel stores a time of day as a fraction of 24 hours
+                    cell.setCellValue(time.toSecondOfDay() / 86400.0);
+                    cell.setCellStyle(timeStyle);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            }
+            if (rowIndex++ % FLUSH_BATCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private String[] toCSVRow(Object[] values) {
+        String[] row = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            row[i] = values[i] != null ? values[i].toString() : "";
+        }
+        return row;
     }
 
     // Mapping methods for different entity types
@@ -314,10 +468,10 @@ public class ExportService {
         );
     }
 
-    private SurgeryResponse mapToSurgeryResponse(com.example.PatientCareBackend.model.Surgery surgery) {
+    private SurgeryResponse mapToSurgeryResponse(com.example.PatientCareBackend.model.Surgery surgery, PatientRef patient) {
         return new SurgeryResponse(
                 surgery.getId(),
-                mapToPatientResponse(surgery.getPatient()),
+                patient,
                 surgery.getProcedureName(),
                 surgery.getUrgency(),
                 surgery.getRecommendedBy(),
@@ -333,10 +487,10 @@ public class ExportService {
         );
     }
 
-    private AppointmentResponse mapToAppointmentResponse(com.example.PatientCareBackend.model.Appointment appointment) {
+    private AppointmentResponse mapToAppointmentResponse(com.example.PatientCareBackend.model.Appointment appointment, PatientRef patient) {
         AppointmentResponse response = new AppointmentResponse();
         response.setId(appointment.getId());
-        response.setPatient(mapToPatientResponse(appointment.getPatient()));
+        response.setPatient(patient);
         response.setDoctor(mapToUserResponse(appointment.getDoctor()));
         response.setAppointmentDate(appointment.getAppointmentDate());
         response.setAppointmentTime(appointment.getAppointmentTime());
@@ -350,10 +504,10 @@ public class ExportService {
         return response;
     }
 
-    private LabTestResponse mapToLabTestResponse(com.example.PatientCareBackend.model.LabTest labTest) {
+    private LabTestResponse mapToLabTestResponse(com.example.PatientCareBackend.model.LabTest labTest, PatientRef patient) {
         return new LabTestResponse(
                 labTest.getId(),
-                mapToPatientResponse(labTest.getPatient()),
+                patient,
                 labTest.getTestType(),
                 labTest.getTestName(),
                 labTest.getOrderedBy(),
@@ -369,10 +523,10 @@ public class ExportService {
         );
     }
 
-    private PharmacyResponse mapToPharmacyResponse(com.example.PatientCareBackend.model.Pharmacy pharmacy) {
+    private PharmacyResponse mapToPharmacyResponse(com.example.PatientCareBackend.model.Pharmacy pharmacy, PatientRef patient) {
         return new PharmacyResponse(
                 pharmacy.getId(),
-                mapToPatientResponse(pharmacy.getPatient()),
+                patient,
                 mapToUserResponse(pharmacy.getDoctor()),
                 pharmacy.getMedicationName(),
                 pharmacy.getDosage(),
@@ -400,4 +554,73 @@ public class ExportService {
                 user.getUpdatedAt()
         );
     }
-}
\ No newline at end of file
+
+    public enum ExportType {
+        PATIENTS("patients", PatientResponse.class),
+        SURGERIES("surgeries", SurgeryResponse.class),
+        APPOINTMENTS("appointments", AppointmentResponse.class),
+        LAB_TESTS("lab_tests", LabTestResponse.class),
+        PRESCRIPTIONS("prescriptions", PharmacyResponse.class);
+
+        private final String fileName;
+        private final Class<?> responseClass;
+
+        ExportType(String fileName, Class<?> responseClass) {
+            this.fileName = fileName;
+            this.responseClass = responseClass;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public Class<?> getResponseClass() {
+            return responseClass;
+        }
+
+        // Accepts both the enum name and the URL form used by the export endpoints, e.g. "lab-tests"
+        public static ExportType fromName(String name) {
+            for (ExportType type : values()) {
+                if (type.name().equalsIgnoreCase(name) || type.fileName.equalsIgnoreCase(name.replace('-', '_'))) {
+                    return type;
+                }
+            }
+            throw new ValidationException("Unknown export type: " + name);
+        }
+    }
+
+    // Position in the (updatedAt, id) change order, passed around as "<iso-timestamp>_<id>"
+    public record Watermark(LocalDateTime updatedAt, long id) implements Comparable<Watermark> {
+
+        public static final Watermark ORIGIN = new Watermark(RANGE_MIN, 0L);
+
+        public static Watermark parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ORIGIN;
+            }
+            int separator = value.lastIndexOf('_');
+            try {
+                return new Watermark(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid watermark: " + value);
+            }
+        }
+
+        // Everything up to and including limit, whatever the id
+        public Watermark capAt(LocalDateTime limit) {
+            return updatedAt.isAfter(limit) ? new Watermark(limit, Long.MAX_VALUE) : this;
+        }
+
+        @Override
+        public int compareTo(Watermark other) {
+            int byTime = updatedAt.compareTo(other.updatedAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+
+        @Override
+        public String toString() {
+            return updatedAt + "_" + id;
+        }
+    }
+}
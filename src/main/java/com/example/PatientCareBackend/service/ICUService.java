@@ -2,19 +2,20 @@ package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.ICURequest;
 import com.example.PatientCareBackend.dto.response.ICUResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.ICU;
 import com.example.PatientCareBackend.model.Patient;
 import com.example.PatientCareBackend.repository.ICURepository;
 import com.example.PatientCareBackend.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +23,9 @@ public class ICUService {
 
     private final ICURepository icuRepository;
     private final PatientRepository patientRepository;
+    private final PatientRefResolver patientRefResolver;
+    private final EarlyWarningScorer earlyWarningScorer;
+    private final DeteriorationMonitor deteriorationMonitor;
 
     @Transactional
     public ICUResponse addICURecord(ICURequest icuRequest) {
@@ -71,7 +75,8 @@ public class ICUService {
         icuRecord.setRecordedBy(icuRequest.getRecordedBy());
 
         ICU savedRecord = icuRepository.save(icuRecord);
-        return mapToResponse(savedRecord);
+        deteriorationMonitor.recordAfterCommit(savedRecord);
+        return mapToResponse(savedRecord, patientRefResolver.resolve(savedRecord.getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -80,9 +85,15 @@ public class ICUService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return icuRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(icuRepository.findByPatientId(patientId),
+                ICU::getPatient, this::mapToResponse);
+    }
+
+    // Newest first, no existence check: callers have already resolved the patient
+    @Transactional(readOnly = true)
+    public List<ICUResponse> getRecentICUData(Long patientId, int limit) {
+        return patientRefResolver.mapAll(icuRepository.findByPatientIdOrderByCreatedAtDesc(patientId, Limit.of(limit)),
+                ICU::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -125,7 +136,7 @@ public class ICUService {
         icuRecord.setRecordedBy(icuRequest.getRecordedBy());
 
         ICU updatedRecord = icuRepository.save(icuRecord);
-        return mapToResponse(updatedRecord);
+        return mapToResponse(updatedRecord, patientRefResolver.resolve(updatedRecord.getPatient()));
     }
 
     @Transactional
@@ -154,7 +165,7 @@ public class ICUService {
         }
 
         ICU updatedRecord = icuRepository.save(icuRecord);
-        return mapToResponse(updatedRecord);
+        return mapToResponse(updatedRecord, patientRefResolver.resolve(updatedRecord.getPatient()));
     }
 
     @Transactional
@@ -163,28 +174,25 @@ public class ICUService {
                 .orElseThrow(() -> new ResourceNotFoundException("ICU record not found with id: " + id));
 
 
-        return mapToResponse(icuRecord);
+        return mapToResponse(icuRecord, patientRefResolver.resolve(icuRecord.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public ICUResponse getLatestRecordByPatient(Long patientId) {
         ICU icuRecord = icuRepository.findLatestByPatientId(patientId)
                 .orElseThrow(() -> new ResourceNotFoundException("No ICU records found for patient id: " + patientId));
-        return mapToResponse(icuRecord);
+        return mapToResponse(icuRecord, patientRefResolver.resolve(icuRecord.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<ICUResponse> getCriticalPatients() {
-        return icuRepository.findCriticalReadings().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(icuRepository.findCriticalReadings(), ICU::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<ICUResponse> getPatientRecordsByTimeRange(Long patientId, LocalDateTime startTime, LocalDateTime endTime) {
-        return icuRepository.findByPatientAndTimeRange(patientId, startTime, endTime).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(icuRepository.findByPatientAndTimeRange(patientId, startTime, endTime),
+                ICU::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -199,6 +207,7 @@ public class ICUService {
         double avgSystolicBP = records.stream().mapToInt(ICU::getBloodPressureSystolic).average().orElse(0);
         double avgDiastolicBP = records.stream().mapToInt(ICU::getBloodPressureDiastolic).average().orElse(0);
         double avgOxygenSaturation = records.stream().mapToInt(ICU::getOxygenSaturation).average().orElse(0);
+        ICU latest = records.get(records.size() - 1);
 
         return Map.of(
                 "totalRecords", records.size(),
@@ -206,14 +215,15 @@ public class ICUService {
                 "averageSystolicBP", Math.round(avgSystolicBP),
                 "averageDiastolicBP", Math.round(avgDiastolicBP),
                 "averageOxygenSaturation", Math.round(avgOxygenSaturation),
-                "latestRecord", mapToResponse(records.get(records.size() - 1))
+                "latestRecord", mapToResponse(latest, patientRefResolver.resolve(latest.getPatient()))
         );
     }
 
-    private ICUResponse mapToResponse(ICU icu) {
+    private ICUResponse mapToResponse(ICU icu, PatientRef patient) {
+        int score = earlyWarningScorer.score(icu);
         return new ICUResponse(
                 icu.getId(),
-                mapToPatientResponse(icu.getPatient()),
+                patient,
                 icu.getHeartRate(),
                 icu.getBloodPressureSystolic(),
                 icu.getBloodPressureDiastolic(),
@@ -240,33 +250,10 @@ public class ICUService {
                 icu.getAbgPao2(),
                 icu.getAbgPaco2(),
                 icu.getAbgHco3(),
+                EarlyWarningScorer.total(score),
+                earlyWarningScorer.riskLevel(score),
                 icu.getRecordedBy(),
                 icu.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
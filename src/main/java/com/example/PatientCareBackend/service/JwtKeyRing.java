@@ -0,0 +1,329 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.model.JwtSigningKey;
+import com.example.PatientCareBackend.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Signing and verification keys shared by every instance. Keys come from three places:
+//  - security.jwt.keys: inline "kid:base64secret" entries, e.g. from a secret manager
+//  - security.jwt.keystore.*: a PKCS12 keystore of HmacSHA256 secret keys, alias = kid
+//  - the jwt_signing_keys table, where scheduled rotation (off by default) inserts a new key every rotation interval,
+//    encrypted with AES-GCM under security.jwt.rotation.key-encryption-key, which is kept outside the database so
+//    that reading the table alone cannot forge tokens
+// Every loaded key verifies; one signs. A rotated key only starts signing after the activation delay, by which time
+// every instance has reloaded the ring and can verify it. Old keys are kept until their last token has expired.
+// With no key configured at all, each instance signs with a random key of its own, as before the key ring existed.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JwtKeyRing {
+
+    private static final DateTimeFormatter KID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmm'Z'");
+
+    // Stored secrets are "v1:" + base64(iv || AES-GCM ciphertext), with the kid as associated data
+    private static final String ENCRYPTED_PREFIX = "v1:";
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final String EPHEMERAL_KID = "local";
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Value("${security.jwt.keys:}")
+    private String configuredKeys;
+
+    @Value("${security.jwt.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${security.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    // Signing key for static configurations; defaults to the first inline key, then the newest keystore entry
+    @Value("${security.jwt.active-key-id:}")
+    private String activeKeyId;
+
+    @Value("${security.jwt.rotation.enabled:false}")
+    private boolean rotationEnabled;
+
+    // Base64 AES key (16, 24 or 32 bytes) that encrypts rotated keys at rest; required when rotation is enabled
+    @Value("${security.jwt.rotation.key-encryption-key:}")
+    private String keyEncryptionKey;
+
+    @Value("${security.jwt.rotation.interval-hours:24}")
+    private long rotationIntervalHours;
+
+    @Value("${security.jwt.rotation.activation-delay-seconds:180}")
+    private long activationDelaySeconds;
+
+    @Value("${security.jwt.key-refresh-ms:60000}")
+    private long keyRefreshMs;
+
+    private SecretKey encryptionKey;
+    private SecretKey ephemeralKey;
+    private volatile KeySnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        if (rotationEnabled) {
+            if (keyEncryptionKey == null || keyEncryptionKey.isBlank()) {
+                throw new IllegalStateException("security.jwt.rotation.enabled requires "
+                        + "security.jwt.rotation.key-encryption-key, so rotated keys are not stored in plaintext");
+            }
+            byte[] raw = Base64.getDecoder().decode(keyEncryptionKey.trim());
+            if (raw.length != 16 && raw.length != 24 && raw.length != 32) {
+                throw new IllegalStateException("security.jwt.rotation.key-encryption-key must be a base64 AES key "
+                        + "of 16, 24 or 32 bytes");
+            }
+            encryptionKey = new SecretKeySpec(raw, "AES");
+        }
+        if (activationDelaySeconds * 1000 <= keyRefreshMs) {
+            log.warn("JWT key activation delay ({}s) should exceed the key refresh interval ({}ms), "
+                    + "otherwise siblings may reject freshly rotated tokens", activationDelaySeconds, keyRefreshMs);
+        }
+        refresh();
+        log.info("JWT key ring loaded {} verification key(s), signing with '{}'",
+                snapshot.verificationKeys().size(), snapshot.signingKey().kid());
+    }
+
+    @Scheduled(initialDelayString = "${security.jwt.key-refresh-ms:60000}",
+            fixedDelayString = "${security.jwt.key-refresh-ms:60000}")
+    public void refresh() {
+        Map<String, SecretKey> verificationKeys = new LinkedHashMap<>();
+        String staticSigningKid = loadStaticKeys(verificationKeys);
+
+        String signingKid = staticSigningKid;
+        if (rotationEnabled) {
+            rotateIfDue();
+            String rotatedKid = loadRotatedKeys(verificationKeys);
+            if (rotatedKid != null) {
+                signingKid = rotatedKid;
+            }
+        }
+
+        if (signingKid == null) {
+            if (ephemeralKey == null) {
+                log.warn("No JWT signing key configured; tokens are signed with a random key and only verify on this "
+                        + "instance until it restarts. Configure security.jwt.keys or security.jwt.keystore.path");
+                ephemeralKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            }
+            signingKid = EPHEMERAL_KID;
+            verificationKeys.put(EPHEMERAL_KID, ephemeralKey);
+        }
+        snapshot = new KeySnapshot(new SigningKey(signingKid, verificationKeys.get(signingKid)),
+                Map.copyOf(verificationKeys));
+    }
+
+    // Kid and key are read together so a concurrent refresh cannot pair one key's id with another's secret
+    public SigningKey getSigningKey() {
+        return snapshot.signingKey();
+    }
+
+    // Null for unknown or retired key ids
+    public SecretKey getVerificationKey(String kid) {
+        return kid != null ? snapshot.verificationKeys().get(kid) : null;
+    }
+
+    private String loadStaticKeys(Map<String, SecretKey> keys) {
+        String firstInlineKid = null;
+        if (configuredKeys != null && !configuredKeys.isBlank()) {
+            for (String entry : configuredKeys.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2 || parts[0].isBlank()) {
+                    throw new IllegalStateException("security.jwt.keys entries must be formatted as kid:base64secret");
+                }
+                keys.put(parts[0].trim(), Keys.hmacShaKeyFor(Base64.getDecoder().decode(parts[1].trim())));
+                if (firstInlineKid == null) {
+                    firstInlineKid = parts[0].trim();
+                }
+            }
+        }
+
+        String newestKeystoreKid = null;
+        if (keystorePath != null && !keystorePath.isBlank()) {
+            newestKeystoreKid = loadKeystore(Path.of(keystorePath), keys);
+        }
+
+        if (activeKeyId != null && !activeKeyId.isBlank()) {
+            if (!keys.containsKey(activeKeyId)) {
+                throw new IllegalStateException("security.jwt.active-key-id '" + activeKeyId + "' is not a loaded key");
+            }
+            return activeKeyId;
+        }
+        if (firstInlineKid != null) {
+            return firstInlineKid;
+        }
+        // A keystore whose every alias is still inside the activation delay signs with any of them
+        return newestKeystoreKid != null || keys.isEmpty() ? newestKeystoreKid : keys.keySet().iterator().next();
+    }
+
+    // The keystore is re-read on every refresh, so adding an alias rotates without a restart
+    private String loadKeystore(Path path, Map<String, SecretKey> keys) {
+        char[] password = keystorePassword.toCharArray();
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+
+            // Like rotated keys, a new alias only signs once every instance has had time to reload the file
+            Date activeBefore = Date.from(Instant.now().minusSeconds(activationDelaySeconds));
+            String newestKid = null;
+            Date newestCreated = null;
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Key key = keyStore.getKey(alias, password);
+                if (!(key instanceof SecretKey)) {
+                    continue;
+                }
+                keys.put(alias, Keys.hmacShaKeyFor(key.getEncoded()));
+                Date created = keyStore.getCreationDate(alias);
+                if (created == null || created.after(activeBefore)) {
+                    continue;
+                }
+                if (newestCreated == null || created.after(newestCreated)) {
+                    newestKid = alias;
+                    newestCreated = created;
+                }
+            }
+            return newestKid;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to load JWT keystore " + path, e);
+        }
+    }
+
+    // Adds the rotated keys from the database and returns the newest one that is past its activation delay
+    private String loadRotatedKeys(Map<String, SecretKey> keys) {
+        List<JwtSigningKey> rotatedKeys = jwtSigningKeyRepository.findAllByOrderByCreatedAtDesc();
+        LocalDateTime activeBefore = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(activationDelaySeconds);
+
+        String signingKid = null;
+        for (JwtSigningKey rotatedKey : rotatedKeys) {
+            if (!rotatedKey.getSecret().startsWith(ENCRYPTED_PREFIX)) {
+                // Stored in plaintext by an older version; rotateIfDue deletes it
+                continue;
+            }
+            keys.put(rotatedKey.getKid(), Keys.hmacShaKeyFor(decrypt(rotatedKey.getKid(), rotatedKey.getSecret())));
+            if (signingKid == null && !rotatedKey.getCreatedAt().isAfter(activeBefore)) {
+                signingKid = rotatedKey.getKid();
+            }
+        }
+        // Only keys inside their activation delay, e.g. on a fresh deployment: sign with the oldest of them
+        if (signingKid == null) {
+            for (int i = rotatedKeys.size() - 1; i >= 0 && signingKid == null; i--) {
+                if (keys.containsKey(rotatedKeys.get(i).getKid())) {
+                    signingKid = rotatedKeys.get(i).getKid();
+                }
+            }
+        }
+        return signingKid;
+    }
+
+    private void rotateIfDue() {
+        Duration interval = Duration.ofHours(rotationIntervalHours);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        List<JwtSigningKey> rotatedKeys = new ArrayList<>(jwtSigningKeyRepository.findAllByOrderByCreatedAtDesc());
+        // Anyone able to read the table could forge tokens with a plaintext secret, so those keys are dropped; tokens
+        // they signed stop verifying and their users sign in again
+        List<JwtSigningKey> plaintext = rotatedKeys.stream()
+                .filter(key -> !key.getSecret().startsWith(ENCRYPTED_PREFIX))
+                .toList();
+        if (!plaintext.isEmpty()) {
+            jwtSigningKeyRepository.deleteAll(plaintext);
+            rotatedKeys.removeAll(plaintext);
+            log.warn("Deleted {} JWT signing key(s) stored in plaintext", plaintext.size());
+        }
+        if (rotatedKeys.isEmpty() || !rotatedKeys.get(0).getCreatedAt().plus(interval).isAfter(now)) {
+            // Every instance derives the same kid for the current period, so concurrent rotations collide on the
+            // primary key and exactly one secret is stored
+            long period = now.toEpochSecond(ZoneOffset.UTC) / interval.toSeconds();
+            String kid = KID_FORMAT.format(Instant.ofEpochSecond(period * interval.toSeconds()).atZone(ZoneOffset.UTC));
+            String secret = encrypt(kid, Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+            try {
+                jwtSigningKeyRepository.save(new JwtSigningKey(kid, secret, now));
+                log.info("Rotated JWT signing key, new key id '{}'", kid);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("JWT signing key '{}' was already created by another instance", kid);
+            }
+        }
+
+        // A key signs for at most one interval plus the activation delay; its tokens then live for one token lifetime
+        LocalDateTime cutoff = now.minus(interval)
+                .minusSeconds(activationDelaySeconds)
+                .minus(JwtService.TOKEN_LIFETIME)
+                .minus(Duration.ofMillis(keyRefreshMs));
+        int retired = jwtSigningKeyRepository.deleteCreatedBefore(cutoff);
+        if (retired > 0) {
+            log.info("Retired {} expired JWT signing key(s)", retired);
+        }
+    }
+
+    private String encrypt(String kid, byte[] secret) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(secret);
+            byte[] stored = new byte[iv.length + sealed.length];
+            System.arraycopy(iv, 0, stored, 0, iv.length);
+            System.arraycopy(sealed, 0, stored, iv.length, sealed.length);
+            return ENCRYPTED_PREFIX + Base64.getEncoder().encodeToString(stored);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt JWT signing key", e);
+        }
+    }
+
+    private byte[] decrypt(String kid, String stored) {
+        byte[] data = Base64.getDecoder().decode(stored.substring(ENCRYPTED_PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt JWT signing key '" + kid
+                    + "'; is security.jwt.rotation.key-encryption-key the one it was stored with?", e);
+        }
+    }
+
+    public record SigningKey(String kid, SecretKey key) {
+    }
+
+    private record KeySnapshot(SigningKey signingKey, Map<String, SecretKey> verificationKeys) {
+    }
+}
@@ -3,27 +3,66 @@ package com.example.PatientCareBackend.service;
 import com.example.PatientCareBackend.model.User;
 import com.example.PatientCareBackend.repository.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class JwtService {
 
+    static final Duration TOKEN_LIFETIME = Duration.ofHours(24);
+
     private final UserRepository userRepository;
-    private final SecretKey secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private final JwtKeyRing jwtKeyRing;
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by SHA-256 of the token, so repeat requests skip signature checks; 0 disables it.
+    // Entries whose kid has since been retired from the key ring are dropped and the token re-verified, which fails
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    @Value("${security.jwt.token-cache-size:10000}")
+    private int tokenCacheSize;
+
+    // The verification key is picked per token from its kid header, so any instance's tokens verify here
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        SecretKey key = jwtKeyRing.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown JWT signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
@@ -32,13 +71,16 @@ public class JwtService {
         claims.put("email", user.getEmail());
         claims.put("firstName", user.getFirstName());
         claims.put("lastName", user.getLastName());
+        claims.put("specialty", user.getSpecialty());
 
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(claims)
                 .setSubject(user.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24 hours
-                .signWith(secretKey)
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_LIFETIME.toMillis())) // 24 hours
+                .signWith(signingKey.key())
                 .compact();
     }
 
@@ -55,17 +97,27 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims extractAllClaims(String token) {
+        if (tokenCacheSize <= 0) {
+            return jwtParser.parseClaimsJws(token).getBody();
+        }
+
+        String key = hashToken(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis() && jwtKeyRing.getVerificationKey(cached.kid()) != null) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(key);
+        }
+
+        Jws<Claims> jws = jwtParser.parseClaimsJws(token);
+        cacheVerifiedToken(key, jws.getHeader().getKeyId(), jws.getBody());
+        return jws.getBody();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
     // Add this method - it's the same as validateToken but with a different name
@@ -73,8 +125,33 @@ public class JwtService {
         return validateToken(token, userDetails);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // For callers that already hold the verified claims, so the token is not parsed again
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
+    }
+
+    private void cacheVerifiedToken(String key, String kid, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= tokenCacheSize) {
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(token -> token.expiresAt() <= now);
+            if (verifiedTokens.size() >= tokenCacheSize) {
+                return;
+            }
+        }
+        verifiedTokens.put(key, new VerifiedToken(kid, claims, expiration.getTime()));
+    }
+
+    private String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     public User getUserFromToken(String token) {
@@ -95,6 +172,15 @@ public class JwtService {
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
     }
 
+    // The authenticated caller as built by JwtAuthenticationFilter; no database access
+    public AuthenticatedUser getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return principal;
+    }
+
     // Alternative method to get just the username
     public String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -103,4 +189,7 @@ public class JwtService {
         }
         return authentication.getName();
     }
-}
\ No newline at end of file
+
+    private record VerifiedToken(String kid, Claims claims, long expiresAt) {
+    }
+}
@@ -1,19 +1,22 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.LabTestRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.LabTestResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.LabTest;
 import com.example.PatientCareBackend.model.Patient;
 import com.example.PatientCareBackend.repository.LabTestRepository;
 import com.example.PatientCareBackend.repository.PatientRepository;
+import com.example.PatientCareBackend.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +24,7 @@ public class LabTestService {
 
     private final LabTestRepository labTestRepository;
     private final PatientRepository patientRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional
     public LabTestResponse orderLabTest(LabTestRequest labTestRequest) {
@@ -42,21 +46,25 @@ public class LabTestService {
         labTest.setCompletedDate(labTestRequest.getCompletedDate());
 
         LabTest savedLabTest = labTestRepository.save(labTest);
-        return mapToResponse(savedLabTest);
+        return mapToResponse(savedLabTest, patientRefResolver.resolve(savedLabTest.getPatient()));
     }
 
     @Transactional(readOnly = true)
-    public List<LabTestResponse> getAllLabTests() {
-        return labTestRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<LabTestResponse> getAllLabTests(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit rows = Limit.of(limit + 1);
+        return CursorPage.ofPage(after == null
+                        ? labTestRepository.findFirstPage(rows)
+                        : labTestRepository.findPageAfter(after.sortKey(), after.id(), rows),
+                limit, row -> new PageCursor(row.getCreatedAt(), row.getId()),
+                page -> patientRefResolver.mapAll(page, LabTest::getPatient, this::mapToResponse));
     }
 
     @Transactional(readOnly = true)
     public LabTestResponse getLabTestById(Long id) {
         LabTest labTest = labTestRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lab test not found with id: " + id));
-        return mapToResponse(labTest);
+        return mapToResponse(labTest, patientRefResolver.resolve(labTest.getPatient()));
     }
 
     @Transactional
@@ -75,7 +83,7 @@ public class LabTestService {
         }
 
         LabTest updatedLabTest = labTestRepository.save(labTest);
-        return mapToResponse(updatedLabTest);
+        return mapToResponse(updatedLabTest, patientRefResolver.resolve(updatedLabTest.getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -84,37 +92,39 @@ public class LabTestService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return labTestRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(labTestRepository.findByPatientId(patientId),
+                LabTest::getPatient, this::mapToResponse);
+    }
+
+    // Newest first, no existence check: callers have already resolved the patient
+    @Transactional(readOnly = true)
+    public List<LabTestResponse> getRecentLabTestsByPatient(Long patientId, int limit) {
+        return patientRefResolver.mapAll(labTestRepository.findByPatientIdOrderByCreatedAtDesc(patientId, Limit.of(limit)),
+                LabTest::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<LabTestResponse> getLabTestsByStatus(LabTest.TestStatus status) {
-        return labTestRepository.findByStatus(status).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(labTestRepository.findByStatus(status),
+                LabTest::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<LabTestResponse> getUrgentLabTests() {
-        return labTestRepository.findPendingUrgentTests().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(labTestRepository.findPendingUrgentTests(),
+                LabTest::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<LabTestResponse> getLabTestsByType(String testType) {
-        return labTestRepository.findByTestType(testType).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(labTestRepository.findByTestType(testType),
+                LabTest::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<LabTestResponse> getLabTestsOrderedBetween(LocalDateTime startDate, LocalDateTime endDate) {
-        return labTestRepository.findTestsOrderedBetween(startDate, endDate).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(labTestRepository.findTestsOrderedBetween(startDate, endDate),
+                LabTest::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -139,7 +149,7 @@ public class LabTestService {
         labTest.setCompletedDate(labTestRequest.getCompletedDate());
 
         LabTest updatedLabTest = labTestRepository.save(labTest);
-        return mapToResponse(updatedLabTest);
+        return mapToResponse(updatedLabTest, patientRefResolver.resolve(updatedLabTest.getPatient()));
     }
 
     @Transactional
@@ -149,10 +159,10 @@ public class LabTestService {
         labTestRepository.delete(labTest);
     }
 
-    private LabTestResponse mapToResponse(LabTest labTest) {
+    private LabTestResponse mapToResponse(LabTest labTest, PatientRef patient) {
         return new LabTestResponse(
                 labTest.getId(),
-                mapToPatientResponse(labTest.getPatient()),
+                patient,
                 labTest.getTestType(),
                 labTest.getTestName(),
                 labTest.getOrderedBy(),
@@ -167,29 +177,4 @@ public class LabTestService {
                 labTest.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,382 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.response.PatientRef;
+import com.example.PatientCareBackend.dto.response.VitalDataResponse;
+import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.repository.PatientRepository;
+import com.example.PatientCareBackend.util.AfterCommit;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// The newest vitals of every patient for the ward overview, which each nursing station polls. Samples are kept in
+// fixed-size ring buffers of primitive arrays, one per patient, instead of entities or DTOs.
+// Warmed from the newest rows per patient once the application is ready, fed by VitalDataService after each commit,
+// and by VitalDataFeed with the readings stored on other instances. Rings of patients deleted elsewhere are dropped
+// by a periodic existence check. Until the warm-up has finished, and for limits beyond the capacity, reads go to the
+// database.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LatestVitalsStore {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int EVICTION_BATCH_SIZE = 1000;
+    private static final int NO_INT = Integer.MIN_VALUE;
+    private static final long NO_DECIMAL = Long.MIN_VALUE;
+    private static final int MAX_DECIMAL_SCALE = 15;
+    private static final VitalData.RiskLevel[] RISK_LEVELS = VitalData.RiskLevel.values();
+    private static final VitalData.Consciousness[] CONSCIOUSNESS_LEVELS = VitalData.Consciousness.values();
+
+    private final PatientRepository patientRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${vitals.latest.capacity:20}")
+    private int capacity;
+
+    @Value("${spring.jpa.properties.hibernate.default_schema:}")
+    private String schema;
+
+    private final Map<Long, PatientVitals> patients = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Called by VitalDataFeed once the application is ready
+    void warm() {
+        long started = System.nanoTime();
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(status -> {
+                // One (patient_id, created_at) index range per patient instead of a scan of the whole table
+                @SuppressWarnings("unchecked")
+                Stream<VitalData> rows = entityManager.createNativeQuery(
+                                "SELECT v.* FROM " + prefix + "patients p CROSS JOIN LATERAL (" +
+                                        "SELECT * FROM " + prefix + "vital_data x WHERE x.patient_id = p.id " +
+                                        "ORDER BY x.created_at DESC LIMIT " + capacity + ") v", VitalData.class)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, LOAD_BATCH_SIZE)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream();
+                try (rows) {
+                    Iterator<VitalData> iterator = rows.iterator();
+                    List<VitalReading> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                    while (iterator.hasNext()) {
+                        batch.add(VitalReading.of(iterator.next()));
+                        if (batch.size() == LOAD_BATCH_SIZE || !iterator.hasNext()) {
+                            load(batch);
+                            batch.clear();
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Non-PostgreSQL databases, e.g. the H2 test schema, keep serving latest vitals from the table
+            log.warn("Latest vitals store not warmed, reads stay on the database: {}", e.getMessage());
+            return;
+        }
+        ready = true;
+        log.info("Latest vitals store warmed with {} patients in {} ms",
+                patients.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Patients deleted on this instance leave at commit; this catches those deleted on other instances
+    @Scheduled(fixedDelayString = "${vitals.latest.eviction-ms:60000}")
+    public void evictDeletedPatients() {
+        if (!ready || patients.isEmpty()) {
+            return;
+        }
+        List<Long> held = new ArrayList<>(patients.keySet());
+        for (int from = 0; from < held.size(); from += EVICTION_BATCH_SIZE) {
+            List<Long> ids = held.subList(from, Math.min(from + EVICTION_BATCH_SIZE, held.size()));
+            Set<Long> existing = new HashSet<>(patientRepository.findExistingIds(ids));
+            for (Long id : ids) {
+                if (!existing.contains(id)) {
+                    patients.remove(id);
+                }
+            }
+        }
+    }
+
+    // Applied once the surrounding transaction commits, so rolled-back readings never reach the store
+    public void recordAfterCommit(VitalData vitalData, PatientRef patient) {
+        recordAfterCommit(List.of(vitalData), Map.of(patient.getId(), patient));
+    }
+
+    public void recordAfterCommit(List<VitalData> vitals, Map<Long, PatientRef> patientsById) {
+        AfterCommit.run(() -> {
+            for (VitalData vitalData : vitals) {
+                Long patientId = vitalData.getPatient().getId();
+                ringOf(patientId).add(VitalReading.of(vitalData), patientsById.get(patientId));
+            }
+        });
+    }
+
+    // Keeps the embedded patient names current after an edit on this instance
+    public void updatePatientAfterCommit(PatientRef patient) {
+        AfterCommit.run(() -> {
+            PatientVitals ring = patients.get(patient.getId());
+            if (ring != null) {
+                ring.patient = patient;
+            }
+        });
+    }
+
+    public void removePatientAfterCommit(Long patientId) {
+        AfterCommit.run(() -> patients.remove(patientId));
+    }
+
+    // Newest first; null when the database has to answer instead
+    public List<VitalDataResponse> latest(Long patientId, int limit) {
+        if (!ready || limit < 1 || limit > capacity) {
+            return null;
+        }
+        // Every patient with readings has a ring once the store is warm, so no ring means no readings
+        PatientVitals ring = patients.get(patientId);
+        return ring != null ? ring.newest(limit) : List.of();
+    }
+
+    // Catch-up and warm-up windows overlap, so most readings are already held
+    void load(List<VitalReading> batch) {
+        List<VitalReading> unseen = new ArrayList<>(batch.size());
+        Set<Long> patientIds = new HashSet<>();
+        for (VitalReading reading : batch) {
+            PatientVitals ring = patients.get(reading.patientId());
+            if (ring == null || !ring.contains(reading.id())) {
+                unseen.add(reading);
+                patientIds.add(reading.patientId());
+            }
+        }
+        if (unseen.isEmpty()) {
+            return;
+        }
+        // Refreshed with every new reading, which also picks up renames made on other instances
+        Map<Long, PatientRef> refs = new HashMap<>();
+        for (PatientRef ref : patientRepository.findRefsByIdIn(patientIds)) {
+            refs.put(ref.getId(), ref);
+        }
+        for (VitalReading reading : unseen) {
+            ringOf(reading.patientId()).add(reading, refs.get(reading.patientId()));
+        }
+    }
+
+    private PatientVitals ringOf(Long patientId) {
+        return patients.computeIfAbsent(patientId, id -> new PatientVitals(capacity));
+    }
+
+    private static int encode(Integer value) {
+        return value != null ? value : NO_INT;
+    }
+
+    private static Integer decodeInt(int value) {
+        return value != NO_INT ? value : null;
+    }
+
+    // Unscaled value and scale packed into one long, so 37.5 comes back as 37.5 and 37.50 as 37.50
+    private static long encode(BigDecimal value) {
+        if (value == null) {
+            return NO_DECIMAL;
+        }
+        if (value.scale() < 0 || value.scale() > MAX_DECIMAL_SCALE) {
+            value = value.setScale(Math.max(0, Math.min(value.scale(), MAX_DECIMAL_SCALE)), RoundingMode.HALF_UP);
+        }
+        return value.unscaledValue().longValue() << 4 | value.scale();
+    }
+
+    private static BigDecimal decodeDecimal(long value) {
+        return value != NO_DECIMAL ? BigDecimal.valueOf(value >> 4, (int) (value & MAX_DECIMAL_SCALE)) : null;
+    }
+
+    private static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // One patient's newest readings. Once full, each reading overwrites the oldest slot; a late reading from another
+    // instance that is older than everything held is dropped
+    private static final class PatientVitals {
+
+        private final long[] ids;
+        private final long[] createdAt;
+        private final int[] systolicBp;
+        private final int[] diastolicBp;
+        private final int[] heartRate;
+        private final int[] respiratoryRate;
+        private final int[] oxygenSaturation;
+        private final int[] bloodGlucose;
+        private final int[] painLevel;
+        private final int[] earlyWarningScore;
+        private final long[] temperature;
+        private final long[] height;
+        private final long[] weight;
+        private final long[] bmi;
+        private final byte[] consciousness;
+        private final byte[] riskLevel;
+        private final String[] notes;
+        private final String[] recordedBy;
+        private int size;
+
+        private volatile PatientRef patient;
+
+        PatientVitals(int capacity) {
+            ids = new long[capacity];
+            createdAt = new long[capacity];
+            systolicBp = new int[capacity];
+            diastolicBp = new int[capacity];
+            heartRate = new int[capacity];
+            respiratoryRate = new int[capacity];
+            oxygenSaturation = new int[capacity];
+            bloodGlucose = new int[capacity];
+            painLevel = new int[capacity];
+            earlyWarningScore = new int[capacity];
+            temperature = new long[capacity];
+            height = new long[capacity];
+            weight = new long[capacity];
+            bmi = new long[capacity];
+            consciousness = new byte[capacity];
+            riskLevel = new byte[capacity];
+            notes = new String[capacity];
+            recordedBy = new String[capacity];
+        }
+
+        synchronized boolean contains(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(VitalReading reading, PatientRef ref) {
+            if (ref != null) {
+                patient = ref;
+            }
+            long id = reading.id();
+            long time = reading.createdAt() != null ? toEpochMicros(reading.createdAt()) : Long.MIN_VALUE;
+            if (contains(id)) {
+                return;
+            }
+            int slot;
+            if (size < ids.length) {
+                slot = size++;
+            } else {
+                slot = oldest();
+                if (isNewer(slot, time, id)) {
+                    return;
+                }
+            }
+            ids[slot] = id;
+            createdAt[slot] = time;
+            systolicBp[slot] = encode(reading.systolicBp());
+            diastolicBp[slot] = encode(reading.diastolicBp());
+            heartRate[slot] = encode(reading.heartRate());
+            respiratoryRate[slot] = encode(reading.respiratoryRate());
+            oxygenSaturation[slot] = encode(reading.oxygenSaturation());
+            bloodGlucose[slot] = encode(reading.bloodGlucose());
+            painLevel[slot] = encode(reading.painLevel());
+            earlyWarningScore[slot] = encode(reading.earlyWarningScore());
+            temperature[slot] = encode(reading.temperature());
+            height[slot] = encode(reading.height());
+            weight[slot] = encode(reading.weight());
+            bmi[slot] = encode(reading.bmi());
+            consciousness[slot] = (byte) (reading.consciousness() != null ? reading.consciousness().ordinal() : -1);
+            riskLevel[slot] = (byte) (reading.riskLevel() != null ? reading.riskLevel().ordinal() : -1);
+            notes[slot] = reading.notes();
+            recordedBy[slot] = reading.recordedBy();
+        }
+
+        synchronized List<VitalDataResponse> newest(int limit) {
+            // Insertion sort of slot numbers, newest first; a ring holds a few dozen readings at most
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                int j = i;
+                while (j > 0 && !isNewer(order[j - 1], createdAt[i], ids[i])) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = i;
+            }
+
+            int count = Math.min(limit, size);
+            List<VitalDataResponse> responses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                responses.add(toResponse(order[i]));
+            }
+            return responses;
+        }
+
+        private int oldest() {
+            int oldest = 0;
+            for (int i = 1; i < size; i++) {
+                if (isNewer(oldest, createdAt[i], ids[i])) {
+                    oldest = i;
+                }
+            }
+            return oldest;
+        }
+
+        // Whether the reading in slot is newer than the given one; ids break ties between equal timestamps
+        private boolean isNewer(int slot, long time, long id) {
+            return createdAt[slot] != time ? createdAt[slot] > time : ids[slot] > id;
+        }
+
+        private VitalDataResponse toResponse(int slot) {
+            return new VitalDataResponse(
+                    ids[slot],
+                    patient,
+                    decodeInt(systolicBp[slot]),
+                    decodeInt(diastolicBp[slot]),
+                    decodeInt(heartRate[slot]),
+                    decodeInt(respiratoryRate[slot]),
+                    decodeDecimal(temperature[slot]),
+                    decodeInt(oxygenSaturation[slot]),
+                    decodeDecimal(height[slot]),
+                    decodeDecimal(weight[slot]),
+                    decodeInt(bloodGlucose[slot]),
+                    decodeInt(painLevel[slot]),
+                    consciousness[slot] >= 0 ? CONSCIOUSNESS_LEVELS[consciousness[slot]] : null,
+                    decodeDecimal(bmi[slot]),
+                    decodeInt(earlyWarningScore[slot]),
+                    riskLevel[slot] >= 0 ? RISK_LEVELS[riskLevel[slot]] : null,
+                    notes[slot],
+                    recordedBy[slot],
+                    createdAt[slot] != Long.MIN_VALUE ? fromEpochMicros(createdAt[slot]) : null
+            );
+        }
+    }
+}
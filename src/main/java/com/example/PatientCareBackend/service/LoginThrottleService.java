@@ -0,0 +1,76 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.exception.TooManyRequestsException;
+import com.example.PatientCareBackend.util.RateLimitBuckets;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Token buckets in front of /api/auth: every attempt costs the client address a token, and only failed sign-ins
+// cost the account one, so a credential-stuffing run against a clinician cannot lock them out of a correct login
+// from another address for longer than the failure window.
+@Service
+@RequiredArgsConstructor
+public class LoginThrottleService {
+
+    private static final String RATE_LIMIT_GROUP = "login";
+
+    private final RateLimitService rateLimitService;
+
+    @Value("${security.login.ip-capacity:120}")
+    private long ipCapacity;
+
+    @Value("${security.login.ip-period-seconds:60}")
+    private long ipPeriodSeconds;
+
+    @Value("${security.login.failure-capacity:10}")
+    private long failureCapacity;
+
+    @Value("${security.login.failure-period-seconds:900}")
+    private long failurePeriodSeconds;
+
+    private RateLimitBuckets ipBuckets;
+    private RateLimitBuckets failureBuckets;
+
+    @PostConstruct
+    public void init() {
+        ipBuckets = new RateLimitBuckets(ipCapacity, Duration.ofSeconds(ipPeriodSeconds));
+        failureBuckets = new RateLimitBuckets(failureCapacity, Duration.ofSeconds(failurePeriodSeconds));
+    }
+
+    public void checkAttempt(String clientAddress, String username) {
+        long retryAfter = ipBuckets.tryConsume(clientAddress);
+        if (retryAfter > 0) {
+            rateLimitService.recordRejection(RATE_LIMIT_GROUP, "ip:" + clientAddress);
+            throw new TooManyRequestsException("Too many sign-in attempts, please retry later", retryAfter);
+        }
+        if (username != null) {
+            retryAfter = failureBuckets.peek(normalize(username));
+            if (retryAfter > 0) {
+                rateLimitService.recordRejection(RATE_LIMIT_GROUP, "user:" + normalize(username));
+                throw new TooManyRequestsException("Too many failed sign-in attempts, please retry later", retryAfter);
+            }
+        }
+    }
+
+    public void recordFailure(String username) {
+        if (username != null) {
+            failureBuckets.tryConsume(normalize(username));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.eviction-ms:60000}")
+    public void evictIdle() {
+        ipBuckets.evictIdle();
+        failureBuckets.evictIdle();
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
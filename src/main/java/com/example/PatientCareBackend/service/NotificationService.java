@@ -1,7 +1,9 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.NotificationRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.NotificationResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Appointment;
 import com.example.PatientCareBackend.model.Notification;
@@ -11,13 +13,14 @@ import com.example.PatientCareBackend.repository.AppointmentRepository;
 import com.example.PatientCareBackend.repository.NotificationRepository;
 import com.example.PatientCareBackend.repository.PatientRepository;
 import com.example.PatientCareBackend.repository.UserRepository;
+import com.example.PatientCareBackend.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,19 +31,23 @@ public class NotificationService {
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final JwtService jwtService;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional(readOnly = true)
-    public List<NotificationResponse> getAllNotifications() {
-        return notificationRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<NotificationResponse> getAllNotifications(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit rows = Limit.of(limit + 1);
+        return CursorPage.ofPage(after == null
+                        ? notificationRepository.findFirstPage(rows)
+                        : notificationRepository.findPageAfter(after.sortKey(), after.id(), rows),
+                limit, row -> new PageCursor(row.getCreatedAt(), row.getId()),
+                page -> patientRefResolver.mapAll(page, Notification::getPatient, this::mapToResponse));
     }
 
     @Transactional(readOnly = true)
     public List<NotificationResponse> getUnreadNotifications() {
-        return notificationRepository.findByReadFalse().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(notificationRepository.findByReadFalse(),
+                Notification::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -50,12 +57,12 @@ public class NotificationService {
 
         notification.setRead(true);
         Notification updatedNotification = notificationRepository.save(notification);
-        return mapToResponse(updatedNotification);
+        return mapToResponse(updatedNotification, patientRefResolver.resolve(updatedNotification.getPatient()));
     }
 
     @Transactional
     public void markAllAsRead() {
-        User currentUser = jwtService.getCurrentUser();
+        AuthenticatedUser currentUser = jwtService.getCurrentPrincipal();
         List<Notification> unreadNotifications = notificationRepository.findUnreadByDoctor(currentUser.getId());
 
         unreadNotifications.forEach(notification -> notification.setRead(true));
@@ -99,7 +106,7 @@ public class NotificationService {
         }
 
         Notification savedNotification = notificationRepository.save(notification);
-        return mapToResponse(savedNotification);
+        return mapToResponse(savedNotification, patientRefResolver.resolve(savedNotification.getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -108,9 +115,8 @@ public class NotificationService {
             throw new ResourceNotFoundException("User not found with id: " + userId);
         }
 
-        return notificationRepository.findByDoctorId(userId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(notificationRepository.findByDoctorId(userId),
+                Notification::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -119,9 +125,21 @@ public class NotificationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
 
         // Get all available doctors
-        List<User> availableDoctors = userRepository.findAvailableDoctors();
+        notifyDoctors(title, message, patient, userRepository.findAvailableDoctors());
+    }
+
+    // Goes to the doctors attached to the patient; all available doctors when the patient has none yet
+    @Transactional
+    public void sendPatientAlert(String title, String message, Long patientId) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
 
-        for (User doctor : availableDoctors) {
+        List<User> doctors = userRepository.findDoctorsOfPatient(patientId);
+        notifyDoctors(title, message, patient, doctors.isEmpty() ? userRepository.findAvailableDoctors() : doctors);
+    }
+
+    private void notifyDoctors(String title, String message, Patient patient, List<User> doctors) {
+        for (User doctor : doctors) {
             Notification notification = new Notification();
             notification.setType(Notification.NotificationType.EMERGENCY);
             notification.setTitle(title);
@@ -137,17 +155,15 @@ public class NotificationService {
 
     @Transactional(readOnly = true)
     public List<NotificationResponse> getDueNotifications() {
-        return notificationRepository.findDueNotifications(LocalDateTime.now()).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(notificationRepository.findDueNotifications(LocalDateTime.now()),
+                Notification::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<NotificationResponse> getRecentNotifications(int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return notificationRepository.findRecentNotifications(since).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(notificationRepository.findRecentNotifications(since),
+                Notification::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -155,15 +171,16 @@ public class NotificationService {
         return notificationRepository.findUnreadByDoctor(userId).size();
     }
 
-    private NotificationResponse mapToResponse(Notification notification) {
+    private NotificationResponse mapToResponse(Notification notification, PatientRef patient) {
         return new NotificationResponse(
                 notification.getId(),
                 notification.getType(),
                 notification.getTitle(),
                 notification.getMessage(),
                 notification.getDoctor() != null ? mapToUserResponse(notification.getDoctor()) : null,
-                notification.getPatient() != null ? mapToPatientResponse(notification.getPatient()) : null,
-                notification.getAppointment() != null ? mapToAppointmentResponse(notification.getAppointment()) : null,
+                patient,
+                notification.getAppointment() != null ? mapToAppointmentResponse(notification.getAppointment(),
+                        patientRefResolver.resolve(notification.getAppointment().getPatient(), patient)) : null,
                 notification.getPriority(),
                 notification.getRead(),
                 notification.getScheduledFor(),
@@ -186,37 +203,12 @@ public class NotificationService {
         );
     }
 
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
-
-    private com.example.PatientCareBackend.dto.response.AppointmentResponse mapToAppointmentResponse(Appointment appointment) {
+    private com.example.PatientCareBackend.dto.response.AppointmentResponse mapToAppointmentResponse(Appointment appointment, PatientRef patient) {
         com.example.PatientCareBackend.dto.response.AppointmentResponse response =
                 new com.example.PatientCareBackend.dto.response.AppointmentResponse();
 
         response.setId(appointment.getId());
-        response.setPatient(mapToPatientResponse(appointment.getPatient()));
+        response.setPatient(patient);
         response.setDoctor(mapToUserResponse(appointment.getDoctor()));
         response.setAppointmentDate(appointment.getAppointmentDate());
         response.setAppointmentTime(appointment.getAppointmentTime());
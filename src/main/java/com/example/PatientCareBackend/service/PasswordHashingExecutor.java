@@ -0,0 +1,72 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs BCrypt-bound work (sign-in, sign-up) off the request threads. The pool caps how many cores hashing can take
+// and the queue caps how many logins may wait; beyond that callers get an immediate 429 instead of a Tomcat thread.
+@Slf4j
+@Service
+public class PasswordHashingExecutor {
+
+    @Value("${security.password-hashing.pool-size:0}")
+    private int poolSize;
+
+    @Value("${security.password-hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        // Default to half the cores so hashing never takes the whole machine
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // The caller's security context travels with the task, e.g. for admin-only registrations
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        SecurityContext callerContext = SecurityContextHolder.getContext();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                SecurityContextHolder.setContext(callerContext);
+                try {
+                    return task.get();
+                } finally {
+                    // Pooled threads must not carry a context into the next task
+                    SecurityContextHolder.clearContext();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue is full ({} waiting)", executor.getQueue().size());
+            throw new TooManyRequestsException("Sign-in capacity is exhausted, please retry shortly", 1);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.response.PatientRef;
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Builds the PatientRef embedded in record responses. Record queries leave the patient association as an unloaded
+// proxy, whose id is known without a query; the refs for a whole result list then come from one projection query
+// instead of hydrating every patient with its @Lob fields. Patients already in memory, e.g. just saved, are used as-is.
+@Service
+@RequiredArgsConstructor
+public class PatientRefResolver {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+
+    public PatientRef resolve(Patient patient) {
+        if (patient == null) {
+            return null;
+        }
+        return load(List.of(patient)).get(patient.getId());
+    }
+
+    // For nested records of the same patient, e.g. a follow-up and its surgery, reuses the ref already resolved
+    public PatientRef resolve(Patient patient, PatientRef known) {
+        if (patient != null && known != null && known.getId().equals(patient.getId())) {
+            return known;
+        }
+        return resolve(patient);
+    }
+
+    public <T, R> List<R> mapAll(Collection<T> rows, Function<T, Patient> patientOf,
+                                 BiFunction<T, PatientRef, R> mapper) {
+        Map<Long, PatientRef> refs = load(rows.stream().map(patientOf).toList());
+        List<R> responses = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            Patient patient = patientOf.apply(row);
+            responses.add(mapper.apply(row, patient != null ? refs.get(patient.getId()) : null));
+        }
+        return responses;
+    }
+
+    // Streaming variant for exports: resolves one batch of rows at a time and closes the source with the result
+    public <T, R> Stream<R> mapStream(Stream<T> rows, Function<T, Patient> patientOf,
+                                      BiFunction<T, PatientRef, R> mapper) {
+        Iterator<T> source = rows.iterator();
+        Iterator<List<R>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public List<R> next() {
+                if (!source.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+                while (source.hasNext() && batch.size() < STREAM_BATCH_SIZE) {
+                    batch.add(source.next());
+                }
+                return mapAll(batch, patientOf, mapper);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(rows::close);
+    }
+
+    private Map<Long, PatientRef> load(Collection<Patient> patients) {
+        Map<Long, PatientRef> refs = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Patient patient : patients) {
+            if (patient == null) {
+                continue;
+            }
+            // getId() on a proxy does not initialize it
+            if (Hibernate.isInitialized(patient)) {
+                refs.put(patient.getId(), new PatientRef(patient.getId(), patient.getPatientId(),
+                        patient.getFirstName(), patient.getLastName()));
+            } else {
+                missing.add(patient.getId());
+            }
+        }
+        missing.removeAll(refs.keySet());
+        if (!missing.isEmpty()) {
+            for (PatientRef ref : patientRepository.findRefsByIdIn(missing)) {
+                refs.put(ref.getId(), ref);
+            }
+        }
+        return refs;
+    }
+}
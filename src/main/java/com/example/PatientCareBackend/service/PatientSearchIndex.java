@@ -0,0 +1,502 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.repository.PatientRepository;
+import com.example.PatientCareBackend.service.ExportService.Watermark;
+import com.example.PatientCareBackend.util.AfterCommit;
+import com.example.PatientCareBackend.util.NameMatching;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Trigram inverted index over patient name, patientId, phone and email for type-ahead search, plus a date-of-birth
+// index with phonetic name keys for duplicate detection at registration.
+// Built from a streaming scan once the application is ready, kept current by PatientService after each commit,
+// and caught up from updated_at every few seconds so changes made on other instances show up too.
+// Deletions elsewhere are filtered out when the matching rows are loaded by id.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, IndexedPatient> documents = new ConcurrentHashMap<>();
+    // Sorted primitive id arrays rather than sets of boxed ids, which at a million patients would be tens of millions
+    // of objects
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final Map<LocalDate, PostingList> byDateOfBirth = new ConcurrentHashMap<>();
+    // When each patient was removed here, so a catch-up or rebuild that read the row before the delete cannot bring it
+    // back; dropped once older than every row a catch-up can still read
+    private final Map<Long, LocalDateTime> removedAt = new ConcurrentHashMap<>();
+
+    @Value("${patients.search-index.catch-up-overlap-seconds:30}")
+    private long catchUpOverlapSeconds;
+
+    private volatile boolean ready;
+    private volatile Watermark watermark = Watermark.ORIGIN;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            // Taken before the scan, so rows changed while it runs are picked up by the next catch-up
+            watermark = currentWatermark(Watermark.ORIGIN);
+            try (Stream<Patient> patients = patientRepository.streamAll()) {
+                Iterator<Patient> iterator = patients.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    put(iterator.next());
+                    if (++count % REBUILD_BATCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+        ready = true;
+        log.info("Patient search index built with {} patients and {} trigrams in {} ms",
+                documents.size(), postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${patients.search-index.refresh-ms:15000}")
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            Watermark since = watermark;
+            Watermark until = currentWatermark(since);
+            // Re-reads the last few seconds too: a transaction still in flight at the previous pass may since have
+            // committed a row stamped below that watermark. Re-indexing a row is idempotent.
+            LocalDateTime from = since.updatedAt().minusSeconds(catchUpOverlapSeconds);
+            removedAt.values().removeIf(removed -> removed.isBefore(from));
+            try (Stream<Patient> patients = patientRepository.streamChangedBetween(from, 0L, until.updatedAt(), until.id())) {
+                patients.forEach(this::put);
+            }
+            watermark = until;
+        });
+    }
+
+    // Applied once the surrounding transaction commits, so rolled-back writes never reach the index
+    public void indexAfterCommit(Patient patient) {
+        IndexedPatient document = IndexedPatient.of(patient);
+        AfterCommit.run(() -> put(document));
+    }
+
+    public void removeAfterCommit(Long id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    // Ids of the best matches, best first
+    public List<Long> search(String query, int limit) {
+        String term = normalize(query);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String digits = digitsOf(term);
+
+        Collection<IndexedPatient> candidates;
+        if (term.length() < GRAM) {
+            // Too short for a trigram; a scan of the in-memory documents is still far cheaper than the table
+            candidates = documents.values();
+        } else {
+            long[] ids = candidateIds(term);
+            if (digits.length() >= GRAM && !digits.equals(term)) {
+                ids = union(ids, candidateIds(digits));
+            }
+            candidates = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                IndexedPatient document = documents.get(id);
+                if (document != null) {
+                    candidates.add(document);
+                }
+            }
+        }
+
+        List<ScoredPatient> matches = new ArrayList<>();
+        for (IndexedPatient document : candidates) {
+            int score = document.score(term, digits);
+            if (score > 0) {
+                matches.add(new ScoredPatient(document, score));
+            }
+        }
+        matches.sort(Comparator.comparingInt(ScoredPatient::score).reversed()
+                .thenComparing(match -> match.document().lastName())
+                .thenComparing(match -> match.document().firstName())
+                .thenComparingLong(match -> match.document().id()));
+
+        return matches.stream()
+                .limit(limit)
+                .map(match -> match.document().id())
+                .toList();
+    }
+
+    // Likely duplicates of a new registration, best first. Candidates share the date of birth or differ from it by one
+    // digit or a day/month swap (a few dozen lookups, each a handful of patients even at millions of rows); names are
+    // then compared by Jaro-Winkler and sound-alike keys, in either order.
+    public List<DuplicateMatch> findDuplicates(String firstName, String lastName, LocalDate dateOfBirth,
+                                               double threshold, int limit) {
+        if (dateOfBirth == null) {
+            return List.of();
+        }
+        String first = NameMatching.normalize(firstName);
+        String last = NameMatching.normalize(lastName);
+        String firstKey = NameMatching.phoneticKey(first);
+        String lastKey = NameMatching.phoneticKey(last);
+
+        List<DuplicateMatch> matches = new ArrayList<>();
+        collectDuplicates(byDateOfBirth.get(dateOfBirth), 1.0, first, last, firstKey, lastKey, threshold, matches);
+        for (LocalDate variant : dateOfBirthVariants(dateOfBirth)) {
+            collectDuplicates(byDateOfBirth.get(variant), 0.8, first, last, firstKey, lastKey, threshold, matches);
+        }
+        matches.sort(Comparator.comparingDouble(DuplicateMatch::score).reversed()
+                .thenComparingLong(DuplicateMatch::id));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private void collectDuplicates(PostingList postingList, double dateScore, String first, String last,
+                                   String firstKey, String lastKey, double threshold, List<DuplicateMatch> matches) {
+        if (postingList == null) {
+            return;
+        }
+        for (long id : postingList.toArray()) {
+            IndexedPatient candidate = documents.get(id);
+            if (candidate == null) {
+                continue;
+            }
+            double straight = (NameMatching.similarity(first, candidate.matchFirstName(), firstKey, candidate.firstNameKey())
+                    + NameMatching.similarity(last, candidate.matchLastName(), lastKey, candidate.lastNameKey())) / 2;
+            double swapped = (NameMatching.similarity(first, candidate.matchLastName(), firstKey, candidate.lastNameKey())
+                    + NameMatching.similarity(last, candidate.matchFirstName(), lastKey, candidate.firstNameKey())) / 2;
+            double score = 0.6 * Math.max(straight, swapped * 0.95) + 0.4 * dateScore;
+            if (score >= threshold) {
+                matches.add(new DuplicateMatch(id, Math.round(score * 1000) / 1000.0));
+            }
+        }
+    }
+
+    // Dates one digit away in yyyyMMdd, and the day/month swap
+    static Set<LocalDate> dateOfBirthVariants(LocalDate date) {
+        Set<LocalDate> variants = new HashSet<>();
+        char[] digits = String.format("%04d%02d%02d",
+                date.getYear(), date.getMonthValue(), date.getDayOfMonth()).toCharArray();
+        for (int i = 0; i < digits.length; i++) {
+            char original = digits[i];
+            for (char digit = '0'; digit <= '9'; digit++) {
+                if (digit != original) {
+                    digits[i] = digit;
+                    addDate(variants, new String(digits));
+                }
+            }
+            digits[i] = original;
+        }
+        addDate(variants, String.format("%04d%02d%02d", date.getYear(), date.getDayOfMonth(), date.getMonthValue()));
+        variants.remove(date);
+        return variants;
+    }
+
+    private static void addDate(Set<LocalDate> dates, String digits) {
+        try {
+            dates.add(LocalDate.of(Integer.parseInt(digits.substring(0, 4)),
+                    Integer.parseInt(digits.substring(4, 6)), Integer.parseInt(digits.substring(6, 8))));
+        } catch (DateTimeException e) {
+            // Not a calendar date
+        }
+    }
+
+    // Ids in every posting list of the term's trigrams, ascending; the shortest list is copied and probed against the rest
+    private long[] candidateIds(String term) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : trigramsOf(term)) {
+            PostingList ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] result = lists.get(0).toArray();
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            PostingList list = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (list.contains(result[j])) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[size++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[size++] = b[j++];
+            } else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void put(Patient patient) {
+        put(IndexedPatient.of(patient));
+    }
+
+    // Writes for one id run inside its documents entry, so an after-commit write and a catch-up of the same patient
+    // cannot interleave their posting diffs. A version older than the indexed one, or than a removal, is ignored.
+    private void put(IndexedPatient document) {
+        documents.compute(document.id(), (id, previous) -> {
+            if (isOlder(document.updatedAt(), removedAt.get(id), true)
+                    || (previous != null && isOlder(document.updatedAt(), previous.updatedAt(), false))) {
+                return previous;
+            }
+            Set<String> grams = document.grams();
+            if (previous != null) {
+                for (String gram : previous.grams()) {
+                    if (!grams.contains(gram)) {
+                        removePosting(postings, gram, id);
+                    }
+                }
+                if (previous.dateOfBirth() != null && !previous.dateOfBirth().equals(document.dateOfBirth())) {
+                    removePosting(byDateOfBirth, previous.dateOfBirth(), id);
+                }
+            }
+            for (String gram : grams) {
+                addPosting(postings, gram, id);
+            }
+            if (document.dateOfBirth() != null) {
+                addPosting(byDateOfBirth, document.dateOfBirth(), id);
+            }
+            return document;
+        });
+    }
+
+    private void remove(Long id) {
+        documents.compute(id, (key, previous) -> {
+            removedAt.put(id, LocalDateTime.now());
+            if (previous != null) {
+                previous.grams().forEach(gram -> removePosting(postings, gram, id));
+                if (previous.dateOfBirth() != null) {
+                    removePosting(byDateOfBirth, previous.dateOfBirth(), id);
+                }
+            }
+            return null;
+        });
+    }
+
+    // Rows without a timestamp (not yet flushed) are never taken as older
+    private static boolean isOlder(LocalDateTime updatedAt, LocalDateTime than, boolean orSame) {
+        if (updatedAt == null || than == null) {
+            return false;
+        }
+        return orSame ? !updatedAt.isAfter(than) : updatedAt.isBefore(than);
+    }
+
+    private static <K> void addPosting(Map<K, PostingList> index, K key, long id) {
+        index.compute(key, (k, ids) -> {
+            PostingList list = ids != null ? ids : new PostingList();
+            list.add(id);
+            return list;
+        });
+    }
+
+    private static <K> void removePosting(Map<K, PostingList> index, K key, long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.size() == 0 ? null : ids;
+        });
+    }
+
+    private Watermark currentWatermark(Watermark since) {
+        Optional<LocalDateTime> maxUpdatedAt = patientRepository.findMaxUpdatedAt();
+        if (maxUpdatedAt.isEmpty()) {
+            return since;
+        }
+        Watermark next = new Watermark(maxUpdatedAt.get(),
+                patientRepository.findMaxIdByUpdatedAt(maxUpdatedAt.get()).orElse(0L));
+        return next.compareTo(since) > 0 ? next : since;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    static String digitsOf(String value) {
+        return value.replaceAll("\\D", "");
+    }
+
+    static Set<String> trigramsOf(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    public record DuplicateMatch(long id, double score) {
+    }
+
+    // Ascending ids in a growable array. Patients are mostly created in id order, so adds are usually appends;
+    // lookups are binary searches.
+    static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        synchronized void add(long id) {
+            int index = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        synchronized void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            if (size < ids.length >> 2 && ids.length > 4) {
+                ids = Arrays.copyOf(ids, Math.max(4, size << 1));
+            }
+        }
+    }
+
+    private record ScoredPatient(IndexedPatient document, int score) {
+    }
+
+    // Normalized copies of the searchable fields; immutable so readers never see a half-applied update.
+    // Trigrams are recomputed from these when the document is replaced rather than kept per patient.
+    private record IndexedPatient(long id, LocalDateTime updatedAt, String patientId, String firstName, String lastName,
+                                  String fullName, String phone, String phoneDigits, String email,
+                                  LocalDate dateOfBirth, String matchFirstName, String matchLastName,
+                                  String firstNameKey, String lastNameKey) {
+
+        static IndexedPatient of(Patient patient) {
+            String firstName = normalize(patient.getFirstName());
+            String lastName = normalize(patient.getLastName());
+            String fullName = (firstName + " " + lastName).trim();
+            String phone = normalize(patient.getPhone());
+            String phoneDigits = digitsOf(phone);
+            String patientId = normalize(patient.getPatientId());
+            String email = normalize(patient.getEmail());
+            String matchFirstName = NameMatching.normalize(patient.getFirstName());
+            String matchLastName = NameMatching.normalize(patient.getLastName());
+            return new IndexedPatient(patient.getId(), patient.getUpdatedAt(), patientId, firstName, lastName,
+                    fullName, phone, phoneDigits, email, patient.getDateOfBirth(),
+                    matchFirstName, matchLastName,
+                    NameMatching.phoneticKey(matchFirstName), NameMatching.phoneticKey(matchLastName));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String field : List.of(patientId, fullName, phone, phoneDigits, email)) {
+                grams.addAll(trigramsOf(field));
+            }
+            return grams;
+        }
+
+        // Exact > prefix > word prefix > substring, weighted by field; 0 means no match
+        int score(String term, String digits) {
+            int best = Math.max(fieldScore(patientId, term) * 3, fieldScore(lastName, term) * 2);
+            best = Math.max(best, fieldScore(firstName, term) * 2);
+            best = Math.max(best, fieldScore(fullName, term) * 2);
+            best = Math.max(best, fieldScore(email, term));
+            best = Math.max(best, fieldScore(phone, term));
+            if (digits.length() >= GRAM) {
+                best = Math.max(best, fieldScore(phoneDigits, digits));
+            }
+            return best;
+        }
+
+        private static int fieldScore(String value, String term) {
+            if (value.isEmpty()) {
+                return 0;
+            }
+            if (value.equals(term)) {
+                return 100;
+            }
+            if (value.startsWith(term)) {
+                return 60;
+            }
+            int index = value.indexOf(term);
+            if (index < 0) {
+                return 0;
+            }
+            char before = value.charAt(index - 1);
+            return Character.isLetterOrDigit(before) ? 20 : 40;
+        }
+    }
+}
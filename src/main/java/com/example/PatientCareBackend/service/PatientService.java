@@ -1,18 +1,29 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.PatientRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
+import com.example.PatientCareBackend.dto.response.DuplicateCandidateResponse;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.PatientResponse;
+import com.example.PatientCareBackend.exception.DuplicatePatientException;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Patient;
 import com.example.PatientCareBackend.repository.PatientRepository;
+import com.example.PatientCareBackend.repository.VitalRollupRepository;
+import com.example.PatientCareBackend.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.Year;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +31,20 @@ import java.util.stream.Collectors;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final PatientSearchIndex patientSearchIndex;
+    private final LatestVitalsStore latestVitalsStore;
+    private final VitalRollupRepository vitalRollupRepository;
+
+    @Value("${patients.duplicates.threshold:0.85}")
+    private double duplicateThreshold;
+
+    @Value("${patients.duplicates.max-candidates:5}")
+    private int maxDuplicateCandidates;
+
+    // When set, likely duplicates are rejected with a 409 until confirmedNotDuplicate is sent; otherwise the patient is
+    // registered and the candidates come back on the 201 as a warning
+    @Value("${patients.duplicates.block-registration:false}")
+    private boolean blockDuplicateRegistration;
 
     // Generate unique patient ID: HOSP-YYYY-XXXXX
     private String generatePatientId() {
@@ -29,10 +54,13 @@ public class PatientService {
     }
 
     @Transactional(readOnly = true)
-    public List<PatientResponse> getAllPatients() {
-        return patientRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<PatientResponse> getAllPatients(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit rows = Limit.of(limit + 1);
+        return CursorPage.of(after == null
+                        ? patientRepository.findFirstPage(rows)
+                        : patientRepository.findPageAfter(after.sortKey(), after.id(), rows),
+                limit, row -> new PageCursor(row.getCreatedAt(), row.getId()), this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -44,6 +72,16 @@ public class PatientService {
 
     @Transactional
     public PatientResponse createPatient(PatientRequest patientRequest) {
+        List<DuplicateCandidateResponse> duplicates = List.of();
+        if (!Boolean.TRUE.equals(patientRequest.getConfirmedNotDuplicate())) {
+            duplicates = findDuplicateCandidates(
+                    patientRequest.getFirstName(), patientRequest.getLastName(), patientRequest.getDateOfBirth());
+            if (blockDuplicateRegistration && !duplicates.isEmpty()) {
+                throw new DuplicatePatientException("A patient with a similar name and date of birth already exists; "
+                        + "resubmit with confirmedNotDuplicate=true to register anyway", duplicates);
+            }
+        }
+
         Patient patient = new Patient();
 
         // Generate unique patient ID
@@ -68,7 +106,12 @@ public class PatientService {
         patient.setSampleStorageConsent(patientRequest.getSampleStorageConsent() != null ? patientRequest.getSampleStorageConsent() : false);
 
         Patient savedPatient = patientRepository.save(patient);
-        return mapToResponse(savedPatient);
+        patientSearchIndex.indexAfterCommit(savedPatient);
+        PatientResponse response = mapToResponse(savedPatient);
+        if (!duplicates.isEmpty()) {
+            response.setDuplicateCandidates(duplicates);
+        }
+        return response;
     }
 
     @Transactional
@@ -104,6 +147,9 @@ public class PatientService {
         }
 
         Patient updatedPatient = patientRepository.save(patient);
+        patientSearchIndex.indexAfterCommit(updatedPatient);
+        latestVitalsStore.updatePatientAfterCommit(new PatientRef(updatedPatient.getId(), updatedPatient.getPatientId(),
+                updatedPatient.getFirstName(), updatedPatient.getLastName()));
         return mapToResponse(updatedPatient);
     }
 
@@ -112,15 +158,57 @@ public class PatientService {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + id));
         patientRepository.delete(patient);
+        vitalRollupRepository.deleteByPatientId(id);
+        patientSearchIndex.removeAfterCommit(id);
+        latestVitalsStore.removePatientAfterCommit(id);
     }
 
+    // Ranked matches from the in-memory index; the LIKE query only serves searches while the index is being built
     @Transactional(readOnly = true)
-    public List<PatientResponse> searchPatients(String query) {
-        return patientRepository.searchPatients(query).stream()
+    public List<PatientResponse> searchPatients(String query, int limit) {
+        if (!patientSearchIndex.isReady()) {
+            return patientRepository.searchPatients(query).stream()
+                    .limit(limit)
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> ids = patientSearchIndex.search(query, limit);
+        Map<Long, Patient> patients = patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        return ids.stream()
+                .map(patients::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    // Empty while the index is still being built, so registration is never blocked on it
+    @Transactional(readOnly = true)
+    public List<DuplicateCandidateResponse> findDuplicateCandidates(String firstName, String lastName, LocalDate dateOfBirth) {
+        if (!patientSearchIndex.isReady()) {
+            return List.of();
+        }
+
+        List<PatientSearchIndex.DuplicateMatch> matches = patientSearchIndex.findDuplicates(
+                firstName, lastName, dateOfBirth, duplicateThreshold, maxDuplicateCandidates);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Patient> patients = patientRepository.findAllById(
+                        matches.stream().map(PatientSearchIndex.DuplicateMatch::id).toList()).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> patients.containsKey(match.id()))
+                .map(match -> {
+                    Patient patient = patients.get(match.id());
+                    return new DuplicateCandidateResponse(patient.getId(), patient.getPatientId(),
+                            patient.getFirstName(), patient.getLastName(), patient.getDateOfBirth(),
+                            patient.getPhone(), match.score());
+                })
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public PatientResponse getPatientByPatientId(String patientId) {
         Patient patient = patientRepository.findByPatientId(patientId)
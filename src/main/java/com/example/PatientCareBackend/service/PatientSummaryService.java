@@ -0,0 +1,123 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.response.PatientResponse;
+import com.example.PatientCareBackend.dto.response.PatientSummaryResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Builds the chart-open summary by querying every section at once, each in its own read-only transaction on its
+// own connection, so the response takes as long as the slowest section rather than the sum of them.
+// When the pool is saturated the request thread runs the section itself, degrading to sequential instead of failing.
+@Service
+@RequiredArgsConstructor
+public class PatientSummaryService {
+
+    private final PatientService patientService;
+    private final VitalDataService vitalDataService;
+    private final ICUService icuService;
+    private final LabTestService labTestService;
+    private final PharmacyService pharmacyService;
+    private final SurgeryService surgeryService;
+    private final AppointmentService appointmentService;
+    private final PostOperativeService postOperativeService;
+
+    @Value("${patients.summary.pool-size:6}")
+    private int poolSize;
+
+    @Value("${patients.summary.queue-capacity:48}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "patient-summary-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public PatientSummaryResponse getSummary(Long patientId, int limit) {
+        CompletableFuture<PatientResponse> patient = submit(() -> patientService.getPatientById(patientId));
+        var vitals = submit(() -> vitalDataService.getLatestVitals(patientId, limit));
+        var icuRecords = submit(() -> icuService.getRecentICUData(patientId, limit));
+        var labTests = submit(() -> labTestService.getRecentLabTestsByPatient(patientId, limit));
+        var prescriptions = submit(() -> pharmacyService.getRecentPrescriptionsByPatient(patientId, limit));
+        var surgeries = submit(() -> surgeryService.getRecentSurgeriesByPatient(patientId, limit));
+        var appointments = submit(() -> appointmentService.getRecentAppointmentsByPatient(patientId, limit));
+        var followUps = submit(() -> postOperativeService.getRecentPatientFollowups(patientId, limit));
+
+        // The patient lookup is joined first so an unknown id surfaces as its 404
+        PatientSummaryResponse summary = new PatientSummaryResponse();
+        summary.setPatient(join(patient));
+        summary.setRecentVitals(withoutPatient(join(vitals), item -> item.setPatient(null)));
+        summary.setIcuRecords(withoutPatient(join(icuRecords), item -> item.setPatient(null)));
+        summary.setLabTests(withoutPatient(join(labTests), item -> item.setPatient(null)));
+        summary.setPrescriptions(withoutPatient(join(prescriptions), item -> item.setPatient(null)));
+        summary.setSurgeries(withoutPatient(join(surgeries), item -> item.setPatient(null)));
+        summary.setAppointments(withoutPatient(join(appointments), item -> item.setPatient(null)));
+        summary.setFollowUps(withoutPatient(join(followUps), item -> item.setPatient(null)));
+        summary.setGeneratedAt(LocalDateTime.now());
+        return summary;
+    }
+
+    // The caller's security context travels with the task; a task run by the caller itself already has it
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        Thread caller = Thread.currentThread();
+        SecurityContext callerContext = SecurityContextHolder.getContext();
+        return CompletableFuture.supplyAsync(() -> {
+            if (Thread.currentThread() == caller) {
+                return task.get();
+            }
+            SecurityContextHolder.setContext(callerContext);
+            try {
+                return task.get();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }, executor);
+    }
+
+    // Rethrows the section's own exception, e.g. ResourceNotFoundException, so the usual handler maps it
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static <T> List<T> withoutPatient(List<T> items, Consumer<T> clearPatient) {
+        items.forEach(clearPatient);
+        return items;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.PharmacyRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.PharmacyResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Patient;
@@ -9,13 +11,14 @@ import com.example.PatientCareBackend.model.User;
 import com.example.PatientCareBackend.repository.PatientRepository;
 import com.example.PatientCareBackend.repository.PharmacyRepository;
 import com.example.PatientCareBackend.repository.UserRepository;
+import com.example.PatientCareBackend.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +27,7 @@ public class PharmacyService {
     private final PharmacyRepository pharmacyRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional
     public PharmacyResponse createPrescription(PharmacyRequest pharmacyRequest) {
@@ -44,14 +48,18 @@ public class PharmacyService {
         prescription.setStatus(pharmacyRequest.getStatus());
 
         Pharmacy savedPrescription = pharmacyRepository.save(prescription);
-        return mapToResponse(savedPrescription);
+        return mapToResponse(savedPrescription, patientRefResolver.resolve(savedPrescription.getPatient()));
     }
 
     @Transactional(readOnly = true)
-    public List<PharmacyResponse> getAllPrescriptions() {
-        return pharmacyRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<PharmacyResponse> getAllPrescriptions(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit rows = Limit.of(limit + 1);
+        return CursorPage.ofPage(after == null
+                        ? pharmacyRepository.findFirstPage(rows)
+                        : pharmacyRepository.findPageAfter(after.sortKey(), after.id(), rows),
+                limit, row -> new PageCursor(row.getCreatedAt(), row.getId()),
+                page -> patientRefResolver.mapAll(page, Pharmacy::getPatient, this::mapToResponse));
     }
 
     @Transactional(readOnly = true)
@@ -60,9 +68,15 @@ public class PharmacyService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return pharmacyRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(pharmacyRepository.findByPatientId(patientId),
+                Pharmacy::getPatient, this::mapToResponse);
+    }
+
+    // Newest first, no existence check: callers have already resolved the patient
+    @Transactional(readOnly = true)
+    public List<PharmacyResponse> getRecentPrescriptionsByPatient(Long patientId, int limit) {
+        return patientRefResolver.mapAll(pharmacyRepository.findByPatientIdOrderByCreatedAtDesc(patientId, Limit.of(limit)),
+                Pharmacy::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -80,21 +94,20 @@ public class PharmacyService {
         }
 
         Pharmacy updatedPrescription = pharmacyRepository.save(prescription);
-        return mapToResponse(updatedPrescription);
+        return mapToResponse(updatedPrescription, patientRefResolver.resolve(updatedPrescription.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public PharmacyResponse getPrescriptionById(Long id) {
         Pharmacy prescription = pharmacyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Prescription not found with id: " + id));
-        return mapToResponse(prescription);
+        return mapToResponse(prescription, patientRefResolver.resolve(prescription.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<PharmacyResponse> getPendingPrescriptions() {
-        return pharmacyRepository.findPendingPrescriptions().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(pharmacyRepository.findPendingPrescriptions(),
+                Pharmacy::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -103,9 +116,8 @@ public class PharmacyService {
             throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
         }
 
-        return pharmacyRepository.findByDoctorId(doctorId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(pharmacyRepository.findByDoctorId(doctorId),
+                Pharmacy::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -114,16 +126,14 @@ public class PharmacyService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return pharmacyRepository.findActivePrescriptionsByPatient(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(pharmacyRepository.findActivePrescriptionsByPatient(patientId),
+                Pharmacy::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<PharmacyResponse> searchByMedicationName(String medicationName) {
-        return pharmacyRepository.findByMedicationNameContaining(medicationName).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(pharmacyRepository.findByMedicationNameContaining(medicationName),
+                Pharmacy::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -133,10 +143,10 @@ public class PharmacyService {
         pharmacyRepository.delete(prescription);
     }
 
-    private PharmacyResponse mapToResponse(Pharmacy prescription) {
+    private PharmacyResponse mapToResponse(Pharmacy prescription, PatientRef patient) {
         return new PharmacyResponse(
                 prescription.getId(),
-                mapToPatientResponse(prescription.getPatient()),
+                patient,
                 mapToUserResponse(prescription.getDoctor()),
                 prescription.getMedicationName(),
                 prescription.getDosage(),
@@ -150,31 +160,6 @@ public class PharmacyService {
         );
     }
 
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
-
     private com.example.PatientCareBackend.dto.response.UserResponse mapToUserResponse(User user) {
         return new com.example.PatientCareBackend.dto.response.UserResponse(
                 user.getId(),
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.PostOperativeRequest;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.PostOperativeResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Patient;
@@ -10,11 +11,11 @@ import com.example.PatientCareBackend.repository.PatientRepository;
 import com.example.PatientCareBackend.repository.PostOperativeRepository;
 import com.example.PatientCareBackend.repository.SurgeryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +24,7 @@ public class PostOperativeService {
     private final PostOperativeRepository postOperativeRepository;
     private final PatientRepository patientRepository;
     private final SurgeryRepository surgeryRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional
     public PostOperativeResponse recordFollowup(PostOperativeRequest followupRequest) {
@@ -44,7 +46,7 @@ public class PostOperativeService {
         followup.setNotes(followupRequest.getNotes());
 
         PostOperative savedFollowup = postOperativeRepository.save(followup);
-        return mapToResponse(savedFollowup);
+        return mapToResponse(savedFollowup, patientRefResolver.resolve(savedFollowup.getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -53,9 +55,15 @@ public class PostOperativeService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return postOperativeRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(postOperativeRepository.findByPatientId(patientId),
+                PostOperative::getPatient, this::mapToResponse);
+    }
+
+    // Newest first, no existence check: callers have already resolved the patient
+    @Transactional(readOnly = true)
+    public List<PostOperativeResponse> getRecentPatientFollowups(Long patientId, int limit) {
+        return patientRefResolver.mapAll(postOperativeRepository.findByPatientIdOrderByCreatedAtDesc(patientId, Limit.of(limit)),
+                PostOperative::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -64,37 +72,33 @@ public class PostOperativeService {
             throw new ResourceNotFoundException("Surgery not found with id: " + surgeryId);
         }
 
-        return postOperativeRepository.findBySurgeryId(surgeryId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(postOperativeRepository.findBySurgeryId(surgeryId),
+                PostOperative::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public PostOperativeResponse getFollowupById(Long id) {
         PostOperative followup = postOperativeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post-operative followup not found with id: " + id));
-        return mapToResponse(followup);
+        return mapToResponse(followup, patientRefResolver.resolve(followup.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<PostOperativeResponse> getFollowupsByType(PostOperative.FollowupType followupType) {
-        return postOperativeRepository.findByFollowupType(followupType).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(postOperativeRepository.findByFollowupType(followupType),
+                PostOperative::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<PostOperativeResponse> getNonAdherentPatients() {
-        return postOperativeRepository.findNonAdherentPatients().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(postOperativeRepository.findNonAdherentPatients(),
+                PostOperative::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<PostOperativeResponse> getOverdueFollowups() {
-        return postOperativeRepository.findOverdueFollowups().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(postOperativeRepository.findOverdueFollowups(),
+                PostOperative::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -119,14 +123,15 @@ public class PostOperativeService {
         followup.setNotes(followupRequest.getNotes());
 
         PostOperative updatedFollowup = postOperativeRepository.save(followup);
-        return mapToResponse(updatedFollowup);
+        return mapToResponse(updatedFollowup, patientRefResolver.resolve(updatedFollowup.getPatient()));
     }
 
-    private PostOperativeResponse mapToResponse(PostOperative followup) {
+    private PostOperativeResponse mapToResponse(PostOperative followup, PatientRef patient) {
         return new PostOperativeResponse(
                 followup.getId(),
-                mapToPatientResponse(followup.getPatient()),
-                mapToSurgeryResponse(followup.getSurgery()),
+                patient,
+                mapToSurgeryResponse(followup.getSurgery(),
+                        patientRefResolver.resolve(followup.getSurgery().getPatient(), patient)),
                 followup.getFollowupType(),
                 followup.getSymptoms(),
                 followup.getImprovements(),
@@ -138,35 +143,10 @@ public class PostOperativeService {
         );
     }
 
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
-
-    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery) {
+    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery, PatientRef patient) {
         return new com.example.PatientCareBackend.dto.response.SurgeryResponse(
                 surgery.getId(),
-                mapToPatientResponse(surgery.getPatient()),
+                patient,
                 surgery.getProcedureName(),
                 surgery.getUrgency(),
                 surgery.getRecommendedBy(),
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.PreOperativeRequest;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.PreOperativeResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Patient;
@@ -12,7 +13,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +20,7 @@ public class PreOperativeService {
 
     private final PreOperativeRepository preOperativeRepository;
     private final PatientRepository patientRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional
     public PreOperativeResponse submitChecklist(PreOperativeRequest checklistRequest) {
@@ -68,28 +69,27 @@ public class PreOperativeService {
         checklist.setCompletedBy(checklistRequest.getCompletedBy());
 
         PreOperative savedChecklist = preOperativeRepository.save(checklist);
-        return mapToResponse(savedChecklist);
+        return mapToResponse(savedChecklist, patientRefResolver.resolve(savedChecklist.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public PreOperativeResponse getChecklistByPatient(Long patientId) {
         PreOperative checklist = preOperativeRepository.findByPatientId(patientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Pre-operative checklist not found for patient id: " + patientId));
-        return mapToResponse(checklist);
+        return mapToResponse(checklist, patientRefResolver.resolve(checklist.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public PreOperativeResponse getChecklistById(Long id) {
         PreOperative checklist = preOperativeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pre-operative checklist not found with id: " + id));
-        return mapToResponse(checklist);
+        return mapToResponse(checklist, patientRefResolver.resolve(checklist.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<PreOperativeResponse> getAllChecklists() {
-        return preOperativeRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(preOperativeRepository.findAll(),
+                PreOperative::getPatient, this::mapToResponse);
     }
 
     @Transactional
@@ -129,7 +129,7 @@ public class PreOperativeService {
         checklist.setCompletedBy(checklistRequest.getCompletedBy());
 
         PreOperative updatedChecklist = preOperativeRepository.save(checklist);
-        return mapToResponse(updatedChecklist);
+        return mapToResponse(updatedChecklist, patientRefResolver.resolve(updatedChecklist.getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -150,10 +150,10 @@ public class PreOperativeService {
                 .orElse(false);
     }
 
-    private PreOperativeResponse mapToResponse(PreOperative checklist) {
+    private PreOperativeResponse mapToResponse(PreOperative checklist, PatientRef patient) {
         return new PreOperativeResponse(
                 checklist.getId(),
-                mapToPatientResponse(checklist.getPatient()),
+                patient,
                 checklist.getProcedureName(),
                 checklist.getPatientIdentityConfirmed(),
                 checklist.getConsentSigned(),
@@ -181,29 +181,4 @@ public class PreOperativeService {
                 checklist.getCompletedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.RateLimitProperties;
+import com.example.PatientCareBackend.dto.response.RateLimitStatsResponse;
+import com.example.PatientCareBackend.util.RateLimitBuckets;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint-group quotas keyed by the authenticated user, or by client address for anonymous callers.
+// Rejections are counted per group and subject so admins can see who is being throttled.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    // Past this many distinct subjects, new ones are counted under OTHER_SUBJECT
+    private static final int MAX_TRACKED_SUBJECTS = 10000;
+    private static final String OTHER_SUBJECT = "other";
+
+    private final RateLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<MeteredGroup> groups = new ArrayList<>();
+    private final Map<String, RejectionCounter> rejections = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (RateLimitProperties.Group group : properties.getGroups()) {
+            groups.add(new MeteredGroup(group.getName(), group.getPatterns(),
+                    new RateLimitBuckets(group.getCapacity(), Duration.ofSeconds(group.getPeriodSeconds()))));
+        }
+    }
+
+    // Takes one token from the caller's bucket for this path; returns 0 or the seconds until a retry can succeed
+    public long tryConsume(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        MeteredGroup group = resolveGroup(request.getRequestURI());
+        if (group == null || !group.buckets().isEnabled()) {
+            return 0;
+        }
+
+        String subject = resolveSubject(request);
+        long retryAfter = group.buckets().tryConsume(subject);
+        if (retryAfter > 0) {
+            recordRejection(group.name(), subject);
+        }
+        return retryAfter;
+    }
+
+    public void recordRejection(String group, String subject) {
+        String key = group + "|" + subject;
+        RejectionCounter counter = rejections.get(key);
+        if (counter == null) {
+            if (rejections.size() >= MAX_TRACKED_SUBJECTS) {
+                key = group + "|" + OTHER_SUBJECT;
+                subject = OTHER_SUBJECT;
+            }
+            String counterSubject = subject;
+            counter = rejections.computeIfAbsent(key, k -> new RejectionCounter(group, counterSubject));
+        }
+        counter.count.increment();
+        counter.lastRejectedAt = LocalDateTime.now();
+        if (counter.count.sum() == 1) {
+            log.warn("Rate limit reached for {} on {}", subject, group);
+        }
+    }
+
+    // Most throttled first
+    public List<RateLimitStatsResponse> getRejectionStats() {
+        return rejections.values().stream()
+                .map(counter -> new RateLimitStatsResponse(counter.group, counter.subject,
+                        counter.count.sum(), counter.lastRejectedAt))
+                .sorted(Comparator.comparingLong(RateLimitStatsResponse::getRejectedRequests).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-ms:60000}")
+    public void evictIdle() {
+        groups.forEach(group -> group.buckets().evictIdle());
+    }
+
+    private MeteredGroup resolveGroup(String path) {
+        for (MeteredGroup group : groups) {
+            for (String pattern : group.patterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String resolveSubject(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.getUsername();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record MeteredGroup(String name, List<String> patterns, RateLimitBuckets buckets) {
+    }
+
+    private static class RejectionCounter {
+        private final String group;
+        private final String subject;
+        private final LongAdder count = new LongAdder();
+        private volatile LocalDateTime lastRejectedAt;
+
+        private RejectionCounter(String group, String subject) {
+            this.group = group;
+            this.subject = subject;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.SurgeryRequest;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.SurgeryResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.model.Patient;
@@ -8,12 +9,12 @@ import com.example.PatientCareBackend.model.Surgery;
 import com.example.PatientCareBackend.repository.PatientRepository;
 import com.example.PatientCareBackend.repository.SurgeryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,19 +22,18 @@ public class SurgeryService {
 
     private final SurgeryRepository surgeryRepository;
     private final PatientRepository patientRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional(readOnly = true)
     public List<SurgeryResponse> getAllSurgeries() {
-        return surgeryRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgeryRepository.findAll(), Surgery::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public SurgeryResponse getSurgeryById(Long id) {
         Surgery surgery = surgeryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Surgery not found with id: " + id));
-        return mapToResponse(surgery);
+        return mapToResponse(surgery, patientRefResolver.resolve(surgery.getPatient()));
     }
 
     @Transactional
@@ -57,7 +57,7 @@ public class SurgeryService {
         surgery.setCreatedAt(LocalDateTime.now());
 
         Surgery savedSurgery = surgeryRepository.save(surgery);
-        return mapToResponse(savedSurgery);
+        return mapToResponse(savedSurgery, patientRefResolver.resolve(savedSurgery.getPatient()));
     }
 
     @Transactional
@@ -82,7 +82,7 @@ public class SurgeryService {
         surgery.setDurationMinutes(surgeryRequest.getDurationMinutes());
 
         Surgery updatedSurgery = surgeryRepository.save(surgery);
-        return mapToResponse(updatedSurgery);
+        return mapToResponse(updatedSurgery, patientRefResolver.resolve(updatedSurgery.getPatient()));
     }
 
     @Transactional
@@ -109,7 +109,7 @@ public class SurgeryService {
             }
 
             Surgery updatedSurgery = surgeryRepository.save(surgery);
-            return mapToResponse(updatedSurgery);
+            return mapToResponse(updatedSurgery, patientRefResolver.resolve(updatedSurgery.getPatient()));
         } catch (IllegalArgumentException e) {
             throw new ResourceNotFoundException("Invalid status: " + status);
         }
@@ -121,25 +121,29 @@ public class SurgeryService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return surgeryRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgeryRepository.findByPatientId(patientId),
+                Surgery::getPatient, this::mapToResponse);
+    }
+
+    // Newest first, no existence check: callers have already resolved the patient
+    @Transactional(readOnly = true)
+    public List<SurgeryResponse> getRecentSurgeriesByPatient(Long patientId, int limit) {
+        return patientRefResolver.mapAll(surgeryRepository.findByPatientIdOrderByCreatedAtDesc(patientId, Limit.of(limit)),
+                Surgery::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<SurgeryResponse> getPendingConsentSurgeries() {
-        return surgeryRepository.findPendingConsentSurgeries().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgeryRepository.findPendingConsentSurgeries(),
+                Surgery::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<SurgeryResponse> getSurgeriesByStatus(String status) {
         try {
             Surgery.SurgeryStatus surgeryStatus = Surgery.SurgeryStatus.valueOf(status);
-            return surgeryRepository.findByStatus(surgeryStatus).stream()
-                    .map(this::mapToResponse)
-                    .collect(Collectors.toList());
+            return patientRefResolver.mapAll(surgeryRepository.findByStatus(surgeryStatus),
+                    Surgery::getPatient, this::mapToResponse);
         } catch (IllegalArgumentException e) {
             throw new ResourceNotFoundException("Invalid status: " + status);
         }
@@ -147,22 +151,20 @@ public class SurgeryService {
 
     @Transactional(readOnly = true)
     public List<SurgeryResponse> getSurgeriesBySurgeon(String surgeonName) {
-        return surgeryRepository.findBySurgeonName(surgeonName).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgeryRepository.findBySurgeonName(surgeonName),
+                Surgery::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<SurgeryResponse> getSurgeriesBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
-        return surgeryRepository.findSurgeriesBetweenDates(startDate, endDate).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgeryRepository.findSurgeriesBetweenDates(startDate, endDate),
+                Surgery::getPatient, this::mapToResponse);
     }
 
-    private SurgeryResponse mapToResponse(Surgery surgery) {
+    private SurgeryResponse mapToResponse(Surgery surgery, PatientRef patient) {
         return new SurgeryResponse(
                 surgery.getId(),
-                mapToPatientResponse(surgery.getPatient()),
+                patient,
                 surgery.getProcedureName(),
                 surgery.getUrgency(),
                 surgery.getRecommendedBy(),
@@ -177,29 +179,4 @@ public class SurgeryService {
                 surgery.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
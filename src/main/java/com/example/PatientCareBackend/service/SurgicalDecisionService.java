@@ -1,9 +1,9 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.SurgicalDecisionRequest;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.SurgicalDecisionResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
-import com.example.PatientCareBackend.model.Patient;
 import com.example.PatientCareBackend.model.SurgicalDecision;
 import com.example.PatientCareBackend.model.Surgery;
 import com.example.PatientCareBackend.repository.SurgicalDecisionRepository;
@@ -15,7 +15,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +22,7 @@ public class SurgicalDecisionService {
 
     private final SurgicalDecisionRepository surgicalDecisionRepository;
     private final SurgeryRepository surgeryRepository;
+    private final PatientRefResolver patientRefResolver;
 
     @Transactional
     public SurgicalDecisionResponse submitDecision(SurgicalDecisionRequest decisionRequest) {
@@ -39,7 +39,7 @@ public class SurgicalDecisionService {
         decision.setFactorsConsidered(JsonUtil.toJson(decisionRequest.getFactorsConsidered()));
 
         SurgicalDecision savedDecision = surgicalDecisionRepository.save(decision);
-        return mapToResponse(savedDecision);
+        return mapToResponse(savedDecision, patientRefResolver.resolve(savedDecision.getSurgery().getPatient()));
     }
 
     @Transactional(readOnly = true)
@@ -48,9 +48,8 @@ public class SurgicalDecisionService {
             throw new ResourceNotFoundException("Surgery not found with id: " + surgeryId);
         }
 
-        return surgicalDecisionRepository.findBySurgeryId(surgeryId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgicalDecisionRepository.findBySurgeryId(surgeryId),
+                decision -> decision.getSurgery().getPatient(), this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -82,14 +81,13 @@ public class SurgicalDecisionService {
     public SurgicalDecisionResponse getDecisionById(Long id) {
         SurgicalDecision decision = surgicalDecisionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Surgical decision not found with id: " + id));
-        return mapToResponse(decision);
+        return mapToResponse(decision, patientRefResolver.resolve(decision.getSurgery().getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<SurgicalDecisionResponse> getDecisionsBySurgeon(String surgeonName) {
-        return surgicalDecisionRepository.findBySurgeonName(surgeonName).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(surgicalDecisionRepository.findBySurgeonName(surgeonName),
+                decision -> decision.getSurgery().getPatient(), this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
@@ -98,10 +96,10 @@ public class SurgicalDecisionService {
         return (Boolean) consensus.get("consensusReached");
     }
 
-    private SurgicalDecisionResponse mapToResponse(SurgicalDecision decision) {
+    private SurgicalDecisionResponse mapToResponse(SurgicalDecision decision, PatientRef patient) {
         SurgicalDecisionResponse response = new SurgicalDecisionResponse();
         response.setId(decision.getId());
-        response.setSurgery(mapToSurgeryResponse(decision.getSurgery()));
+        response.setSurgery(mapToSurgeryResponse(decision.getSurgery(), patient));
         response.setSurgeonName(decision.getSurgeonName());
         response.setDecisionStatus(decision.getDecisionStatus());
         response.setComments(decision.getComments());
@@ -113,10 +111,10 @@ public class SurgicalDecisionService {
         return response;
     }
 
-    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery) {
+    private com.example.PatientCareBackend.dto.response.SurgeryResponse mapToSurgeryResponse(Surgery surgery, PatientRef patient) {
         return new com.example.PatientCareBackend.dto.response.SurgeryResponse(
                 surgery.getId(),
-                mapToPatientResponse(surgery.getPatient()),
+                patient,
                 surgery.getProcedureName(),
                 surgery.getUrgency(),
                 surgery.getRecommendedBy(),
@@ -131,29 +129,4 @@ public class SurgicalDecisionService {
                 surgery.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),  // Position 15: Boolean
-                patient.getConsentFormPath(),  // Position 16: String
-                patient.getResearchConsent(),  // Position 17: Boolean
-                patient.getSampleStorageConsent(),  // Position 18: Boolean
-                patient.getCreatedAt(),        // Position 19: LocalDateTime
-                patient.getUpdatedAt()         // Position 20: LocalDateTime
-        );
-    }
 }
\ No newline at end of file
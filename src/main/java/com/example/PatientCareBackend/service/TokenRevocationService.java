@@ -0,0 +1,106 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-user token cut-off times, so stateless authentication can still reject deleted users and stale credentials.
+// Only cut-offs younger than the token lifetime are kept, since older ones predate every token that still verifies;
+// they are re-read every few seconds, which also picks up revocations made on other instances. Whether a user still
+// exists is checked by id and remembered for a while in a bounded cache, so unknown ids cannot grow memory and cost
+// at most one lookup per id and TTL.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.jwt.user-cache-size:10000}")
+    private int userCacheSize;
+
+    // Matches the revocation refresh: a deleted user has no row left to carry a cut-off time
+    @Value("${security.jwt.user-check-ttl-ms:5000}")
+    private long userCheckTtlMillis;
+
+    private volatile Map<Long, LocalDateTime> revocations = new ConcurrentHashMap<>();
+
+    // Least recently used entries are dropped first once the cache is full
+    private final Map<Long, UserCheck> userChecks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserCheck> eldest) {
+            return size() > userCacheSize;
+        }
+    };
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-refresh-ms:5000}")
+    public void refresh() {
+        Map<Long, LocalDateTime> fresh = new ConcurrentHashMap<>();
+        LocalDateTime since = LocalDateTime.now().minus(JwtService.TOKEN_LIFETIME);
+        for (Object[] row : userRepository.findTokenRevocationsSince(since)) {
+            fresh.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        revocations = fresh;
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (!exists(userId)) {
+            return true;
+        }
+        LocalDateTime revokedAt = revocations.get(userId);
+        if (revokedAt == null) {
+            return false;
+        }
+        if (issuedAt == null) {
+            return true;
+        }
+
+        // iat has second precision, so a token issued in the same second as the revocation may predate it and is
+        // rejected too; at worst a user who signs in during that second has to sign in again
+        LocalDateTime issued = LocalDateTime.ofInstant(issuedAt.toInstant(), ZoneId.systemDefault());
+        return !issued.isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public void revoke(Long userId, LocalDateTime revokedAt) {
+        revocations.put(userId, revokedAt);
+        log.info("Revoked tokens issued before {} for user {}", revokedAt, userId);
+    }
+
+    public void forget(Long userId) {
+        remember(userId, false);
+    }
+
+    private boolean exists(Long userId) {
+        UserCheck check;
+        synchronized (userChecks) {
+            check = userChecks.get(userId);
+        }
+        if (check != null && System.currentTimeMillis() - check.checkedAt() < userCheckTtlMillis) {
+            return check.exists();
+        }
+        // Outside the lock; concurrent misses for the same id may both query, which is harmless
+        boolean exists = userRepository.existsById(userId);
+        remember(userId, exists);
+        return exists;
+    }
+
+    private void remember(Long userId, boolean exists) {
+        synchronized (userChecks) {
+            userChecks.put(userId, new UserCheck(exists, System.currentTimeMillis()));
+        }
+    }
+
+    private record UserCheck(boolean exists, long checkedAt) {
+    }
+}
@@ -1,17 +1,21 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.UserRequest;
+import com.example.PatientCareBackend.dto.response.CursorPage;
 import com.example.PatientCareBackend.dto.response.DoctorResponse;
 import com.example.PatientCareBackend.dto.response.UserResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
 import com.example.PatientCareBackend.exception.ValidationException;
 import com.example.PatientCareBackend.model.User;
 import com.example.PatientCareBackend.repository.UserRepository;
+import com.example.PatientCareBackend.util.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,12 +25,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    public CursorPage<UserResponse> getAllUsers(String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Limit rows = Limit.of(limit + 1);
+        return CursorPage.of(after == null
+                        ? userRepository.findFirstPage(rows)
+                        : userRepository.findPageAfter(after.sortKey(), after.id(), rows),
+                limit, row -> new PageCursor(row.getCreatedAt(), row.getId()), this::mapToUserResponse);
     }
 
     @Transactional(readOnly = true)
@@ -87,6 +95,9 @@ public class UserService {
             throw new ValidationException("Email already exists: " + userRequest.getEmail());
         }
 
+        // Outstanding tokens carry the old role, so a role change has to cut them off
+        boolean revokeTokens = user.getRole() != userRequest.getRole();
+
         user.setEmail(userRequest.getEmail());
         user.setFirstName(userRequest.getFirstName());
         user.setLastName(userRequest.getLastName());
@@ -100,9 +111,16 @@ public class UserService {
         // Only update password if provided
         if (userRequest.getPassword() != null && !userRequest.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            revokeTokens = true;
         }
 
+        if (revokeTokens) {
+            user.setTokensRevokedAt(LocalDateTime.now());
+        }
         User updatedUser = userRepository.save(user);
+        if (revokeTokens) {
+            tokenRevocationService.revoke(updatedUser.getId(), updatedUser.getTokensRevokedAt());
+        }
         return mapToUserResponse(updatedUser);
     }
 
@@ -112,6 +130,7 @@ public class UserService {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        tokenRevocationService.forget(id);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,85 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.repository.VitalDataRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Brings readings stored on other instances into LatestVitalsStore and DeteriorationMonitor. Every few seconds the
+// rows created since the previous run are read once, as VitalReading projections, and handed to both in created_at
+// order. It also warms both once the application is ready, taking the watermark first, so readings committed during
+// the warm-up are picked up by the first catch-up.
+@Service
+@RequiredArgsConstructor
+public class VitalDataFeed {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final VitalDataRepository vitalDataRepository;
+    private final LatestVitalsStore latestVitalsStore;
+    private final DeteriorationMonitor deteriorationMonitor;
+    private final PlatformTransactionManager transactionManager;
+
+    // Readings are stamped when they are saved but only become visible when their transaction commits
+    @Value("${vitals.feed.catch-up-overlap-seconds:30}")
+    private long catchUpOverlapSeconds;
+
+    private volatile LocalDateTime watermark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime started = LocalDateTime.now();
+        latestVitalsStore.warm();
+        deteriorationMonitor.rebuild();
+        watermark = started;
+    }
+
+    @Scheduled(fixedDelayString = "${vitals.feed.refresh-ms:5000}")
+    public void catchUp() {
+        boolean storeReady = latestVitalsStore.isReady();
+        boolean monitorReady = deteriorationMonitor.isReady();
+        if (watermark == null || !storeReady && !monitorReady) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            LocalDateTime until = LocalDateTime.now();
+            LocalDateTime since = watermark.minusSeconds(catchUpOverlapSeconds);
+            // The replay is closed first, so ICU records after the last ward reading are still observed
+            try (Stream<VitalReading> rows = vitalDataRepository.streamReadingsCreatedAfter(since);
+                 DeteriorationMonitor.Replay replay = monitorReady ? deteriorationMonitor.replay(since) : null) {
+                Iterator<VitalReading> iterator = rows.iterator();
+                List<VitalReading> batch = new ArrayList<>(BATCH_SIZE);
+                while (iterator.hasNext()) {
+                    VitalReading reading = iterator.next();
+                    if (replay != null) {
+                        replay.accept(reading);
+                    }
+                    if (storeReady) {
+                        batch.add(reading);
+                        if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                            latestVitalsStore.load(batch);
+                            batch.clear();
+                        }
+                    }
+                }
+            }
+            watermark = until;
+        });
+        if (monitorReady) {
+            deteriorationMonitor.dropStalePatients();
+        }
+    }
+}
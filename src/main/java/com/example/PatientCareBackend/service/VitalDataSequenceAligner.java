@@ -0,0 +1,48 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.model.VitalData;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// vital_data ids used to come from an IDENTITY column; the pooled vital_data_seq that replaced it starts at 1 on
+// existing databases. Before the application serves requests the sequence is moved past the highest stored id.
+// It only ever moves forward, so running on every start and on several instances is harmless.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VitalDataSequenceAligner {
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${spring.jpa.properties.hibernate.default_schema:}")
+    private String schema;
+
+    @PostConstruct
+    public void align() {
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        String sequence = prefix + "vital_data_seq";
+        String table = prefix + "vital_data";
+        try {
+            List<?> result = new TransactionTemplate(transactionManager).execute(status -> entityManager.createNativeQuery(
+                    "SELECT setval('" + sequence + "', m.max_id + " + VitalData.ID_ALLOCATION_SIZE + ") " +
+                            "FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM " + table + ") m " +
+                            "WHERE (SELECT last_value FROM " + sequence + ") <= m.max_id")
+                    .getResultList());
+            if (result != null && !result.isEmpty()) {
+                log.info("Moved {} past the existing vital_data ids to {}", sequence, result.get(0));
+            }
+        } catch (RuntimeException e) {
+            // Non-PostgreSQL databases, e.g. the H2 test schema, start with an empty table and need no alignment
+            log.warn("Could not align {} with existing vital_data ids: {}", sequence, e.getMessage());
+        }
+    }
+}
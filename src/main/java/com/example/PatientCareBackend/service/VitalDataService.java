@@ -1,20 +1,32 @@
 package com.example.PatientCareBackend.service;
 
 import com.example.PatientCareBackend.dto.request.VitalDataRequest;
+import com.example.PatientCareBackend.dto.response.PatientRef;
 import com.example.PatientCareBackend.dto.response.VitalDataResponse;
+import com.example.PatientCareBackend.dto.response.VitalStats;
+import com.example.PatientCareBackend.dto.response.VitalTrendPoint;
+import com.example.PatientCareBackend.dto.response.VitalTrendResponse;
 import com.example.PatientCareBackend.exception.ResourceNotFoundException;
+import com.example.PatientCareBackend.exception.ValidationException;
 import com.example.PatientCareBackend.model.Patient;
 import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.model.VitalRollup;
 import com.example.PatientCareBackend.repository.PatientRepository;
 import com.example.PatientCareBackend.repository.VitalDataRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,41 +36,65 @@ public class VitalDataService {
     private final VitalDataRepository vitalDataRepository;
     private final PatientRepository patientRepository;
     private final JwtService jwtService;
+    private final PatientRefResolver patientRefResolver;
+    private final LatestVitalsStore latestVitalsStore;
+    private final VitalRollupService vitalRollupService;
+    private final EarlyWarningScorer earlyWarningScorer;
+    private final DeteriorationMonitor deteriorationMonitor;
+
+    // Trends up to this range return every reading
+    @Value("${vitals.trend.raw-max-hours:48}")
+    private long trendRawMaxHours;
+
+    // Longer trends use hourly buckets while there are at most this many, daily buckets beyond
+    @Value("${vitals.trend.max-points:500}")
+    private long trendMaxPoints;
 
     @Transactional
     public VitalDataResponse recordVitalData(VitalDataRequest vitalDataRequest) {
         Patient patient = patientRepository.findById(vitalDataRequest.getPatientId())
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + vitalDataRequest.getPatientId()));
 
-        VitalData vitalData = new VitalData();
-        vitalData.setPatient(patient);
-        vitalData.setSystolicBp(vitalDataRequest.getSystolicBp());
-        vitalData.setDiastolicBp(vitalDataRequest.getDiastolicBp());
-        vitalData.setHeartRate(vitalDataRequest.getHeartRate());
-        vitalData.setRespiratoryRate(vitalDataRequest.getRespiratoryRate());
-        vitalData.setTemperature(vitalDataRequest.getTemperature());
-        vitalData.setOxygenSaturation(vitalDataRequest.getOxygenSaturation());
-        vitalData.setHeight(vitalDataRequest.getHeight());
-        vitalData.setWeight(vitalDataRequest.getWeight());
-        vitalData.setBloodGlucose(vitalDataRequest.getBloodGlucose());
-        vitalData.setPainLevel(vitalDataRequest.getPainLevel());
+        // Flushed so the insert happens now and createdAt is stamped; a sequence id no longer forces an early insert
+        VitalData savedVitalData = vitalDataRepository.saveAndFlush(toEntity(vitalDataRequest, patient));
+        vitalRollupService.recordAll(List.of(savedVitalData));
+        PatientRef patientRef = patientRefResolver.resolve(savedVitalData.getPatient());
+        latestVitalsStore.recordAfterCommit(savedVitalData, patientRef);
+        deteriorationMonitor.recordAfterCommit(List.of(savedVitalData));
+        return mapToResponse(savedVitalData, patientRef);
+    }
 
-        // Calculate BMI if height and weight are provided
-        if (vitalDataRequest.getHeight() != null && vitalDataRequest.getWeight() != null) {
-            BigDecimal heightInMeters = vitalDataRequest.getHeight().divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            if (heightInMeters.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal heightSquared = heightInMeters.multiply(heightInMeters);
-                BigDecimal bmi = vitalDataRequest.getWeight().divide(heightSquared, 2, RoundingMode.HALF_UP);
-                vitalData.setBmi(bmi);
-            }
+    // All referenced patients are checked with one projection query and the rows go out as JDBC insert batches;
+    // the whole batch is stored or rejected together
+    @Transactional
+    public List<VitalDataResponse> recordVitalDataBatch(List<VitalDataRequest> vitalDataRequests) {
+        Set<Long> patientIds = vitalDataRequests.stream()
+                .map(VitalDataRequest::getPatientId)
+                .collect(Collectors.toSet());
+        Map<Long, PatientRef> patients = new HashMap<>();
+        for (PatientRef patient : patientRepository.findRefsByIdIn(patientIds)) {
+            patients.put(patient.getId(), patient);
+        }
+        if (patients.size() != patientIds.size()) {
+            patientIds.removeAll(patients.keySet());
+            throw new ResourceNotFoundException("Patients not found with ids: " + patientIds);
         }
 
-        vitalData.setRiskLevel(calculateRiskLevel(vitalData));
-        vitalData.setNotes(vitalDataRequest.getNotes());
-        vitalData.setRecordedBy(vitalDataRequest.getRecordedBy());
-
-        VitalData savedVitalData = vitalDataRepository.save(vitalData);
-        return mapToResponse(savedVitalData);
+        List<VitalData> vitals = new ArrayList<>(vitalDataRequests.size());
+        for (VitalDataRequest vitalDataRequest : vitalDataRequests) {
+            vitals.add(toEntity(vitalDataRequest, patientRepository.getReferenceById(vitalDataRequest.getPatientId())));
+        }
+        vitalDataRepository.saveAll(vitals);
+        vitalDataRepository.flush();
+        vitalRollupService.recordAll(vitals);
+        latestVitalsStore.recordAfterCommit(vitals, patients);
+        deteriorationMonitor.recordAfterCommit(vitals);
+
+        List<VitalDataResponse> responses = new ArrayList<>(vitals.size());
+        for (VitalData vitalData : vitals) {
+            responses.add(mapToResponse(vitalData, patients.get(vitalData.getPatient().getId())));
+        }
+        return responses;
     }
 
     @Transactional(readOnly = true)
@@ -67,79 +103,130 @@ public class VitalDataService {
             throw new ResourceNotFoundException("Patient not found with id: " + patientId);
         }
 
-        return vitalDataRepository.findByPatientId(patientId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(vitalDataRepository.findByPatientId(patientId),
+                VitalData::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<VitalDataResponse> getVitalsRecordedByCurrentUser() {
-        String currentUsername = jwtService.getCurrentUser().getUsername();
-        return vitalDataRepository.findByRecordedBy(currentUsername).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        String currentUsername = jwtService.getCurrentPrincipal().getUsername();
+        return patientRefResolver.mapAll(vitalDataRepository.findByRecordedBy(currentUsername),
+                VitalData::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public List<VitalDataResponse> getCriticalVitals() {
-        return vitalDataRepository.findCriticalVitals().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(vitalDataRepository.findCriticalVitals(),
+                VitalData::getPatient, this::mapToResponse);
     }
 
     @Transactional(readOnly = true)
     public VitalDataResponse getVitalDataById(Long id) {
         VitalData vitalData = vitalDataRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vital data not found with id: " + id));
-        return mapToResponse(vitalData);
+        return mapToResponse(vitalData, patientRefResolver.resolve(vitalData.getPatient()));
     }
 
     @Transactional(readOnly = true)
     public List<VitalDataResponse> getRecentVitals(Long patientId, int hours) {
         LocalDateTime startTime = LocalDateTime.now().minusHours(hours);
-        return vitalDataRepository.findByPatientAndTimeRange(patientId, startTime, LocalDateTime.now()).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return patientRefResolver.mapAll(vitalDataRepository.findByPatientAndTimeRange(patientId, startTime, LocalDateTime.now()),
+                VitalData::getPatient, this::mapToResponse);
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: once the in-memory store is warm the ward overview never takes a database connection
     public List<VitalDataResponse> getLatestVitals(Long patientId, int limit) {
-        return vitalDataRepository.findRecentByPatient(patientId, limit).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<VitalDataResponse> latest = latestVitalsStore.latest(patientId, limit);
+        if (latest != null) {
+            return latest;
+        }
+        return patientRefResolver.mapAll(vitalDataRepository.findRecentByPatient(patientId, limit),
+                VitalData::getPatient, this::mapToResponse);
     }
 
-    private VitalData.RiskLevel calculateRiskLevel(VitalData vitalData) {
-        // Critical conditions
-        if (vitalData.getSystolicBp() < 90 || vitalData.getSystolicBp() > 180 ||
-                vitalData.getDiastolicBp() < 60 || vitalData.getDiastolicBp() > 120 ||
-                vitalData.getHeartRate() < 40 || vitalData.getHeartRate() > 140 ||
-                vitalData.getOxygenSaturation() < 90) {
-            return VitalData.RiskLevel.CRITICAL;
+    @Transactional(readOnly = true)
+    public VitalTrendResponse getVitalTrend(Long patientId, LocalDateTime from, LocalDateTime to) {
+        if (!patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with id: " + patientId);
+        }
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Trend start must be before its end");
         }
 
-        // High risk conditions
-        if (vitalData.getSystolicBp() < 100 || vitalData.getSystolicBp() > 160 ||
-                vitalData.getDiastolicBp() < 70 || vitalData.getDiastolicBp() > 100 ||
-                vitalData.getHeartRate() < 50 || vitalData.getHeartRate() > 120 ||
-                vitalData.getOxygenSaturation() < 94) {
-            return VitalData.RiskLevel.HIGH;
+        Duration range = Duration.between(from, to);
+        if (range.compareTo(Duration.ofHours(trendRawMaxHours)) <= 0) {
+            List<VitalTrendPoint> points = vitalDataRepository.findTrendByPatient(patientId, from, to).stream()
+                    .map(this::mapToTrendPoint)
+                    .toList();
+            return new VitalTrendResponse(patientId, "RAW", from, to, points);
         }
+        VitalRollup.Resolution resolution = range.toHours() <= trendMaxPoints
+                ? VitalRollup.Resolution.HOUR
+                : VitalRollup.Resolution.DAY;
+        return new VitalTrendResponse(patientId, resolution.name(), from, to,
+                vitalRollupService.getBuckets(patientId, resolution, from, to));
+    }
 
-        // Medium risk conditions
-        if (vitalData.getSystolicBp() < 110 || vitalData.getSystolicBp() > 140 ||
-                vitalData.getDiastolicBp() < 75 || vitalData.getDiastolicBp() > 90 ||
-                vitalData.getHeartRate() < 60 || vitalData.getHeartRate() > 100) {
-            return VitalData.RiskLevel.MEDIUM;
+    private VitalData toEntity(VitalDataRequest vitalDataRequest, Patient patient) {
+        VitalData vitalData = new VitalData();
+        vitalData.setPatient(patient);
+        vitalData.setSystolicBp(vitalDataRequest.getSystolicBp());
+        vitalData.setDiastolicBp(vitalDataRequest.getDiastolicBp());
+        vitalData.setHeartRate(vitalDataRequest.getHeartRate());
+        vitalData.setRespiratoryRate(vitalDataRequest.getRespiratoryRate());
+        vitalData.setTemperature(vitalDataRequest.getTemperature());
+        vitalData.setOxygenSaturation(vitalDataRequest.getOxygenSaturation());
+        vitalData.setHeight(vitalDataRequest.getHeight());
+        vitalData.setWeight(vitalDataRequest.getWeight());
+        vitalData.setBloodGlucose(vitalDataRequest.getBloodGlucose());
+        vitalData.setPainLevel(vitalDataRequest.getPainLevel());
+        vitalData.setConsciousness(vitalDataRequest.getConsciousness());
+
+        // Calculate BMI if height and weight are provided
+        if (vitalDataRequest.getHeight() != null && vitalDataRequest.getWeight() != null) {
+            BigDecimal heightInMeters = vitalDataRequest.getHeight().divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            if (heightInMeters.compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal heightSquared = heightInMeters.multiply(heightInMeters);
+                BigDecimal bmi = vitalDataRequest.getWeight().divide(heightSquared, 2, RoundingMode.HALF_UP);
+                vitalData.setBmi(bmi);
+            }
         }
 
-        return VitalData.RiskLevel.LOW;
+        int score = earlyWarningScorer.score(vitalData);
+        vitalData.setEarlyWarningScore(EarlyWarningScorer.total(score));
+        vitalData.setRiskLevel(earlyWarningScorer.riskLevel(score));
+        vitalData.setNotes(vitalDataRequest.getNotes());
+        vitalData.setRecordedBy(vitalDataRequest.getRecordedBy());
+        return vitalData;
     }
 
-    private VitalDataResponse mapToResponse(VitalData vitalData) {
+    private VitalTrendPoint mapToTrendPoint(VitalData vitalData) {
+        return new VitalTrendPoint(
+                vitalData.getCreatedAt(),
+                1,
+                singleReading(vitalData.getSystolicBp()),
+                singleReading(vitalData.getDiastolicBp()),
+                singleReading(vitalData.getHeartRate()),
+                singleReading(vitalData.getRespiratoryRate()),
+                singleReading(vitalData.getTemperature()),
+                singleReading(vitalData.getOxygenSaturation()),
+                singleReading(vitalData.getBloodGlucose()),
+                singleReading(vitalData.getPainLevel())
+        );
+    }
+
+    private static VitalStats singleReading(Number value) {
+        if (value == null) {
+            return null;
+        }
+        double v = value.doubleValue();
+        return new VitalStats(1, v, v, v);
+    }
+
+    private VitalDataResponse mapToResponse(VitalData vitalData, PatientRef patient) {
         return new VitalDataResponse(
                 vitalData.getId(),
-                mapToPatientResponse(vitalData.getPatient()),
+                patient,
                 vitalData.getSystolicBp(),
                 vitalData.getDiastolicBp(),
                 vitalData.getHeartRate(),
@@ -150,36 +237,13 @@ public class VitalDataService {
                 vitalData.getWeight(),
                 vitalData.getBloodGlucose(),
                 vitalData.getPainLevel(),
+                vitalData.getConsciousness(),
                 vitalData.getBmi(),
+                vitalData.getEarlyWarningScore(),
                 vitalData.getRiskLevel(),
                 vitalData.getNotes(),
                 vitalData.getRecordedBy(),
                 vitalData.getCreatedAt()
         );
     }
-
-    private com.example.PatientCareBackend.dto.response.PatientResponse mapToPatientResponse(Patient patient) {
-        return new com.example.PatientCareBackend.dto.response.PatientResponse(
-                patient.getId(),
-                patient.getPatientId(),
-                patient.getFirstName(),
-                patient.getLastName(),
-                patient.getDateOfBirth(),
-                patient.getGender(),
-                patient.getPhone(),
-                patient.getEmail(),
-                patient.getAddress(),
-                patient.getEmergencyContactName(),
-                patient.getEmergencyContactPhone(),
-                patient.getMedicalHistory(),
-                patient.getAllergies(),
-                patient.getCurrentMedications(),
-                patient.getConsentAccepted(),
-                patient.getConsentFormPath(),
-                patient.getResearchConsent(),
-                patient.getSampleStorageConsent(),
-                patient.getCreatedAt(),
-                patient.getUpdatedAt()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.model.VitalData;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The columns of one vital_data row, selected by VitalDataRepository.streamReadingsCreatedAfter without loading
+// the entity or its patient
+public record VitalReading(Long id, Long patientId, LocalDateTime createdAt, Integer systolicBp, Integer diastolicBp,
+                           Integer heartRate, Integer respiratoryRate, BigDecimal temperature, Integer oxygenSaturation,
+                           BigDecimal height, BigDecimal weight, Integer bloodGlucose, Integer painLevel,
+                           VitalData.Consciousness consciousness, BigDecimal bmi, Integer earlyWarningScore,
+                           VitalData.RiskLevel riskLevel, String notes, String recordedBy) {
+
+    static VitalReading of(VitalData vitalData) {
+        return new VitalReading(vitalData.getId(), vitalData.getPatient().getId(), vitalData.getCreatedAt(),
+                vitalData.getSystolicBp(), vitalData.getDiastolicBp(), vitalData.getHeartRate(),
+                vitalData.getRespiratoryRate(), vitalData.getTemperature(), vitalData.getOxygenSaturation(),
+                vitalData.getHeight(), vitalData.getWeight(), vitalData.getBloodGlucose(), vitalData.getPainLevel(),
+                vitalData.getConsciousness(), vitalData.getBmi(), vitalData.getEarlyWarningScore(),
+                vitalData.getRiskLevel(), vitalData.getNotes(), vitalData.getRecordedBy());
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.response.VitalStats;
+import com.example.PatientCareBackend.dto.response.VitalTrendPoint;
+import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.model.VitalRollup;
+import com.example.PatientCareBackend.model.VitalRollupMarker;
+import com.example.PatientCareBackend.repository.VitalRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Maintains vital_rollups incrementally: the readings of one insert are folded into per-bucket accumulators first,
+// so a batch costs one upsert per patient and hour or day it touches, sent as one JDBC batch.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VitalRollupService {
+
+    // Column prefixes in VitalRollup, in accumulator order
+    private static final String[] VITALS = {"systolic_bp", "diastolic_bp", "heart_rate", "respiratory_rate",
+            "temperature", "oxygen_saturation", "blood_glucose", "pain_level"};
+    // Accumulator layout: sample count, then count, min, max and sum per vital
+    private static final int SLOTS_PER_VITAL = 4;
+
+    private static final Comparator<BucketKey> BUCKET_ORDER = Comparator.comparingLong(BucketKey::patientId)
+            .thenComparing(BucketKey::resolution)
+            .thenComparing(BucketKey::bucketStart);
+
+    private final VitalRollupRepository vitalRollupRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${spring.jpa.properties.hibernate.default_schema:}")
+    private String schema;
+
+    @Value("${vitals.rollups.backfill-overlap-seconds:300}")
+    private long backfillOverlapSeconds;
+
+    private String upsertSql;
+
+    @PostConstruct
+    public void init() {
+        String prefix = schema == null || schema.isBlank() ? "" : schema + ".";
+        upsertSql = upsertSql(prefix + "vital_rollups");
+        backfill(prefix + "vital_rollups", prefix + "vital_data");
+    }
+
+    // Joins the transaction that stores the readings, so readings and rollups commit or roll back together
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<VitalData> vitals) {
+        // Sorted, so concurrent inserts lock shared bucket rows in the same order
+        Map<BucketKey, double[]> buckets = new TreeMap<>(BUCKET_ORDER);
+        for (VitalData vitalData : vitals) {
+            for (VitalRollup.Resolution resolution : VitalRollup.Resolution.values()) {
+                BucketKey key = new BucketKey(vitalData.getPatient().getId(), resolution,
+                        resolution.bucketOf(vitalData.getCreatedAt()));
+                double[] bucket = buckets.computeIfAbsent(key, k -> newAccumulator());
+                bucket[0]++;
+                add(bucket, 0, vitalData.getSystolicBp());
+                add(bucket, 1, vitalData.getDiastolicBp());
+                add(bucket, 2, vitalData.getHeartRate());
+                add(bucket, 3, vitalData.getRespiratoryRate());
+                add(bucket, 4, vitalData.getTemperature());
+                add(bucket, 5, vitalData.getOxygenSaturation());
+                add(bucket, 6, vitalData.getBloodGlucose());
+                add(bucket, 7, vitalData.getPainLevel());
+            }
+        }
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(upsertSql)) {
+                for (Map.Entry<BucketKey, double[]> entry : buckets.entrySet()) {
+                    BucketKey key = entry.getKey();
+                    double[] bucket = entry.getValue();
+                    int parameter = 1;
+                    statement.setLong(parameter++, key.patientId());
+                    statement.setString(parameter++, key.resolution().name());
+                    statement.setTimestamp(parameter++, Timestamp.valueOf(key.bucketStart()));
+                    statement.setLong(parameter++, (long) bucket[0]);
+                    for (int vital = 0; vital < VITALS.length; vital++) {
+                        int slot = 1 + vital * SLOTS_PER_VITAL;
+                        long count = (long) bucket[slot];
+                        statement.setLong(parameter++, count);
+                        if (count > 0) {
+                            statement.setDouble(parameter++, bucket[slot + 1]);
+                            statement.setDouble(parameter++, bucket[slot + 2]);
+                        } else {
+                            statement.setNull(parameter++, Types.DOUBLE);
+                            statement.setNull(parameter++, Types.DOUBLE);
+                        }
+                        statement.setDouble(parameter++, bucket[slot + 3]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // Buckets overlapping [from, to), oldest first
+    @Transactional(readOnly = true)
+    public List<VitalTrendPoint> getBuckets(Long patientId, VitalRollup.Resolution resolution,
+                                            LocalDateTime from, LocalDateTime to) {
+        return vitalRollupRepository.findBuckets(patientId, resolution, resolution.bucketOf(from), to).stream()
+                .map(this::mapToTrendPoint)
+                .toList();
+    }
+
+    // Rebuilds every bucket that readings created since the stored marker fall into, with one DELETE and one GROUP BY
+    // per resolution. A rebuild recomputes its buckets from vital_data, so running it again, or over buckets this
+    // service already upserted, gives the same rows. That covers databases that stored readings before rollups
+    // existed and readings written by instances that did not maintain them. The lock holds back concurrent upserts,
+    // and a second instance starting at the same time, until the rebuild commits.
+    private void backfill(String rollups, String vitals) {
+        try {
+            Integer rebuilt = new TransactionTemplate(transactionManager).execute(status -> {
+                entityManager.createNativeQuery("LOCK TABLE " + rollups + " IN SHARE ROW EXCLUSIVE MODE").executeUpdate();
+                VitalRollupMarker marker = entityManager.find(VitalRollupMarker.class, VitalRollupMarker.REBUILT_THROUGH);
+                // Readings created a little before now may still commit after this snapshot, so they are read again
+                LocalDateTime next = LocalDateTime.now().minusSeconds(backfillOverlapSeconds);
+                LocalDateTime since = marker != null ? marker.getMarker() : LocalDateTime.of(1970, 1, 1, 0, 0);
+
+                int rows = 0;
+                for (VitalRollup.Resolution resolution : VitalRollup.Resolution.values()) {
+                    Timestamp from = Timestamp.valueOf(resolution.bucketOf(since));
+                    entityManager.createNativeQuery("DELETE FROM " + rollups + " WHERE resolution = ?1 AND bucket_start >= ?2")
+                            .setParameter(1, resolution.name())
+                            .setParameter(2, from)
+                            .executeUpdate();
+                    rows += entityManager.createNativeQuery(backfillSql(rollups, vitals, resolution))
+                            .setParameter(1, from)
+                            .executeUpdate();
+                }
+                if (marker == null) {
+                    entityManager.persist(new VitalRollupMarker(VitalRollupMarker.REBUILT_THROUGH, next));
+                } else if (next.isAfter(marker.getMarker())) {
+                    marker.setMarker(next);
+                }
+                return rows;
+            });
+            if (rebuilt != null && rebuilt > 0) {
+                log.info("Rebuilt {} vital rollup buckets from vital_data", rebuilt);
+            }
+        } catch (RuntimeException e) {
+            // Non-PostgreSQL databases, e.g. the H2 test schema, have no LOCK TABLE or date_trunc; rollups there only
+            // come from recordAll
+            log.warn("Could not rebuild {} from vital_data: {}", rollups, e.getMessage());
+        }
+    }
+
+    private VitalTrendPoint mapToTrendPoint(VitalRollup rollup) {
+        return new VitalTrendPoint(
+                rollup.getBucketStart(),
+                rollup.getSampleCount(),
+                stats(rollup.getSystolicBpCount(), rollup.getSystolicBpMin(), rollup.getSystolicBpMax(), rollup.getSystolicBpSum()),
+                stats(rollup.getDiastolicBpCount(), rollup.getDiastolicBpMin(), rollup.getDiastolicBpMax(), rollup.getDiastolicBpSum()),
+                stats(rollup.getHeartRateCount(), rollup.getHeartRateMin(), rollup.getHeartRateMax(), rollup.getHeartRateSum()),
+                stats(rollup.getRespiratoryRateCount(), rollup.getRespiratoryRateMin(), rollup.getRespiratoryRateMax(), rollup.getRespiratoryRateSum()),
+                stats(rollup.getTemperatureCount(), rollup.getTemperatureMin(), rollup.getTemperatureMax(), rollup.getTemperatureSum()),
+                stats(rollup.getOxygenSaturationCount(), rollup.getOxygenSaturationMin(), rollup.getOxygenSaturationMax(), rollup.getOxygenSaturationSum()),
+                stats(rollup.getBloodGlucoseCount(), rollup.getBloodGlucoseMin(), rollup.getBloodGlucoseMax(), rollup.getBloodGlucoseSum()),
+                stats(rollup.getPainLevelCount(), rollup.getPainLevelMin(), rollup.getPainLevelMax(), rollup.getPainLevelSum())
+        );
+    }
+
+    private static VitalStats stats(long count, Double min, Double max, double sum) {
+        return count > 0 ? new VitalStats(count, min, max, sum / count) : null;
+    }
+
+    private static double[] newAccumulator() {
+        double[] bucket = new double[1 + VITALS.length * SLOTS_PER_VITAL];
+        for (int vital = 0; vital < VITALS.length; vital++) {
+            bucket[2 + vital * SLOTS_PER_VITAL] = Double.POSITIVE_INFINITY;
+            bucket[3 + vital * SLOTS_PER_VITAL] = Double.NEGATIVE_INFINITY;
+        }
+        return bucket;
+    }
+
+    private static void add(double[] bucket, int vital, Number value) {
+        if (value == null) {
+            return;
+        }
+        double v = value.doubleValue();
+        int slot = 1 + vital * SLOTS_PER_VITAL;
+        bucket[slot]++;
+        bucket[slot + 1] = Math.min(bucket[slot + 1], v);
+        bucket[slot + 2] = Math.max(bucket[slot + 2], v);
+        bucket[slot + 3] += v;
+    }
+
+    // Counts and sums add up, min and max widen; LEAST and GREATEST skip the NULLs of vitals a bucket has not seen
+    private static String upsertSql(String rollups) {
+        StringBuilder columns = new StringBuilder("patient_id, resolution, bucket_start, sample_count");
+        StringBuilder values = new StringBuilder("?, ?, ?, ?");
+        StringBuilder updates = new StringBuilder("sample_count = r.sample_count + EXCLUDED.sample_count");
+        for (String vital : VITALS) {
+            columns.append(", ").append(vital).append("_count, ").append(vital).append("_min, ")
+                    .append(vital).append("_max, ").append(vital).append("_sum");
+            values.append(", ?, ?, ?, ?");
+            updates.append(", ").append(vital).append("_count = r.").append(vital).append("_count + EXCLUDED.").append(vital).append("_count")
+                    .append(", ").append(vital).append("_min = LEAST(r.").append(vital).append("_min, EXCLUDED.").append(vital).append("_min)")
+                    .append(", ").append(vital).append("_max = GREATEST(r.").append(vital).append("_max, EXCLUDED.").append(vital).append("_max)")
+                    .append(", ").append(vital).append("_sum = r.").append(vital).append("_sum + EXCLUDED.").append(vital).append("_sum");
+        }
+        return "INSERT INTO " + rollups + " AS r (" + columns + ") VALUES (" + values + ") " +
+                "ON CONFLICT (patient_id, resolution, bucket_start) DO UPDATE SET " + updates;
+    }
+
+    private static String backfillSql(String rollups, String vitals, VitalRollup.Resolution resolution) {
+        String bucket = "date_trunc('" + resolution.name().toLowerCase(Locale.ROOT) + "', created_at)";
+        StringBuilder columns = new StringBuilder("patient_id, resolution, bucket_start, sample_count");
+        StringBuilder aggregates = new StringBuilder("patient_id, '" + resolution.name() + "', " + bucket + ", COUNT(*)");
+        for (String vital : VITALS) {
+            columns.append(", ").append(vital).append("_count, ").append(vital).append("_min, ")
+                    .append(vital).append("_max, ").append(vital).append("_sum");
+            aggregates.append(", COUNT(").append(vital).append("), MIN(").append(vital).append("), MAX(")
+                    .append(vital).append("), COALESCE(SUM(").append(vital).append("), 0)");
+        }
+        return "INSERT INTO " + rollups + " (" + columns + ") SELECT " + aggregates + " FROM " + vitals +
+                " WHERE created_at >= ?1 GROUP BY patient_id, " + bucket;
+    }
+
+    private record BucketKey(long patientId, VitalRollup.Resolution resolution, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.PatientCareBackend.util;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+// Response codecs chosen from Accept-Encoding; new codecs only need a constant here
+public enum ContentEncoding {
+
+    GZIP("gzip", ".gz") {
+        @Override
+        public OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(CloseShieldOutputStream.wrap(out), BUFFER_SIZE);
+        }
+    },
+    IDENTITY("identity", "") {
+        @Override
+        public OutputStream wrap(OutputStream out) {
+            return CloseShieldOutputStream.wrap(out);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String token;
+    private final String fileSuffix;
+
+    ContentEncoding(String token, String fileSuffix) {
+        this.token = token;
+        this.fileSuffix = fileSuffix;
+    }
+
+    // Closing the returned stream finishes the encoding but leaves the underlying stream open
+    public abstract OutputStream wrap(OutputStream out) throws IOException;
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+
+    public boolean isIdentity() {
+        return this == IDENTITY;
+    }
+
+    // Picks the first supported codec the client accepts with a non-zero q-value
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (isRejected(tokens)) {
+                continue;
+            }
+            if (coding.equals("*")) {
+                wildcard = true;
+            }
+            for (ContentEncoding encoding : values()) {
+                if (!encoding.isIdentity() && encoding.token.equals(coding)) {
+                    return encoding;
+                }
+            }
+        }
+        return wildcard ? GZIP : IDENTITY;
+    }
+
+    private static boolean isRejected(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.PatientCareBackend.util;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// Name comparison for duplicate detection: accent- and punctuation-insensitive normalization, Double Metaphone keys
+// for sound-alike spellings and Jaro-Winkler similarity for typos
+public final class NameMatching {
+
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+
+    private NameMatching() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+    }
+
+    // Expects a normalized name
+    public static String phoneticKey(String name) {
+        if (name.isEmpty()) {
+            return "";
+        }
+        String key = METAPHONE.doubleMetaphone(name);
+        return key != null ? key : "";
+    }
+
+    // 1.0 for equal names, 0.0 when nothing lines up; expects normalized names
+    public static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+
+    // Jaro-Winkler, raised to 0.9 when both names sound the same
+    public static double similarity(String a, String b, String keyA, String keyB) {
+        double score = jaroWinkler(a, b);
+        if (!keyA.isEmpty() && keyA.equals(keyB)) {
+            score = Math.max(score, 0.9);
+        }
+        return score;
+    }
+}
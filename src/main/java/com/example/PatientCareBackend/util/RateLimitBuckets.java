@@ -0,0 +1,69 @@
+package com.example.PatientCareBackend.util;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.EstimationProbe;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// In-memory token buckets, one per key (client address, username, ...); a capacity of 0 or less disables limiting.
+// Full buckets hold no state worth keeping, so evictIdle() drops them to bound memory.
+public class RateLimitBuckets {
+
+    private final long capacity;
+    private final Duration period;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitBuckets(long capacity, Duration period) {
+        this.capacity = capacity;
+        this.period = period;
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    // Takes one token; returns 0 when it was available, otherwise the seconds until it will be
+    public long tryConsume(String key) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        ConsumptionProbe probe = buckets.computeIfAbsent(key, k -> newBucket()).tryConsumeAndReturnRemaining(1);
+        return probe.isConsumed() ? 0 : toRetryAfterSeconds(probe.getNanosToWaitForRefill());
+    }
+
+    // Like tryConsume but leaves the bucket untouched
+    public long peek(String key) {
+        Bucket bucket = isEnabled() ? buckets.get(key) : null;
+        if (bucket == null) {
+            return 0;
+        }
+        EstimationProbe probe = bucket.estimateAbilityToConsume(1);
+        return probe.canBeConsumed() ? 0 : toRetryAfterSeconds(probe.getNanosToWaitForRefill());
+    }
+
+    public int evictIdle() {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.getAvailableTokens() >= capacity);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket newBucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.greedy(capacity, period)))
+                .build();
+    }
+
+    private static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.PatientCareBackend.repository;
+
+import com.example.PatientCareBackend.dto.response.PatientRef;
+import com.example.PatientCareBackend.dto.response.PatientResponse;
+import com.example.PatientCareBackend.model.Appointment;
+import com.example.PatientCareBackend.model.Consent;
+import com.example.PatientCareBackend.model.DoctorAnalysis;
+import com.example.PatientCareBackend.model.DuringOperation;
+import com.example.PatientCareBackend.model.Notification;
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.model.Pharmacy;
+import com.example.PatientCareBackend.model.PostOperative;
+import com.example.PatientCareBackend.model.Surgery;
+import com.example.PatientCareBackend.model.SurgicalDecision;
+import com.example.PatientCareBackend.model.User;
+import com.example.PatientCareBackend.service.PatientRefResolver;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards the list and export fetch plans: loading N rows and their patient refs must stay two statements,
+// the rows and one projection for the refs, whatever N is; every list query with an entity graph must load its
+// to-one associations in the same statement as the rows
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.default_schema=PUBLIC",
+		"spring.jpa.properties.hibernate.hbm2ddl.schema-generation.scripts.action=none",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FetchPlanQueryCountTests {
+
+	private static final int ROWS = 5;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SurgeryRepository surgeryRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private PharmacyRepository pharmacyRepository;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private SurgicalDecisionRepository surgicalDecisionRepository;
+
+	@Autowired
+	private ConsentRepository consentRepository;
+
+	@Autowired
+	private PostOperativeRepository postOperativeRepository;
+
+	@Autowired
+	private DuringOperationRepository duringOperationRepository;
+
+	@Autowired
+	private DoctorAnalysisRepository doctorAnalysisRepository;
+
+	private User doctor;
+
+	private Patient firstPatient;
+
+	private PatientRefResolver patientRefResolver;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		doctor = new User();
+		doctor.setUsername("doctor");
+		doctor.setEmail("doctor@example.com");
+		doctor.setPassword("secret");
+		doctor.setFirstName("Greg");
+		doctor.setLastName("House");
+		doctor.setRole(User.Role.DOCTOR);
+		testEntityManager.persist(doctor);
+
+		for (int i = 0; i < ROWS; i++) {
+			Patient patient = new Patient();
+			patient.setPatientId("P-" + i);
+			patient.setFirstName("First" + i);
+			patient.setLastName("Last" + i);
+			patient.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(i));
+			patient.setGender(Patient.Gender.OTHER);
+			patient.setMedicalHistory("History " + i);
+			testEntityManager.persist(patient);
+
+			Surgery surgery = new Surgery();
+			surgery.setPatient(patient);
+			surgery.setProcedureName("Procedure " + i);
+			surgery.setUrgency(Surgery.SurgeryUrgency.ROUTINE);
+			surgery.setRecommendedBy("Dr. Test");
+			surgery.setDiagnosis("Diagnosis " + i);
+			surgery.setStatus(Surgery.SurgeryStatus.SCHEDULED);
+			testEntityManager.persist(surgery);
+			if (i == 0) {
+				firstPatient = patient;
+			}
+			persistSurgeryRecords(patient, surgery, i);
+		}
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		patientRefResolver = new PatientRefResolver(patientRepository);
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void listResolvesPatientRefsInOneQuery() {
+		List<Surgery> surgeries = surgeryRepository.findAll();
+		List<String> lastNames = patientRefResolver.mapAll(surgeries, Surgery::getPatient,
+				(surgery, patient) -> patient.getLastName());
+
+		assertThat(lastNames).hasSize(ROWS).doesNotContainNull();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void exportStreamResolvesPatientRefsPerBatch() {
+		try (Stream<PatientRef> patients = patientRefResolver.mapStream(surgeryRepository.streamAll(),
+				Surgery::getPatient, (surgery, patient) -> patient)) {
+			assertThat(patients).hasSize(ROWS).doesNotContainNull();
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void patientExportWithoutLobColumnsReadsOnlyTheProjection() {
+		try (Stream<PatientResponse> patients = patientRepository.streamAllWithoutLobs()) {
+			assertThat(patients).hasSize(ROWS)
+					.allSatisfy(patient -> {
+						assertThat(patient.getLastName()).startsWith("Last");
+						assertThat(patient.getMedicalHistory()).isNull();
+					});
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	// One case per entity-graph list query; the action dereferences every association in the graph
+	static Stream<FetchCase<?>> entityGraphQueries() {
+		return Stream.of(
+				new FetchCase<>("appointments findAll", tests -> tests.appointmentRepository.findAll(),
+						appointment -> appointment.getDoctor().getLastName()),
+				new FetchCase<>("appointments findByDoctorId", tests -> tests.appointmentRepository.findByDoctorId(tests.doctor.getId()),
+						appointment -> appointment.getDoctor().getLastName()),
+				new FetchCase<>("appointments findFirstPage", tests -> tests.appointmentRepository.findFirstPage(Limit.of(ROWS)),
+						appointment -> appointment.getDoctor().getLastName()),
+				new FetchCase<>("appointments streamAll", tests -> toList(tests.appointmentRepository.streamAll()),
+						appointment -> appointment.getDoctor().getLastName()),
+				new FetchCase<>("prescriptions findAll", tests -> tests.pharmacyRepository.findAll(),
+						prescription -> prescription.getDoctor().getLastName()),
+				new FetchCase<>("prescriptions findByDoctorId", tests -> tests.pharmacyRepository.findByDoctorId(tests.doctor.getId()),
+						prescription -> prescription.getDoctor().getLastName()),
+				new FetchCase<>("prescriptions findFirstPage", tests -> tests.pharmacyRepository.findFirstPage(Limit.of(ROWS)),
+						prescription -> prescription.getDoctor().getLastName()),
+				new FetchCase<>("prescriptions streamAll", tests -> toList(tests.pharmacyRepository.streamAll()),
+						prescription -> prescription.getDoctor().getLastName()),
+				new FetchCase<Notification>("notifications findAll", tests -> tests.notificationRepository.findAll(),
+						FetchPlanQueryCountTests::touchNotification),
+				new FetchCase<Notification>("notifications findByDoctorId", tests -> tests.notificationRepository.findByDoctorId(tests.doctor.getId()),
+						FetchPlanQueryCountTests::touchNotification),
+				new FetchCase<Notification>("notifications findByPatientId", tests -> tests.notificationRepository.findByPatientId(tests.firstPatient.getId()),
+						FetchPlanQueryCountTests::touchNotification),
+				new FetchCase<Notification>("notifications findFirstPage", tests -> tests.notificationRepository.findFirstPage(Limit.of(ROWS)),
+						FetchPlanQueryCountTests::touchNotification),
+				new FetchCase<>("surgical decisions findBySurgeonName", tests -> tests.surgicalDecisionRepository.findBySurgeonName("Dr. Test"),
+						decision -> decision.getSurgery().getProcedureName()),
+				new FetchCase<>("consents findAll", tests -> tests.consentRepository.findAll(),
+						consent -> consent.getSurgery().getProcedureName()),
+				new FetchCase<>("post-operative findByPatientId", tests -> tests.postOperativeRepository.findByPatientId(tests.firstPatient.getId()),
+						followup -> followup.getSurgery().getProcedureName()),
+				new FetchCase<>("during operation findByPatientId", tests -> tests.duringOperationRepository.findByPatientId(tests.firstPatient.getId()),
+						operation -> operation.getSurgery().getProcedureName()),
+				new FetchCase<>("doctor analyses findAll", tests -> tests.doctorAnalysisRepository.findAll(),
+						analysis -> analysis.getDoctor().getLastName())
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("entityGraphQueries")
+	<T> void entityGraphLoadsAssociationsWithTheRows(FetchCase<T> fetchCase) {
+		List<T> rows = fetchCase.query().apply(this);
+		rows.forEach(fetchCase.touch()::accept);
+
+		assertThat(rows).isNotEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private void persistSurgeryRecords(Patient patient, Surgery surgery, int i) {
+		Appointment appointment = new Appointment();
+		appointment.setPatient(patient);
+		appointment.setDoctor(doctor);
+		appointment.setAppointmentDate(LocalDate.of(2030, 1, 1).plusDays(i));
+		appointment.setAppointmentTime(LocalTime.of(9, 0));
+		appointment.setType(Appointment.AppointmentType.CONSULTATION);
+		appointment.setStatus(Appointment.AppointmentStatus.SCHEDULED);
+		appointment.setReason("Reason " + i);
+		appointment.setPriority(Appointment.Priority.MEDIUM);
+		testEntityManager.persist(appointment);
+
+		Pharmacy prescription = new Pharmacy();
+		prescription.setPatient(patient);
+		prescription.setDoctor(doctor);
+		prescription.setMedicationName("Medication " + i);
+		prescription.setDosage("10 mg");
+		prescription.setFrequency("Daily");
+		prescription.setDuration("7 days");
+		prescription.setStatus(Pharmacy.PrescriptionStatus.PENDING);
+		testEntityManager.persist(prescription);
+
+		Notification notification = new Notification();
+		notification.setType(Notification.NotificationType.APPOINTMENT_REMINDER);
+		notification.setTitle("Reminder " + i);
+		notification.setMessage("Appointment " + i);
+		notification.setPriority(Notification.Priority.MEDIUM);
+		notification.setDoctor(doctor);
+		notification.setPatient(patient);
+		notification.setAppointment(appointment);
+		testEntityManager.persist(notification);
+
+		SurgicalDecision decision = new SurgicalDecision();
+		decision.setSurgery(surgery);
+		decision.setSurgeonName("Dr. Test");
+		decision.setDecisionStatus(SurgicalDecision.DecisionStatus.ACCEPTED);
+		testEntityManager.persist(decision);
+
+		Consent consent = new Consent();
+		consent.setSurgery(surgery);
+		consent.setPatientName(patient.getFirstName() + " " + patient.getLastName());
+		consent.setNextOfKin("Next of kin " + i);
+		consent.setNextOfKinPhone("0700000000");
+		consent.setUnderstoodRisks(true);
+		consent.setUnderstoodBenefits(true);
+		consent.setUnderstoodAlternatives(true);
+		consent.setConsentToSurgery(true);
+		consent.setSignature("Signed " + i);
+		consent.setConsentDecision(Consent.ConsentDecision.ACCEPTED);
+		testEntityManager.persist(consent);
+
+		PostOperative followup = new PostOperative();
+		followup.setPatient(patient);
+		followup.setSurgery(surgery);
+		followup.setFollowupType(PostOperative.FollowupType.POST_SURGERY);
+		testEntityManager.persist(followup);
+
+		DuringOperation operation = new DuringOperation();
+		operation.setSurgery(surgery);
+		operation.setPatient(patient);
+		operation.setStartTime(LocalDateTime.of(2030, 1, 1, 8, 0).plusDays(i));
+		operation.setStatus(DuringOperation.OperationStatus.COMPLETED);
+		testEntityManager.persist(operation);
+
+		DoctorAnalysis analysis = new DoctorAnalysis();
+		analysis.setPatient(patient);
+		analysis.setDoctor(doctor);
+		analysis.setSymptoms("Symptoms " + i);
+		analysis.setDiagnosis("Diagnosis " + i);
+		testEntityManager.persist(analysis);
+	}
+
+	private static void touchNotification(Notification notification) {
+		notification.getDoctor().getLastName();
+		notification.getAppointment().getDoctor().getLastName();
+	}
+
+	private static <T> List<T> toList(Stream<T> rows) {
+		try (rows) {
+			return rows.toList();
+		}
+	}
+
+	record FetchCase<T>(String name, Function<FetchPlanQueryCountTests, List<T>> query, Consumer<T> touch) {
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
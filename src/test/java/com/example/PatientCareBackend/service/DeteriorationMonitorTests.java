@@ -0,0 +1,211 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.DeteriorationProperties;
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.repository.ICURepository;
+import com.example.PatientCareBackend.repository.NotificationRepository;
+import com.example.PatientCareBackend.repository.VitalDataRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DeteriorationMonitorTests {
+
+	private static final long HALF_HOUR = 30 * 60 * 1000L;
+	private static final double NONE = Double.NaN;
+
+	private VitalDataRepository vitalDataRepository;
+	private ICURepository icuRepository;
+	private NotificationRepository notificationRepository;
+	private NotificationService notificationService;
+	private DeteriorationProperties properties;
+	private DeteriorationMonitor monitor;
+
+	@BeforeEach
+	void setUp() {
+		vitalDataRepository = mock(VitalDataRepository.class);
+		icuRepository = mock(ICURepository.class);
+		notificationRepository = mock(NotificationRepository.class);
+		notificationService = mock(NotificationService.class);
+		properties = new DeteriorationProperties();
+		monitor = new DeteriorationMonitor(vitalDataRepository, icuRepository, notificationRepository,
+				notificationService, null, properties, mock(EntityManager.class), mock(PlatformTransactionManager.class));
+		monitor.init();
+	}
+
+	@Test
+	void flagsHeartRateClimbingFiveBeatsAnHour() {
+		int flagged = 0;
+		for (int i = 0; i <= 8; i++) {
+			flagged = heartRate(1L, i * HALF_HOUR, 80 + 2.5 * i);
+			if (i < 4) {
+				// Under two hours of readings is not yet a sustained trend
+				assertThat(flagged).isZero();
+			}
+		}
+		assertThat(flagged).isEqualTo(1 << DeteriorationMonitor.HEART_RATE);
+	}
+
+	@Test
+	void ignoresNoiseAroundAStableValue() {
+		double[] readings = {82, 76, 85, 79, 81, 77, 84, 80, 78, 83, 79, 82};
+		for (int i = 0; i < readings.length; i++) {
+			assertThat(heartRate(1L, i * HALF_HOUR, readings[i])).isZero();
+		}
+	}
+
+	@Test
+	void flagsFallingSaturationSeparatelyPerPatient() {
+		int flagged = 0;
+		for (int i = 0; i <= 8; i++) {
+			flagged = monitor.observe(1L, i, i * HALF_HOUR, 80, 16, 120, 97 - i, 37.0, NONE);
+			assertThat(heartRate(2L, i * HALF_HOUR, 80)).isZero();
+		}
+		assertThat(flagged).isEqualTo(1 << DeteriorationMonitor.OXYGEN_SATURATION);
+		assertThat(monitor.size()).isEqualTo(2);
+	}
+
+	@Test
+	void skipsReadingsOlderThanTheReorderWindow() {
+		for (int i = 0; i <= 8; i++) {
+			heartRate(1L, i * HALF_HOUR, 80 + 2.5 * i);
+		}
+		assertThat(heartRate(1L, 3 * HALF_HOUR, 200)).isZero();
+		assertThat(heartRate(1L, 9 * HALF_HOUR, 102.5)).isEqualTo(1 << DeteriorationMonitor.HEART_RATE);
+	}
+
+	@Test
+	void mergesLateReadingsWithinTheReorderWindowOnce() {
+		properties.setReorderWindowSeconds(3600);
+		monitor.init();
+		for (int i = 0; i <= 8; i++) {
+			if (i != 7) {
+				heartRate(1L, i, i * HALF_HOUR, 80 + 2.5 * i);
+			}
+		}
+		// Reading 7 arrives after reading 8, as another instance's reading reaches the catch-up
+		assertThat(heartRate(1L, 7, 7 * HALF_HOUR, 97.5)).isEqualTo(1 << DeteriorationMonitor.HEART_RATE);
+		// Re-read by the catch-up overlap
+		assertThat(heartRate(1L, 7, 7 * HALF_HOUR, 97.5)).isZero();
+		assertThat(heartRate(1L, 8, 8 * HALF_HOUR, 100)).isZero();
+	}
+
+	@Test
+	void alertsThePatientOncePerCooldown() {
+		monitor.rebuild();
+		recordRisingHeartRate(1L);
+
+		verify(notificationService, times(1))
+				.sendPatientAlert(eq(DeteriorationMonitor.ALERT_TITLE), anyString(), eq(1L));
+	}
+
+	@Test
+	void alertsAgainOnceTheCooldownHasPassed() {
+		properties.setCooldownHours(0);
+		monitor.rebuild();
+
+		recordRisingHeartRate(1L);
+
+		// Readings 4 to 8 each complete a two-hour rising trend
+		verify(notificationService, times(5))
+				.sendPatientAlert(eq(DeteriorationMonitor.ALERT_TITLE), anyString(), eq(1L));
+	}
+
+	@Test
+	void skipsAlertsAnotherInstanceRaisedWithinTheCooldown() {
+		when(notificationRepository.existsByPatientIdAndTitleAndCreatedAtAfter(eq(1L), eq(DeteriorationMonitor.ALERT_TITLE), any()))
+				.thenReturn(true);
+		monitor.rebuild();
+
+		recordRisingHeartRate(1L);
+
+		verify(notificationService, never()).sendPatientAlert(anyString(), anyString(), anyLong());
+	}
+
+	@Test
+	void replayedHistoryNeverAlerts() {
+		LocalDateTime start = LocalDateTime.now().minusHours(4);
+		List<VitalReading> history = new ArrayList<>();
+		for (int i = 0; i <= 8; i++) {
+			history.add(new VitalReading((long) i, 1L, start.plusMinutes(30L * i), 120, 80, (int) (80 + 2.5 * i), 16,
+					null, 97, null, null, null, null, null, null, 0, null, null, "Nurse"));
+		}
+		when(vitalDataRepository.streamReadingsCreatedAfter(any())).thenReturn(history.stream());
+		when(icuRepository.streamCreatedAfter(any())).thenReturn(Stream.empty());
+
+		monitor.rebuild();
+
+		assertThat(monitor.isReady()).isTrue();
+		assertThat(monitor.size()).isEqualTo(1);
+		verifyNoInteractions(notificationService, notificationRepository);
+	}
+
+	@Test
+	void readingsStoredDuringTheReplayWaitForIt() {
+		LocalDateTime start = LocalDateTime.now().minusHours(4);
+		List<VitalReading> history = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			history.add(new VitalReading((long) i, 1L, start.plusMinutes(30L * i), 120, 80, (int) (80 + 2.5 * i), 16,
+					null, 97, null, null, null, null, null, null, 0, null, null, "Nurse"));
+		}
+		when(vitalDataRepository.streamReadingsCreatedAfter(any())).thenReturn(history.stream());
+		when(icuRepository.streamCreatedAfter(any())).thenReturn(Stream.empty());
+		Patient patient = new Patient();
+		patient.setId(1L);
+		VitalData live = new VitalData();
+		live.setId(8L);
+		live.setPatient(patient);
+		live.setCreatedAt(start.plusMinutes(240));
+		live.setHeartRate(100);
+
+		monitor.recordAfterCommit(List.of(live));
+		verifyNoInteractions(notificationService);
+		monitor.rebuild();
+
+		// The live reading completes the replayed rising trend instead of pushing it out of the window
+		verify(notificationService, times(1))
+				.sendPatientAlert(eq(DeteriorationMonitor.ALERT_TITLE), anyString(), eq(1L));
+	}
+
+	// Nine readings half an hour apart, the last one now, with the heart rate climbing 5 beats an hour
+	private void recordRisingHeartRate(long patientId) {
+		Patient patient = new Patient();
+		patient.setId(patientId);
+		LocalDateTime start = LocalDateTime.now().minusHours(4);
+		for (int i = 0; i <= 8; i++) {
+			VitalData vitalData = new VitalData();
+			vitalData.setId((long) i);
+			vitalData.setPatient(patient);
+			vitalData.setCreatedAt(start.plusMinutes(30L * i));
+			vitalData.setHeartRate((int) (80 + 2.5 * i));
+			monitor.recordAfterCommit(List.of(vitalData));
+		}
+	}
+
+	private int heartRate(long patientId, long timeMillis, double value) {
+		return heartRate(patientId, timeMillis, timeMillis, value);
+	}
+
+	private int heartRate(long patientId, long readingId, long timeMillis, double value) {
+		return monitor.observe(patientId, readingId, timeMillis, value, NONE, NONE, NONE, NONE, NONE);
+	}
+}
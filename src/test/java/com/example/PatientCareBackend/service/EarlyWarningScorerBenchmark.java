@@ -0,0 +1,88 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.EarlyWarningProperties;
+import com.example.PatientCareBackend.model.VitalData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Scoring latency, not run by the test suite. After mvn test-compile, run main from the IDE, or
+//   mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+//   java -cp "target/test-classes:target/classes:$(cat cp.txt)" org.openjdk.jmh.Main EarlyWarningScorerBenchmark -prof gc
+// gc.alloc.rate.norm should stay at zero bytes per operation for both benchmarks.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EarlyWarningScorerBenchmark {
+
+	private static final int READINGS = 1024;
+
+	private EarlyWarningScorer scorer;
+	private int[] respiratoryRates;
+	private int[] oxygenSaturations;
+	private int[] systolicBps;
+	private int[] heartRates;
+	private double[] temperatures;
+	private VitalData[] vitals;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		scorer = new EarlyWarningScorer(new EarlyWarningProperties());
+		respiratoryRates = new int[READINGS];
+		oxygenSaturations = new int[READINGS];
+		systolicBps = new int[READINGS];
+		heartRates = new int[READINGS];
+		temperatures = new double[READINGS];
+		vitals = new VitalData[READINGS];
+		for (int i = 0; i < READINGS; i++) {
+			respiratoryRates[i] = 8 + i % 20;
+			oxygenSaturations[i] = 88 + i % 12;
+			systolicBps[i] = 85 + i % 60;
+			heartRates[i] = 35 + i % 110;
+			temperatures[i] = 34.5 + (i % 60) / 10.0;
+
+			VitalData vitalData = new VitalData();
+			vitalData.setRespiratoryRate(respiratoryRates[i]);
+			vitalData.setOxygenSaturation(oxygenSaturations[i]);
+			vitalData.setSystolicBp(systolicBps[i]);
+			vitalData.setHeartRate(heartRates[i]);
+			vitalData.setTemperature(BigDecimal.valueOf(temperatures[i]));
+			vitals[i] = vitalData;
+		}
+	}
+
+	@Benchmark
+	public int scorePrimitives() {
+		int i = next++ & (READINGS - 1);
+		return scorer.score(respiratoryRates[i], oxygenSaturations[i], 21, systolicBps[i], heartRates[i], i % 5,
+				temperatures[i]);
+	}
+
+	@Benchmark
+	public int scoreEntity() {
+		return scorer.score(vitals[next++ & (READINGS - 1)]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(EarlyWarningScorerBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.EarlyWarningProperties;
+import com.example.PatientCareBackend.model.VitalData;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EarlyWarningScorerTests {
+
+	private final EarlyWarningScorer scorer = new EarlyWarningScorer(new EarlyWarningProperties());
+
+	@Test
+	void scoresNews2BandsIncludingTheirBoundaries() {
+		assertThat(scorer.parameterScore(EarlyWarningScorer.HEART_RATE, 40)).isEqualTo(3);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.HEART_RATE, 41)).isEqualTo(1);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.HEART_RATE, 90)).isEqualTo(0);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.HEART_RATE, 131)).isEqualTo(3);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.HEART_RATE, 250)).isEqualTo(3);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.TEMPERATURE, 35.0)).isEqualTo(3);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.TEMPERATURE, 35.1)).isEqualTo(1);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.TEMPERATURE, 38.1)).isEqualTo(1);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.TEMPERATURE, 39.1)).isEqualTo(2);
+		assertThat(scorer.parameterScore(EarlyWarningScorer.OXYGEN_SATURATION, 96)).isEqualTo(0);
+	}
+
+	@Test
+	void missingValuesScoreNothingInsteadOfFailing() {
+		VitalData vitalData = new VitalData();
+		vitalData.setHeartRate(120);
+
+		int score = scorer.score(vitalData);
+
+		assertThat(EarlyWarningScorer.total(score)).isEqualTo(2);
+		assertThat(scorer.riskLevel(score)).isEqualTo(VitalData.RiskLevel.MEDIUM);
+	}
+
+	@Test
+	void mapsAggregateAndSingleParameterScoresToRiskLevels() {
+		VitalData vitalData = new VitalData();
+		vitalData.setRespiratoryRate(16);
+		vitalData.setOxygenSaturation(97);
+		vitalData.setSystolicBp(120);
+		vitalData.setHeartRate(75);
+		vitalData.setTemperature(new BigDecimal("37.0"));
+		vitalData.setConsciousness(VitalData.Consciousness.ALERT);
+		assertThat(scorer.riskLevel(scorer.score(vitalData))).isEqualTo(VitalData.RiskLevel.LOW);
+
+		vitalData.setConsciousness(VitalData.Consciousness.CONFUSION);
+		assertThat(scorer.riskLevel(scorer.score(vitalData))).isEqualTo(VitalData.RiskLevel.HIGH);
+
+		vitalData.setRespiratoryRate(26);
+		vitalData.setOxygenSaturation(90);
+		assertThat(scorer.riskLevel(scorer.score(vitalData))).isEqualTo(VitalData.RiskLevel.CRITICAL);
+	}
+
+	@Test
+	void rejectsMalformedBands() {
+		EarlyWarningProperties properties = new EarlyWarningProperties();
+		properties.getBands().put("heart-rate", "90:0,50:1,*:3");
+		assertThatThrownBy(() -> new EarlyWarningScorer(properties)).isInstanceOf(IllegalStateException.class);
+
+		properties.getBands().put("heart-rate", "40:3,90:0");
+		assertThatThrownBy(() -> new EarlyWarningScorer(properties)).isInstanceOf(IllegalStateException.class);
+	}
+
+	// Timing lives in EarlyWarningScorerBenchmark; this only guards that scoring leaves the heap untouched
+	@Test
+	void scoresMillionsOfReadingsWithoutAllocating() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		int evaluations = 5_000_000;
+		long checksum = 0;
+
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < evaluations; i++) {
+			checksum += scorer.score(8 + i % 20, 88 + i % 12, 21, 85 + i % 60, 35 + i % 110, i % 5, 34.5 + (i % 60) / 10.0);
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		assertThat(checksum).isPositive();
+		assertThat(allocated).isLessThan(64 * 1024);
+	}
+}
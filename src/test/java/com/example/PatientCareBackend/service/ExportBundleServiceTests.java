@@ -0,0 +1,100 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ExportBundleServiceTests {
+
+	@TempDir
+	Path spoolDir;
+
+	private ExportBundleService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ExportService exportService = mock(ExportService.class);
+		doAnswer(invocation -> {
+			ExportService.ExportType type = invocation.getArgument(0);
+			OutputStream out = invocation.getArgument(5);
+			out.write(type.getFileName().getBytes(StandardCharsets.UTF_8));
+			out.close();
+			return null;
+		}).when(exportService).export(any(), eq("csv"), isNull(), isNull(), isNull(), any());
+
+		service = new ExportBundleService(exportService);
+		ReflectionTestUtils.setField(service, "spoolDirectory", spoolDir.toString());
+		ReflectionTestUtils.setField(service, "maxConcurrent", 1);
+		ReflectionTestUtils.setField(service, "poolSize", 2);
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void writesEveryEntityInOrderAndRemovesSpoolFiles() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		service.startBundle("csv", null, null).writeTo(out);
+
+		List<String> entries = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				assertThat(entry.getName()).isEqualTo(new String(zip.readAllBytes(), StandardCharsets.UTF_8) + ".csv");
+				entries.add(entry.getName());
+			}
+		}
+		assertThat(entries).containsExactly("patients.csv", "surgeries.csv", "appointments.csv",
+				"lab_tests.csv", "prescriptions.csv");
+		try (Stream<Path> files = Files.list(spoolDir)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void bundlesWhoseBodyNeverRunsHoldNoSlot() throws Exception {
+		// Abandoned before the body ran, as when the client disconnects or the async request times out
+		service.startBundle("csv", null, null);
+		service.startBundle("csv", null, null);
+
+		service.startBundle("csv", null, null).writeTo(new ByteArrayOutputStream());
+		service.startBundle("csv", null, null).writeTo(new ByteArrayOutputStream());
+	}
+
+	@Test
+	void turnsRequestsAwayWhileEverySlotIsStreaming() throws Exception {
+		ExportBundleService.ExportBundle bundle = service.startBundle("csv", null, null);
+		bundle.writeTo(new OutputStream() {
+			@Override
+			public void write(int b) {
+				assertThatThrownBy(() -> service.startBundle("csv", null, null))
+						.isInstanceOf(TooManyRequestsException.class);
+			}
+		});
+	}
+}
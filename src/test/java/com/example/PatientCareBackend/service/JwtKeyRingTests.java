@@ -0,0 +1,116 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.model.JwtSigningKey;
+import com.example.PatientCareBackend.model.User;
+import com.example.PatientCareBackend.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtKeyRingTests {
+
+	private static final String KEY_ENCRYPTION_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private JwtSigningKeyRepository repository;
+	private List<JwtSigningKey> stored;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(JwtSigningKeyRepository.class);
+		stored = new ArrayList<>();
+		when(repository.findAllByOrderByCreatedAtDesc()).thenAnswer(invocation -> List.copyOf(stored));
+		when(repository.save(any())).thenAnswer(invocation -> {
+			stored.add(0, invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+	}
+
+	@Test
+	void storesRotatedKeysEncrypted() {
+		JwtKeyRing ring = rotatingRing(KEY_ENCRYPTION_KEY);
+		ring.init();
+
+		assertThat(stored).hasSize(1);
+		JwtSigningKey key = stored.get(0);
+		String plaintext = Base64.getEncoder().encodeToString(ring.getVerificationKey(key.getKid()).getEncoded());
+		assertThat(key.getSecret()).startsWith("v1:").doesNotContain(plaintext);
+		assertThat(ring.getSigningKey().kid()).isEqualTo(key.getKid());
+
+		// A sibling with the same key-encryption key reads the same secret back
+		JwtKeyRing sibling = rotatingRing(KEY_ENCRYPTION_KEY);
+		sibling.init();
+		assertThat(sibling.getVerificationKey(key.getKid())).isEqualTo(ring.getVerificationKey(key.getKid()));
+	}
+
+	@Test
+	void dropsKeysStoredInPlaintext() {
+		JwtSigningKey legacy = new JwtSigningKey("legacy", secret((byte) 0), LocalDateTime.now(ZoneOffset.UTC).minusHours(1));
+		stored.add(legacy);
+
+		JwtKeyRing ring = rotatingRing(KEY_ENCRYPTION_KEY);
+		ring.init();
+
+		assertThat(ring.getVerificationKey("legacy")).isNull();
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Iterable<JwtSigningKey>> deleted = ArgumentCaptor.forClass(Iterable.class);
+		verify(repository).deleteAll(deleted.capture());
+		assertThat(deleted.getValue()).containsExactly(legacy);
+	}
+
+	@Test
+	void rotationRequiresAKeyEncryptionKey() {
+		assertThatThrownBy(() -> rotatingRing("").init()).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void cachedTokensStopVerifyingOnceTheirKeyIsRetired() {
+		JwtKeyRing ring = new JwtKeyRing(repository);
+		ReflectionTestUtils.setField(ring, "configuredKeys", "old:" + secret((byte) 0));
+		ring.init();
+		JwtService jwtService = new JwtService(null, ring);
+		ReflectionTestUtils.setField(jwtService, "tokenCacheSize", 100);
+		jwtService.init();
+
+		User user = new User();
+		user.setUsername("doctor");
+		String token = jwtService.generateToken(user);
+		assertThat(jwtService.extractUsername(token)).isEqualTo("doctor");
+
+		ReflectionTestUtils.setField(ring, "configuredKeys", "new:" + secret((byte) 1));
+		ring.refresh();
+
+		assertThatThrownBy(() -> jwtService.extractUsername(token)).isInstanceOf(SignatureException.class);
+	}
+
+	private static String secret(byte fill) {
+		byte[] secret = new byte[32];
+		Arrays.fill(secret, fill);
+		return Base64.getEncoder().encodeToString(secret);
+	}
+
+	private JwtKeyRing rotatingRing(String keyEncryptionKey) {
+		JwtKeyRing ring = new JwtKeyRing(repository);
+		ReflectionTestUtils.setField(ring, "rotationEnabled", true);
+		ReflectionTestUtils.setField(ring, "keyEncryptionKey", keyEncryptionKey);
+		ReflectionTestUtils.setField(ring, "rotationIntervalHours", 24L);
+		ReflectionTestUtils.setField(ring, "activationDelaySeconds", 0L);
+		ReflectionTestUtils.setField(ring, "keyRefreshMs", 60_000L);
+		return ring;
+	}
+}
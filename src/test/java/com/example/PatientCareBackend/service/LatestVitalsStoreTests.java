@@ -0,0 +1,57 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.response.VitalDataResponse;
+import com.example.PatientCareBackend.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LatestVitalsStoreTests {
+
+	private PatientRepository patientRepository;
+	private LatestVitalsStore store;
+
+	@BeforeEach
+	void setUp() {
+		patientRepository = mock(PatientRepository.class);
+		store = new LatestVitalsStore(patientRepository, null, null);
+		ReflectionTestUtils.setField(store, "capacity", 3);
+		ReflectionTestUtils.setField(store, "ready", true);
+		when(patientRepository.findRefsByIdIn(any())).thenReturn(List.of());
+	}
+
+	@Test
+	void keepsTheNewestReadingsOncePerId() {
+		LocalDateTime now = LocalDateTime.now();
+		store.load(List.of(reading(1L, 1L, now.minusMinutes(4)), reading(2L, 1L, now.minusMinutes(3)),
+				reading(3L, 1L, now.minusMinutes(2)), reading(4L, 1L, now.minusMinutes(1))));
+		store.load(List.of(reading(4L, 1L, now.minusMinutes(1))));
+
+		assertThat(store.latest(1L, 3)).extracting(VitalDataResponse::getId).containsExactly(4L, 3L, 2L);
+	}
+
+	@Test
+	void dropsPatientsDeletedOnOtherInstances() {
+		LocalDateTime now = LocalDateTime.now();
+		store.load(List.of(reading(1L, 1L, now), reading(2L, 2L, now)));
+		when(patientRepository.findExistingIds(any())).thenReturn(List.of(2L));
+
+		store.evictDeletedPatients();
+
+		assertThat(store.latest(1L, 3)).isEmpty();
+		assertThat(store.latest(2L, 3)).hasSize(1);
+	}
+
+	private static VitalReading reading(long id, long patientId, LocalDateTime createdAt) {
+		return new VitalReading(id, patientId, createdAt, 120, 80, 72, 16, null, 97, null, null, null, null, null,
+				null, 0, null, null, "Nurse");
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Outside a transaction the index applies writes immediately, so no database is needed
+class PatientSearchIndexTests {
+
+	private PatientSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new PatientSearchIndex(null, null, null);
+		index.indexAfterCommit(patient(1L, "HOSP-2024-AAAA1111", "Mary", "Johnson", "0712 345 678", "mary@example.com"));
+		index.indexAfterCommit(patient(2L, "HOSP-2024-BBBB2222", "John", "Smith", "0722 000 111", "js@example.com"));
+		index.indexAfterCommit(patient(3L, "HOSP-2024-CCCC3333", "Johnny", "Walker", null, null));
+	}
+
+	@Test
+	void ranksExactAndPrefixMatchesFirst() {
+		assertThat(index.search("john", 10)).containsExactly(2L, 1L, 3L);
+	}
+
+	@Test
+	void matchesPhoneDigitsRegardlessOfFormatting() {
+		assertThat(index.search("0712-345", 10)).containsExactly(1L);
+	}
+
+	@Test
+	void shortQueriesFallBackToScanningDocuments() {
+		assertThat(index.search("wa", 10)).containsExactly(3L);
+	}
+
+	@Test
+	void updatesAndRemovalsReplaceOldTerms() {
+		index.indexAfterCommit(patient(2L, "HOSP-2024-BBBB2222", "Jon", "Smythe", null, null));
+		assertThat(index.search("smith", 10)).isEmpty();
+		assertThat(index.search("smythe", 10)).containsExactly(2L);
+
+		index.removeAfterCommit(2L);
+		assertThat(index.search("smythe", 10)).isEmpty();
+	}
+
+	@Test
+	void ignoresVersionsOlderThanTheIndexedOneOrTheRemoval() {
+		LocalDateTime now = LocalDateTime.now();
+		Patient current = patient(2L, "HOSP-2024-BBBB2222", "Jon", "Smythe", null, null);
+		current.setUpdatedAt(now.minusSeconds(5));
+		index.indexAfterCommit(current);
+		Patient stale = patient(2L, "HOSP-2024-BBBB2222", "John", "Smith", null, null);
+		stale.setUpdatedAt(now.minusSeconds(10));
+		index.indexAfterCommit(stale);
+		assertThat(index.search("smith", 10)).isEmpty();
+		assertThat(index.search("smythe", 10)).containsExactly(2L);
+
+		index.removeAfterCommit(2L);
+		index.indexAfterCommit(current);
+		assertThat(index.search("smythe", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void findsMisspelledRegistrationsWithNearbyDatesOfBirth() {
+		Patient existing = patient(4L, "HOSP-2024-DDDD4444", "Catherine", "Mwangi", null, null);
+		existing.setDateOfBirth(LocalDate.of(1985, 3, 12));
+		index.indexAfterCommit(existing);
+
+		assertThat(index.findDuplicates("Katherine", "Mwangy", LocalDate.of(1985, 3, 12), 0.85, 5))
+				.extracting(PatientSearchIndex.DuplicateMatch::id).containsExactly(4L);
+		assertThat(index.findDuplicates("Catherine", "Mwangi", LocalDate.of(1985, 12, 3), 0.85, 5))
+				.extracting(PatientSearchIndex.DuplicateMatch::id).containsExactly(4L);
+		assertThat(index.findDuplicates("Peter", "Otieno", LocalDate.of(1985, 3, 12), 0.85, 5)).isEmpty();
+	}
+
+	private static Patient patient(Long id, String patientId, String firstName, String lastName,
+								   String phone, String email) {
+		Patient patient = new Patient();
+		patient.setId(id);
+		patient.setPatientId(patientId);
+		patient.setFirstName(firstName);
+		patient.setLastName(lastName);
+		patient.setPhone(phone);
+		patient.setEmail(email);
+		return patient;
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.dto.request.PatientRequest;
+import com.example.PatientCareBackend.dto.response.PatientResponse;
+import com.example.PatientCareBackend.exception.DuplicatePatientException;
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatientServiceTests {
+
+	private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1980, 3, 14);
+
+	private PatientRepository patientRepository;
+	private PatientService service;
+
+	@BeforeEach
+	void setUp() {
+		patientRepository = mock(PatientRepository.class);
+		PatientSearchIndex patientSearchIndex = mock(PatientSearchIndex.class);
+		service = new PatientService(patientRepository, patientSearchIndex, null, null);
+		ReflectionTestUtils.setField(service, "duplicateThreshold", 0.85);
+		ReflectionTestUtils.setField(service, "maxDuplicateCandidates", 5);
+
+		Patient existing = new Patient();
+		existing.setId(1L);
+		existing.setFirstName("Jon");
+		existing.setLastName("Smyth");
+		existing.setDateOfBirth(DATE_OF_BIRTH);
+		when(patientSearchIndex.isReady()).thenReturn(true);
+		when(patientSearchIndex.findDuplicates(anyString(), anyString(), any(), anyDouble(), anyInt()))
+				.thenReturn(List.of(new PatientSearchIndex.DuplicateMatch(1L, 0.93)));
+		when(patientRepository.findAllById(any())).thenReturn(List.of(existing));
+		when(patientRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void registersLikelyDuplicatesAndReturnsTheCandidates() {
+		PatientResponse response = service.createPatient(request());
+
+		verify(patientRepository).save(any());
+		assertThat(response.getDuplicateCandidates()).singleElement()
+				.satisfies(candidate -> assertThat(candidate.getId()).isEqualTo(1L));
+	}
+
+	@Test
+	void rejectsLikelyDuplicatesWhenBlockingIsEnabled() {
+		ReflectionTestUtils.setField(service, "blockDuplicateRegistration", true);
+
+		assertThatThrownBy(() -> service.createPatient(request())).isInstanceOf(DuplicatePatientException.class);
+		verify(patientRepository, never()).save(any());
+	}
+
+	private static PatientRequest request() {
+		PatientRequest request = new PatientRequest();
+		request.setFirstName("John");
+		request.setLastName("Smith");
+		request.setDateOfBirth(DATE_OF_BIRTH);
+		return request;
+	}
+}
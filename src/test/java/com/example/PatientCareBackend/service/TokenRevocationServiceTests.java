@@ -0,0 +1,90 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTests {
+
+	private UserRepository userRepository;
+	private TokenRevocationService service;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		service = new TokenRevocationService(userRepository);
+		ReflectionTestUtils.setField(service, "userCacheSize", 2);
+		ReflectionTestUtils.setField(service, "userCheckTtlMillis", 60_000L);
+	}
+
+	@Test
+	void rejectsTokensIssuedBeforeARecentRevocation() {
+		LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(5);
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(userRepository.findTokenRevocationsSince(any())).thenReturn(List.<Object[]>of(new Object[]{1L, revokedAt}));
+		service.refresh();
+
+		assertThat(service.isRevoked(1L, at(revokedAt.minusMinutes(1)))).isTrue();
+		assertThat(service.isRevoked(1L, at(revokedAt.plusMinutes(1)))).isFalse();
+	}
+
+	@Test
+	void rejectsTokensIssuedInTheSecondOfTheRevocation() {
+		LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(5).withNano(500_000_000);
+		when(userRepository.existsById(1L)).thenReturn(true);
+		when(userRepository.findTokenRevocationsSince(any())).thenReturn(List.<Object[]>of(new Object[]{1L, revokedAt}));
+		service.refresh();
+
+		// iat is whole seconds, so a token issued just before the revocation carries the revocation's second
+		assertThat(service.isRevoked(1L, at(revokedAt.withNano(0)))).isTrue();
+		assertThat(service.isRevoked(1L, at(revokedAt.withNano(0).plusSeconds(1)))).isFalse();
+	}
+
+	@Test
+	void looksUpEachUserOncePerTtl() {
+		when(userRepository.existsById(anyLong())).thenReturn(false);
+
+		assertThat(service.isRevoked(7L, new Date())).isTrue();
+		assertThat(service.isRevoked(7L, new Date())).isTrue();
+
+		verify(userRepository, times(1)).existsById(7L);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedUsersBeyondTheCacheSize() {
+		when(userRepository.existsById(anyLong())).thenReturn(true);
+
+		service.isRevoked(1L, new Date());
+		service.isRevoked(2L, new Date());
+		service.isRevoked(3L, new Date());
+		service.isRevoked(1L, new Date());
+
+		verify(userRepository, times(2)).existsById(1L);
+	}
+
+	@Test
+	void deletedUsersAreRejectedWithoutALookup() {
+		service.forget(4L);
+
+		assertThat(service.isRevoked(4L, new Date())).isTrue();
+		verify(userRepository, times(0)).existsById(4L);
+	}
+
+	private static Date at(LocalDateTime time) {
+		return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
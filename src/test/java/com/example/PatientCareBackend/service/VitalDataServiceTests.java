@@ -0,0 +1,105 @@
+package com.example.PatientCareBackend.service;
+
+import com.example.PatientCareBackend.config.EarlyWarningProperties;
+import com.example.PatientCareBackend.dto.request.VitalDataRequest;
+import com.example.PatientCareBackend.dto.response.PatientRef;
+import com.example.PatientCareBackend.dto.response.VitalDataResponse;
+import com.example.PatientCareBackend.model.Patient;
+import com.example.PatientCareBackend.model.VitalData;
+import com.example.PatientCareBackend.repository.PatientRepository;
+import com.example.PatientCareBackend.repository.VitalDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Readings have sequence ids, so nothing is inserted until a flush; rollups need createdAt as soon as they are saved
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.default_schema=PUBLIC",
+		"spring.jpa.properties.hibernate.hbm2ddl.schema-generation.scripts.action=none",
+		"spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+class VitalDataServiceTests {
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@Autowired
+	private VitalDataRepository vitalDataRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	private final List<LocalDateTime> rolledUp = new ArrayList<>();
+	private VitalDataService service;
+	private Patient patient;
+
+	@BeforeEach
+	void setUp() {
+		patient = new Patient();
+		patient.setPatientId("P-1");
+		patient.setFirstName("First");
+		patient.setLastName("Last");
+		patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+		patient.setGender(Patient.Gender.OTHER);
+		testEntityManager.persist(patient);
+
+		VitalRollupService vitalRollupService = mock(VitalRollupService.class);
+		doAnswer(invocation -> {
+			for (VitalData vitalData : invocation.<Collection<VitalData>>getArgument(0)) {
+				rolledUp.add(vitalData.getCreatedAt());
+			}
+			return null;
+		}).when(vitalRollupService).recordAll(any());
+		PatientRefResolver patientRefResolver = mock(PatientRefResolver.class);
+		when(patientRefResolver.resolve(any())).thenReturn(new PatientRef(patient.getId(), "P-1", "First", "Last"));
+
+		service = new VitalDataService(vitalDataRepository, patientRepository, null, patientRefResolver,
+				mock(LatestVitalsStore.class), vitalRollupService, new EarlyWarningScorer(new EarlyWarningProperties()),
+				mock(DeteriorationMonitor.class));
+	}
+
+	@Test
+	void singleReadingIsStampedBeforeItIsRolledUp() {
+		VitalDataResponse response = service.recordVitalData(request());
+
+		assertThat(rolledUp).singleElement().isNotNull();
+		assertThat(response.getCreatedAt()).isNotNull();
+	}
+
+	@Test
+	void batchReadingsAreStampedBeforeTheyAreRolledUp() {
+		List<VitalDataResponse> responses = service.recordVitalDataBatch(List.of(request(), request()));
+
+		assertThat(rolledUp).hasSize(2).doesNotContainNull();
+		assertThat(responses).allSatisfy(response -> assertThat(response.getCreatedAt()).isNotNull());
+	}
+
+	private VitalDataRequest request() {
+		VitalDataRequest request = new VitalDataRequest();
+		request.setPatientId(patient.getId());
+		request.setSystolicBp(120);
+		request.setDiastolicBp(80);
+		request.setHeartRate(72);
+		request.setRespiratoryRate(16);
+		request.setTemperature(new BigDecimal("36.8"));
+		request.setOxygenSaturation(97);
+		request.setRecordedBy("Nurse");
+		return request;
+	}
+}